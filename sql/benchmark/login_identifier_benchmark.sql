@@ -0,0 +1,63 @@
+-- 登录标识查询基准测试（MySQL 8.0）
+-- 在独立的测试库中执行：生成约300万用户，对比 OR 查询与单列唯一索引查询的执行计划和耗时
+-- 用法：mysql -uroot -p login_bench < sql/benchmark/login_identifier_benchmark.sql
+
+DROP TABLE IF EXISTS `sys_user_bench`;
+CREATE TABLE `sys_user_bench` LIKE `sys_user`;
+
+-- 1. 生成数据：10^6.5 ≈ 300万行，用户名/邮箱/手机号各不相同，约三分之一用户不填邮箱或手机号
+SET SESSION cte_max_recursion_depth = 10;
+INSERT INTO `sys_user_bench` (`username`, `password`, `email`, `phone`, `user_type`, `status`, `deleted`,
+                              `create_time`, `update_time`)
+WITH RECURSIVE digits (d) AS (SELECT 0 UNION ALL SELECT d + 1 FROM digits WHERE d < 9),
+     seq (n) AS (SELECT a.d + b.d * 10 + c.d * 100 + e.d * 1000 + f.d * 10000 + g.d * 100000 + h.d * 1000000
+                 FROM digits a, digits b, digits c, digits e, digits f, digits g, digits h
+                 WHERE h.d < 3)
+SELECT CONCAT('user', n),
+       '$2a$10$7EqJtq98hPqEX7fNZaFWoO5p6Q0Y7nQ8eQKQ0Qp1oQy0y8hP3Wm1u',
+       IF(n % 3 = 0, NULL, CONCAT('user', n, '@example.com')),
+       IF(n % 3 = 1, NULL, CONCAT('13', LPAD(n, 9, '0'))),
+       1 + n % 3, 0, 0, NOW(), NOW()
+FROM seq;
+
+-- 2. 建立唯一索引（与 db/migration/V2__add_user_indexes.sql 一致）
+ALTER TABLE `sys_user_bench`
+    ADD UNIQUE INDEX `uk_username` (`username`),
+    ADD UNIQUE INDEX `uk_email` (`email`),
+    ADD UNIQUE INDEX `uk_phone` (`phone`);
+ANALYZE TABLE `sys_user_bench`;
+
+-- 3. 执行计划对比
+-- 原查询：通常为 type=index_merge（sort_union）或在统计信息不准时退化为全表扫描
+EXPLAIN FORMAT = TREE
+SELECT * FROM `sys_user_bench`
+WHERE (`username` = '13000002001' OR `email` = '13000002001' OR `phone` = '13000002001') AND `deleted` = 0;
+
+-- 新查询：type=const，按唯一索引直接定位一行
+EXPLAIN FORMAT = TREE
+SELECT * FROM `sys_user_bench` WHERE `phone` = '13000002001' AND `deleted` = 0;
+
+-- 4. 实际耗时对比（EXPLAIN ANALYZE 会真正执行查询并输出每一步的耗时）
+EXPLAIN ANALYZE
+SELECT * FROM `sys_user_bench`
+WHERE (`username` = 'user2002' OR `email` = 'user2002' OR `phone` = 'user2002') AND `deleted` = 0;
+
+EXPLAIN ANALYZE
+SELECT * FROM `sys_user_bench` WHERE `username` = 'user2002' AND `deleted` = 0;
+
+EXPLAIN ANALYZE
+SELECT * FROM `sys_user_bench`
+WHERE (`username` = 'user2002@example.com' OR `email` = 'user2002@example.com' OR `phone` = 'user2002@example.com')
+  AND `deleted` = 0;
+
+EXPLAIN ANALYZE
+SELECT * FROM `sys_user_bench` WHERE `email` = 'user2002@example.com' AND `deleted` = 0;
+
+-- 5. 去掉唯一索引后原查询的表现（模拟线上只有主键索引的情况）
+ALTER TABLE `sys_user_bench` DROP INDEX `uk_email`, DROP INDEX `uk_phone`;
+EXPLAIN ANALYZE
+SELECT * FROM `sys_user_bench`
+WHERE (`username` = 'user2002' OR `email` = 'user2002' OR `phone` = 'user2002') AND `deleted` = 0;
+
+-- 清理
+-- DROP TABLE `sys_user_bench`;
@@ -0,0 +1,31 @@
+package top.alexjtech.educationapi.common;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 数据导出格式
+ */
+@Getter
+@AllArgsConstructor
+public enum ExportFormat {
+    CSV("text/csv;charset=UTF-8", "csv"),
+    NDJSON("application/x-ndjson;charset=UTF-8", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    /**
+     * 根据名称获取导出格式（不区分大小写）
+     *
+     * @return 不支持的格式返回null
+     */
+    public static ExportFormat of(String name) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,39 @@
+package top.alexjtech.educationapi.common;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.regex.Pattern;
+
+/**
+ * 登录标识类型
+ * 登录前先判断标识是手机号、邮箱还是用户名，再按对应字段的唯一索引精确查询
+ */
+@Getter
+@AllArgsConstructor
+public enum LoginIdentifierType {
+    USERNAME("用户名"),
+    EMAIL("邮箱"),
+    PHONE("手机号");
+
+    private static final Pattern PHONE_PATTERN = Pattern.compile("^1[3-9]\\d{9}$");
+
+    private final String description;
+
+    /**
+     * 判断登录标识的类型：符合手机号格式为手机号，包含@为邮箱，否则为用户名
+     */
+    public static LoginIdentifierType classify(String identifier) {
+        if (identifier == null) {
+            return USERNAME;
+        }
+        if (identifier.length() == 11 && PHONE_PATTERN.matcher(identifier).matches()) {
+            return PHONE;
+        }
+        int at = identifier.indexOf('@');
+        if (at > 0 && at < identifier.length() - 1) {
+            return EMAIL;
+        }
+        return USERNAME;
+    }
+}
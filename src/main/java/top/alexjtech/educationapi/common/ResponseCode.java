@@ -19,6 +19,8 @@ public enum ResponseCode {
     FORBIDDEN(403, "禁止访问"),
     NOT_FOUND(404, "资源未找到"),
     METHOD_NOT_ALLOWED(405, "请求方法不允许"),
+    CONFLICT(409, "数据已被修改"),
+    TOO_MANY_REQUESTS(429, "请求过于频繁"),
 
     // 服务器错误
     INTERNAL_SERVER_ERROR(500, "服务器内部错误"),
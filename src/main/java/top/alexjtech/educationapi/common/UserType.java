@@ -6,12 +6,18 @@ import lombok.Getter;
 @Getter
 @AllArgsConstructor
 public enum UserType {
-    STUDENT(1, "学生"),
-    TEACHER(2, "老师"),
-    ADMIN(3, "管理员");
+    STUDENT(1, "学生", "ROLE_STUDENT"),
+    TEACHER(2, "老师", "ROLE_TEACHER"),
+    ADMIN(3, "管理员", "ROLE_ADMIN");
+
+    /**
+     * 未知用户类型对应的默认角色
+     */
+    public static final String DEFAULT_ROLE = "ROLE_USER";
 
     private final Integer code;
     private final String description;
+    private final String role;
 
     public static UserType getByCode(Integer code) {
         for (UserType userType : UserType.values()) {
@@ -21,4 +27,12 @@ public enum UserType {
         }
         return null;
     }
+
+    /**
+     * 根据用户类型编码获取对应的角色
+     */
+    public static String getRoleByCode(Integer code) {
+        UserType userType = getByCode(code);
+        return userType != null ? userType.role : DEFAULT_ROLE;
+    }
 }
@@ -0,0 +1,134 @@
+package top.alexjtech.educationapi.config.datasource;
+
+import com.alibaba.druid.filter.FilterAdapter;
+import com.alibaba.druid.filter.FilterChain;
+import com.alibaba.druid.pool.DruidDataSource;
+import com.alibaba.druid.pool.DruidPooledConnection;
+import com.alibaba.druid.pool.GetConnectionTimeoutException;
+import com.alibaba.druid.proxy.jdbc.DataSourceProxy;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Druid连接池监控过滤器
+ * 连接池初始化时注册池状态指标（借出、空闲、等待线程、使用率、PreparedStatement缓存命中），
+ * 每次获取连接时按结果（success/timeout/error）记录等待耗时分布，使连接池耗尽在超时前就能被观察和告警
+ * 作为Druid Filter Bean由Druid自动配置注入主库连接池，只读副本连接池复制主库配置时一并继承
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.druid.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class DruidPoolMetricsFilter extends FilterAdapter {
+
+    private final MeterRegistry meterRegistry;
+
+    // 同一连接池获取连接超时日志的最短间隔，间隔内只计数
+    @Value("${app.druid.metrics.timeout-log-interval:10s}")
+    private Duration timeoutLogInterval;
+
+    private final Map<DruidDataSource, PoolMeters> pools = new ConcurrentHashMap<>();
+
+    @Override
+    public void init(DataSourceProxy dataSource) {
+        if (dataSource instanceof DruidDataSource druid) {
+            pools.computeIfAbsent(druid, PoolMeters::new);
+        }
+    }
+
+    @Override
+    public DruidPooledConnection dataSource_getConnection(FilterChain chain, DruidDataSource dataSource,
+                                                          long maxWaitMillis) throws SQLException {
+        PoolMeters pool = pools.computeIfAbsent(dataSource, PoolMeters::new);
+        long start = System.nanoTime();
+        try {
+            DruidPooledConnection connection = super.dataSource_getConnection(chain, dataSource, maxWaitMillis);
+            pool.success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return connection;
+        } catch (GetConnectionTimeoutException e) {
+            pool.timeout.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            timedOut(pool, dataSource);
+            throw e;
+        } catch (SQLException | RuntimeException e) {
+            pool.error.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private void timedOut(PoolMeters pool, DruidDataSource dataSource) {
+        long now = System.nanoTime();
+        long last = pool.lastTimeoutLog.get();
+        if (last != 0 && now - last < timeoutLogInterval.toNanos()) {
+            pool.suppressedTimeoutLogs.incrementAndGet();
+            return;
+        }
+        if (!pool.lastTimeoutLog.compareAndSet(last, now)) {
+            pool.suppressedTimeoutLogs.incrementAndGet();
+            return;
+        }
+        log.warn("连接池 {} 获取连接超时（{}ms），借出 {}/{}，等待线程 {}，上次记录后另有 {} 次超时未记录",
+                pool.name, dataSource.getMaxWait(), dataSource.getActiveCount(), dataSource.getMaxActive(),
+                dataSource.getWaitThreadCount(), pool.suppressedTimeoutLogs.getAndSet(0));
+    }
+
+    private final class PoolMeters {
+
+        private final String name;
+        private final Timer success;
+        private final Timer timeout;
+        private final Timer error;
+        private final AtomicLong lastTimeoutLog = new AtomicLong();
+        private final AtomicLong suppressedTimeoutLogs = new AtomicLong();
+
+        private PoolMeters(DruidDataSource druid) {
+            name = druid.getName();
+            success = borrowTimer("success");
+            timeout = borrowTimer("timeout");
+            error = borrowTimer("error");
+
+            Gauge.builder("druid.pool.active", druid, DruidDataSource::getActiveCount)
+                    .description("已借出的连接数").tag("pool", name).register(meterRegistry);
+            Gauge.builder("druid.pool.idle", druid, DruidDataSource::getPoolingCount)
+                    .description("池中空闲连接数").tag("pool", name).register(meterRegistry);
+            Gauge.builder("druid.pool.waiting", druid, DruidDataSource::getWaitThreadCount)
+                    .description("等待获取连接的线程数").tag("pool", name).register(meterRegistry);
+            Gauge.builder("druid.pool.max", druid, DruidDataSource::getMaxActive)
+                    .description("最大连接数").tag("pool", name).register(meterRegistry);
+            Gauge.builder("druid.pool.usage", druid, d -> d.getMaxActive() > 0 ? (double) d.getActiveCount() / d.getMaxActive() : 0)
+                    .description("连接池使用率（借出/最大）").tag("pool", name).register(meterRegistry);
+            FunctionCounter.builder("druid.pool.borrow.waits", druid, DruidDataSource::getNotEmptyWaitCount)
+                    .description("因无空闲连接而等待的获取次数").tag("pool", name).register(meterRegistry);
+            FunctionCounter.builder("druid.pool.connect.errors", druid, DruidDataSource::getConnectErrorCount)
+                    .description("获取连接失败次数（含超时）").tag("pool", name).register(meterRegistry);
+            FunctionCounter.builder("druid.pool.pscache.hits", druid, DruidDataSource::getCachedPreparedStatementHitCount)
+                    .description("PreparedStatement缓存命中次数").tag("pool", name).register(meterRegistry);
+            FunctionCounter.builder("druid.pool.pscache.misses", druid, DruidDataSource::getCachedPreparedStatementMissCount)
+                    .description("PreparedStatement缓存未命中次数").tag("pool", name).register(meterRegistry);
+        }
+
+        private Timer borrowTimer(String outcome) {
+            return Timer.builder("druid.pool.borrow")
+                    .description("获取连接的等待耗时")
+                    .tag("pool", name)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(100_000))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package top.alexjtech.educationapi.config.datasource;
+
+import com.alibaba.druid.support.jakarta.WebStatFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Druid Web统计配置（替代Druid自动配置的 web-stat-filter，需将 spring.datasource.druid.web-stat-filter.enabled 设为false）
+ * 请求按比例采样进入Druid URI统计，监控页面和导出指标均基于采样数据
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.druid.web-stat", name = "enabled", havingValue = "true")
+public class DruidWebStatConfig {
+
+    // 采样率
+    @Value("${app.druid.web-stat.sample-rate:0.1}")
+    private double sampleRate;
+
+    @Value("${app.druid.web-stat.exclusions:*.js,*.gif,*.jpg,*.png,*.css,*.ico,/druid/*,/actuator/*}")
+    private String exclusions;
+
+    // 最多导出的URI数
+    @Value("${app.druid.web-stat.max-uris:200}")
+    private int maxUris;
+
+    @Bean
+    public SamplingWebStatFilter samplingWebStatFilter() {
+        return new SamplingWebStatFilter(sampleRate);
+    }
+
+    @Bean
+    public FilterRegistrationBean<SamplingWebStatFilter> samplingWebStatFilterRegistration(SamplingWebStatFilter samplingWebStatFilter) {
+        FilterRegistrationBean<SamplingWebStatFilter> registration = new FilterRegistrationBean<>(samplingWebStatFilter);
+        registration.addUrlPatterns("/*");
+        registration.addInitParameter(WebStatFilter.PARAM_NAME_EXCLUSIONS, exclusions);
+        // 接口使用JWT无状态认证，不统计会话
+        registration.addInitParameter(WebStatFilter.PARAM_NAME_SESSION_STAT_ENABLE, "false");
+        return registration;
+    }
+
+    @Bean
+    public WebStatMetricsExporter webStatMetricsExporter(SamplingWebStatFilter samplingWebStatFilter, MeterRegistry meterRegistry) {
+        return new WebStatMetricsExporter(samplingWebStatFilter, meterRegistry, maxUris);
+    }
+}
@@ -0,0 +1,101 @@
+package top.alexjtech.educationapi.config.datasource;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import com.alibaba.druid.spring.boot3.autoconfigure.DruidDataSourceBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 读写分离配置（app.datasource.replica.enabled=true 时生效）
+ * 主库连接池沿用 spring.datasource 和 spring.datasource.druid 配置，副本连接池复制主库的连接池参数；
+ * 应用使用的数据源为 延迟获取连接代理 -> 读写路由 -> 主库/副本连接池
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "enabled", havingValue = "true")
+public class ReadWriteDataSourceConfig {
+
+    @Value("${app.datasource.replica.urls:}")
+    private List<String> urls;
+
+    @Value("${app.datasource.replica.username:${spring.datasource.username:}}")
+    private String username;
+
+    @Value("${app.datasource.replica.password:${spring.datasource.password:}}")
+    private String password;
+
+    // 最大允许复制延迟，超出时该副本暂停使用
+    @Value("${app.datasource.replica.max-lag:5s}")
+    private Duration maxLag;
+
+    @Value("${app.datasource.replica.lag-query:SHOW REPLICA STATUS}")
+    private String lagQuery;
+
+    /**
+     * 主库连接池（替代Druid自动配置创建的数据源），数据库迁移直接使用主库连接池
+     */
+    @Bean(initMethod = "init")
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.druid")
+    public DruidDataSource primaryDataSource() {
+        return DruidDataSourceBuilder.create().build();
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(DruidDataSource primaryDataSource,
+                                                                 MeterRegistry meterRegistry) throws SQLException {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : urls) {
+            DruidDataSource replica = primaryDataSource.cloneDruidDataSource();
+            replica.setName("replica-" + replicas.size());
+            replica.setUrl(url.trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.init();
+            replicas.put(replica.getName(), replica);
+        }
+        if (replicas.isEmpty()) {
+            log.warn("已开启读写分离但未配置只读副本（app.datasource.replica.urls），全部使用主库");
+        }
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas, maxLag, lagQuery, meterRegistry);
+    }
+
+    /**
+     * 应用使用的数据源
+     * 事务开始时不立即获取连接，推迟到执行第一条语句时，此时只读事务标记已设置，读写路由才能生效
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+    @Bean
+    public WriteTrackingInterceptor writeTrackingInterceptor() {
+        return new WriteTrackingInterceptor();
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadWriteRoutingFilter> readWriteRoutingFilter() {
+        FilterRegistrationBean<ReadWriteRoutingFilter> registration = new FilterRegistrationBean<>(new ReadWriteRoutingFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
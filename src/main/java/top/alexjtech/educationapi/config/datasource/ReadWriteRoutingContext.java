@@ -0,0 +1,29 @@
+package top.alexjtech.educationapi.config.datasource;
+
+/**
+ * 读写分离路由上下文
+ * 当前请求（线程）发生写操作后固定使用主库，保证同一请求内写后读能读到刚写入的数据；
+ * 由 {@link ReadWriteRoutingFilter} 在请求结束时清除
+ */
+public final class ReadWriteRoutingContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = new ThreadLocal<>();
+
+    private ReadWriteRoutingContext() {
+    }
+
+    /**
+     * 之后的读操作（包括只读事务）固定使用主库
+     */
+    public static void pinPrimary() {
+        PRIMARY_PINNED.set(Boolean.TRUE);
+    }
+
+    public static boolean isPrimaryPinned() {
+        return PRIMARY_PINNED.get() != null;
+    }
+
+    public static void clear() {
+        PRIMARY_PINNED.remove();
+    }
+}
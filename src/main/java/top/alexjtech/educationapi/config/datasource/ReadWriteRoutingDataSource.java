@@ -0,0 +1,222 @@
+package top.alexjtech.educationapi.config.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 读写分离数据源
+ * 只读事务中的连接轮询分配到复制延迟在阈值内的副本，其余连接（写事务、非事务语句、写后读）使用主库；
+ * 副本延迟超限、复制中断或获取连接失败时暂停使用，全部不可用时回退到主库
+ * 需由 LazyConnectionDataSourceProxy 包装，使获取连接推迟到只读事务标记设置之后
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    public static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagSeconds;
+    private final String lagQuery;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter readWriteCounter;
+    private final Counter pinnedCounter;
+    private final Counter fallbackCounter;
+
+    /**
+     * @param primary       主库连接池
+     * @param replicas      副本名称到连接池的映射
+     * @param maxLag        最大允许复制延迟
+     * @param lagQuery      查询复制延迟的语句，见 {@link #checkReplicas()}
+     * @param meterRegistry 监控指标注册表
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag,
+                                      String lagQuery, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.maxLagSeconds = maxLag.toSeconds();
+        this.lagQuery = lagQuery;
+        readWriteCounter = routeCounter(meterRegistry, PRIMARY, "read-write");
+        pinnedCounter = routeCounter(meterRegistry, PRIMARY, "pinned");
+        fallbackCounter = routeCounter(meterRegistry, PRIMARY, "fallback");
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource, routeCounter(meterRegistry, name, "read-only"));
+            this.replicas.add(replica);
+            Gauge.builder("datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .description("副本复制延迟，未知或复制中断时为-1")
+                    .baseUnit("seconds")
+                    .tag("route", name)
+                    .register(meterRegistry);
+            Gauge.builder("datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .tag("route", name)
+                    .register(meterRegistry);
+        });
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = selectReplica();
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.dataSource.getConnection();
+        } catch (SQLException e) {
+            markDown(replica, e.getMessage());
+            fallbackCounter.increment();
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Replica replica = selectReplica();
+        return (replica != null ? replica.dataSource : primary).getConnection(username, password);
+    }
+
+    /**
+     * 检查各副本的复制延迟；启动后立即执行一次，之前所有读操作使用主库
+     * 延迟查询为 SHOW REPLICA STATUS / SHOW SLAVE STATUS 时读取 Seconds_Behind_Source / Seconds_Behind_Master 列，
+     * 否则读取第一列（如心跳表查询返回的延迟秒数）；查询无结果表示该节点不是副本（如本地替身库），视为无延迟
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.datasource.replica.check-interval:5s}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            Long lag;
+            try {
+                lag = queryLag(replica.dataSource);
+            } catch (SQLException | RuntimeException e) {
+                markDown(replica, e.getMessage());
+                continue;
+            }
+            replica.lagSeconds = lag != null ? lag : -1;
+            if (lag == null) {
+                markDown(replica, "复制线程未运行");
+            } else if (lag > maxLagSeconds) {
+                markDown(replica, "复制延迟 " + lag + "s 超过 " + maxLagSeconds + "s");
+            } else if (!replica.healthy) {
+                replica.healthy = true;
+                log.info("只读副本 {} 已可用，复制延迟 {}s", replica.name, lag);
+            }
+        }
+    }
+
+    /**
+     * 关闭副本连接池（主库连接池由容器管理）
+     */
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("关闭只读副本 {} 失败: {}", replica.name, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 选择本次连接使用的副本
+     *
+     * @return 副本，应使用主库时返回null
+     */
+    private Replica selectReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // 写事务中的后续读操作同样需要读到本次写入，固定到主库
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                ReadWriteRoutingContext.pinPrimary();
+            }
+            readWriteCounter.increment();
+            return null;
+        }
+        if (ReadWriteRoutingContext.isPrimaryPinned()) {
+            pinnedCounter.increment();
+            return null;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                replica.routed.increment();
+                return replica;
+            }
+        }
+        fallbackCounter.increment();
+        return null;
+    }
+
+    private Long queryLag(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            if (!resultSet.next()) {
+                return 0L;
+            }
+            long lag = resultSet.getLong(lagColumn(resultSet.getMetaData()));
+            return resultSet.wasNull() ? null : lag;
+        }
+    }
+
+    private static int lagColumn(ResultSetMetaData metaData) throws SQLException {
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            String label = metaData.getColumnLabel(i);
+            if ("Seconds_Behind_Source".equalsIgnoreCase(label) || "Seconds_Behind_Master".equalsIgnoreCase(label)) {
+                return i;
+            }
+        }
+        return 1;
+    }
+
+    private static void markDown(Replica replica, String reason) {
+        if (replica.healthy) {
+            log.warn("只读副本 {} 暂停使用: {}", replica.name, reason);
+        }
+        replica.healthy = false;
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, String route, String reason) {
+        return Counter.builder("datasource.route")
+                .description("按路由目标和原因统计的连接获取次数")
+                .tag("route", route)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private final Counter routed;
+
+        // 首次检查通过前不使用
+        private volatile boolean healthy;
+        private volatile long lagSeconds = -1;
+
+        private Replica(String name, DataSource dataSource, Counter routed) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.routed = routed;
+        }
+    }
+}
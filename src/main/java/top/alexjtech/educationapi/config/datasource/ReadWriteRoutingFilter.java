@@ -0,0 +1,26 @@
+package top.alexjtech.educationapi.config.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 请求结束时清除读写分离路由上下文，避免写后固定主库的标记带到同一线程处理的下一个请求
+ */
+public class ReadWriteRoutingFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ReadWriteRoutingContext.clear();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadWriteRoutingContext.clear();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package top.alexjtech.educationapi.config.datasource;
+
+import com.alibaba.druid.support.jakarta.WebStatFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 按比例采样的Druid Web统计过滤器
+ * 只有被采样的请求进入Druid的URI统计，其余请求直接放行，不产生统计开销；
+ * 统计中的次数和耗时均为采样值，导出时按采样率还原，见 {@link WebStatMetricsExporter}
+ */
+public class SamplingWebStatFilter extends WebStatFilter {
+
+    private final double sampleRate;
+
+    /**
+     * @param sampleRate 采样率，取值 (0, 1]
+     */
+    public SamplingWebStatFilter(double sampleRate) {
+        if (!(sampleRate > 0 && sampleRate <= 1)) {
+            throw new IllegalArgumentException("采样率应在 (0, 1] 之间: " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            chain.doFilter(request, response);
+            return;
+        }
+        super.doFilter(request, response, chain);
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+}
@@ -0,0 +1,114 @@
+package top.alexjtech.educationapi.config.datasource;
+
+import com.alibaba.druid.support.http.stat.WebAppStat;
+import com.alibaba.druid.support.http.stat.WebURIStatValue;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Druid Web URI统计导出
+ * 定期读取 {@link SamplingWebStatFilter} 的URI统计，按采样率还原后导出为 druid.web.* 指标；
+ * 路径中的数字和UUID等标识段合并为 {id}，导出的URI数量有上限，超出部分只记录日志
+ * JDBC相关指标仅在连接池开启Druid stat过滤器时有值
+ */
+@Slf4j
+public class WebStatMetricsExporter {
+
+    private static final Pattern ID_SEGMENT = Pattern.compile("\\d+|[0-9a-fA-F-]{16,}");
+
+    private final SamplingWebStatFilter filter;
+    private final MeterRegistry meterRegistry;
+    private final int maxUris;
+    private final Map<String, UriMeters> meters = new ConcurrentHashMap<>();
+    private volatile boolean overflowLogged;
+
+    /**
+     * @param filter        Web统计过滤器
+     * @param meterRegistry 监控指标注册表
+     * @param maxUris       最多导出的URI数
+     */
+    public WebStatMetricsExporter(SamplingWebStatFilter filter, MeterRegistry meterRegistry, int maxUris) {
+        this.filter = filter;
+        this.meterRegistry = meterRegistry;
+        this.maxUris = maxUris;
+    }
+
+    @Scheduled(initialDelayString = "${app.druid.web-stat.export-interval:60s}",
+            fixedDelayString = "${app.druid.web-stat.export-interval:60s}")
+    public void export() {
+        WebAppStat webAppStat = filter.getWebAppStat();
+        if (webAppStat == null) {
+            return;
+        }
+        Map<String, long[]> totals = new HashMap<>();
+        for (WebURIStatValue value : webAppStat.getURIStatValueList(false)) {
+            long[] total = totals.computeIfAbsent(normalize(value.getUri()), uri -> new long[5]);
+            total[0] += value.getRequestCount();
+            total[1] += value.getErrorCount();
+            total[2] += value.getRequestTimeNano();
+            total[3] += value.getJdbcExecuteCount();
+            total[4] += value.getJdbcExecuteTimeNano();
+        }
+        double scale = 1 / filter.getSampleRate();
+        totals.forEach((uri, total) -> {
+            UriMeters uriMeters = meters.get(uri);
+            if (uriMeters == null) {
+                if (meters.size() >= maxUris) {
+                    if (!overflowLogged) {
+                        overflowLogged = true;
+                        log.warn("Web URI统计超过导出上限 {}，新出现的URI（如 {}）不再导出", maxUris, uri);
+                    }
+                    return;
+                }
+                uriMeters = meters.computeIfAbsent(uri, UriMeters::new);
+            }
+            // Druid淘汰URI统计后合并值可能回落，指标只增不减
+            for (int i = 0; i < total.length; i++) {
+                long scaled = Math.round(total[i] * scale);
+                uriMeters.values[i].accumulateAndGet(scaled, Math::max);
+            }
+        });
+    }
+
+    /**
+     * 合并路径中的标识段，如 /api/user/123 -> /api/user/{id}
+     */
+    static String normalize(String uri) {
+        if (uri == null || uri.isEmpty()) {
+            return "/";
+        }
+        String[] segments = uri.split("/", -1);
+        for (int i = 0; i < segments.length; i++) {
+            if (ID_SEGMENT.matcher(segments[i]).matches()) {
+                segments[i] = "{id}";
+            }
+        }
+        return String.join("/", segments);
+    }
+
+    private final class UriMeters {
+
+        private final AtomicLong[] values = {new AtomicLong(), new AtomicLong(), new AtomicLong(), new AtomicLong(), new AtomicLong()};
+
+        private UriMeters(String uri) {
+            FunctionCounter.builder("druid.web.requests", values[0], AtomicLong::get)
+                    .description("请求次数（按采样率估算）").tag("uri", uri).register(meterRegistry);
+            FunctionCounter.builder("druid.web.errors", values[1], AtomicLong::get)
+                    .description("处理异常的请求次数（按采样率估算）").tag("uri", uri).register(meterRegistry);
+            FunctionCounter.builder("druid.web.request.time", values[2], v -> v.get() / 1e9)
+                    .description("请求处理总耗时（按采样率估算）").baseUnit("seconds").tag("uri", uri).register(meterRegistry);
+            FunctionCounter.builder("druid.web.jdbc.executions", values[3], AtomicLong::get)
+                    .description("请求内执行的SQL次数（按采样率估算）").tag("uri", uri).register(meterRegistry);
+            FunctionCounter.builder("druid.web.jdbc.time", values[4], v -> v.get() / 1e9)
+                    .description("请求内SQL执行总耗时（按采样率估算）").baseUnit("seconds").tag("uri", uri).register(meterRegistry);
+        }
+    }
+}
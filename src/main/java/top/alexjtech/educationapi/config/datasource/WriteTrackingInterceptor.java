@@ -0,0 +1,21 @@
+package top.alexjtech.educationapi.config.datasource;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+
+/**
+ * MyBatis写操作跟踪：执行INSERT/UPDATE/DELETE后将当前请求固定到主库
+ */
+@Intercepts(@Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}))
+public class WriteTrackingInterceptor implements Interceptor {
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        ReadWriteRoutingContext.pinPrimary();
+        return invocation.proceed();
+    }
+}
@@ -0,0 +1,277 @@
+package top.alexjtech.educationapi.config.mybatis;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.sf.jsqlparser.JSQLParserException;
+import net.sf.jsqlparser.expression.Expression;
+import net.sf.jsqlparser.expression.operators.conditional.AndExpression;
+import net.sf.jsqlparser.expression.operators.conditional.OrExpression;
+import net.sf.jsqlparser.expression.operators.relational.Between;
+import net.sf.jsqlparser.expression.operators.relational.ComparisonOperator;
+import net.sf.jsqlparser.expression.operators.relational.InExpression;
+import net.sf.jsqlparser.expression.operators.relational.IsNullExpression;
+import net.sf.jsqlparser.expression.operators.relational.ParenthesedExpressionList;
+import net.sf.jsqlparser.parser.CCJSqlParserUtil;
+import net.sf.jsqlparser.schema.Column;
+import net.sf.jsqlparser.schema.Table;
+import net.sf.jsqlparser.statement.Statement;
+import net.sf.jsqlparser.statement.delete.Delete;
+import net.sf.jsqlparser.statement.insert.Insert;
+import net.sf.jsqlparser.statement.select.ParenthesedSelect;
+import net.sf.jsqlparser.statement.select.PlainSelect;
+import net.sf.jsqlparser.statement.select.Select;
+import net.sf.jsqlparser.statement.select.SetOperationList;
+import net.sf.jsqlparser.statement.update.Update;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * 启动时检查XML映射语句的查询条件是否命中索引
+ * 按探测参数渲染每条语句（动态条件全部成立、foreach展开一次），用JSqlParser取出WHERE中AND连接的列条件，
+ * 与数据库中的索引比较：某个索引的前缀列都有条件、且前缀中至少有一列不是低选择性列（如deleted）时视为命中；
+ * OR条件要求每个分支都命中。未命中的语句记录告警，不影响启动
+ * 按设计全表读取的语句（构建过滤器、搜索索引的流式查询）通过 app.index-check.ignored-statements 排除
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.index-check", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class IndexCoverageChecker {
+
+    /**
+     * 渲染动态SQL的探测参数：任意参数名都取到一个单元素列表，使if条件成立、foreach展开一次
+     */
+    private static final Map<String, Object> PROBE_PARAMETER = new HashMap<>() {
+        @Override
+        public Object get(Object key) {
+            return List.of(0);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return true;
+        }
+    };
+
+    private final SqlSessionFactory sqlSessionFactory;
+    private final DataSource dataSource;
+
+    // 单独出现时不足以使用索引的列
+    @Value("${app.index-check.low-selectivity-columns:deleted,status}")
+    private Set<String> lowSelectivityColumns;
+
+    // 不检查的语句名（不含命名空间）
+    @Value("${app.index-check.ignored-statements:selectIdentifiers,selectSearchFields}")
+    private Set<String> ignoredStatements;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void check() {
+        try (Connection connection = dataSource.getConnection()) {
+            List<String> problems = findUnindexedStatements(sqlSessionFactory.getConfiguration(), connection);
+            problems.forEach(log::warn);
+            log.info("映射语句索引检查完成，{} 条语句未命中索引", problems.size());
+        } catch (SQLException | RuntimeException e) {
+            log.warn("映射语句索引检查失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 检查XML映射语句，返回未命中索引的语句说明
+     */
+    List<String> findUnindexedStatements(Configuration configuration, Connection connection) throws SQLException {
+        // 映射语句同时以完整ID和短名称登记，按ID去重
+        Map<String, MappedStatement> statements = new TreeMap<>();
+        for (Object value : configuration.getMappedStatements()) {
+            if (value instanceof MappedStatement ms && ms.getResource() != null && ms.getResource().endsWith(".xml")) {
+                statements.putIfAbsent(ms.getId(), ms);
+            }
+        }
+
+        Map<String, List<List<String>>> indexCache = new HashMap<>();
+        List<String> problems = new ArrayList<>();
+        for (MappedStatement ms : statements.values()) {
+            String name = ms.getId().substring(ms.getId().lastIndexOf('.') + 1);
+            if (ignoredStatements.contains(name) || name.contains("!")) {
+                continue;
+            }
+            Statement statement;
+            try {
+                statement = CCJSqlParserUtil.parse(ms.getSqlSource().getBoundSql(PROBE_PARAMETER).getSql());
+            } catch (JSQLParserException | RuntimeException e) {
+                log.debug("跳过无法解析的语句 {}: {}", ms.getId(), e.getMessage());
+                continue;
+            }
+            Map<Table, Expression> scans = new LinkedHashMap<>();
+            collectScans(statement, scans);
+            for (Map.Entry<Table, Expression> scan : scans.entrySet()) {
+                String table = normalize(scan.getKey().getName());
+                List<List<String>> indexes = indexCache.computeIfAbsent(table, t -> indexes(connection, t));
+                Expression where = scan.getValue();
+                if (indexes.isEmpty()) {
+                    problems.add("映射语句 " + ms.getId() + " 查询的表 " + table + " 不存在或没有任何索引");
+                } else if (where == null) {
+                    problems.add("映射语句 " + ms.getId() + " 没有查询条件，将全表扫描 " + table);
+                } else if (!usesIndex(where, indexes)) {
+                    Set<String> columns = new LinkedHashSet<>();
+                    for (Expression conjunct : conjuncts(where)) {
+                        String column = predicateColumn(conjunct);
+                        if (column != null) {
+                            columns.add(column);
+                        }
+                    }
+                    problems.add("映射语句 " + ms.getId() + " 的查询条件未命中索引，将全表扫描 " + table
+                            + "，条件列 " + columns + "，现有索引 " + indexes);
+                }
+            }
+        }
+        return problems;
+    }
+
+    /**
+     * 取出语句中按条件读取的表及其WHERE条件（INSERT只检查其中的SELECT）
+     */
+    private static void collectScans(Statement statement, Map<Table, Expression> scans) {
+        if (statement instanceof PlainSelect select) {
+            if (select.getFromItem() instanceof Table table && select.getJoins() == null) {
+                scans.put(table, select.getWhere());
+            }
+        } else if (statement instanceof SetOperationList union) {
+            union.getSelects().forEach(select -> collectScans(select, scans));
+        } else if (statement instanceof ParenthesedSelect parenthesed) {
+            collectScans(parenthesed.getSelect(), scans);
+        } else if (statement instanceof Update update) {
+            scans.put(update.getTable(), update.getWhere());
+        } else if (statement instanceof Delete delete) {
+            scans.put(delete.getTable(), delete.getWhere());
+        } else if (statement instanceof Insert insert && insert.getSelect() != null) {
+            collectScans(insert.getSelect(), scans);
+        }
+    }
+
+    private boolean usesIndex(Expression where, List<List<String>> indexes) {
+        List<Expression> conjuncts = conjuncts(where);
+        Set<String> columns = new HashSet<>();
+        for (Expression conjunct : conjuncts) {
+            String column = predicateColumn(conjunct);
+            if (column != null) {
+                columns.add(column);
+            }
+        }
+        for (List<String> index : indexes) {
+            for (String column : index) {
+                if (!columns.contains(column)) {
+                    break;
+                }
+                if (!lowSelectivityColumns.contains(column)) {
+                    return true;
+                }
+            }
+        }
+        // (a = ? OR b = ?) 每个分支都命中索引时可以合并索引读取
+        for (Expression conjunct : conjuncts) {
+            if (unwrap(conjunct) instanceof OrExpression or
+                    && disjuncts(or).stream().allMatch(disjunct -> usesIndex(disjunct, indexes))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Expression> conjuncts(Expression expression) {
+        List<Expression> result = new ArrayList<>();
+        Expression unwrapped = unwrap(expression);
+        if (unwrapped instanceof AndExpression and) {
+            result.addAll(conjuncts(and.getLeftExpression()));
+            result.addAll(conjuncts(and.getRightExpression()));
+        } else {
+            result.add(unwrapped);
+        }
+        return result;
+    }
+
+    private static List<Expression> disjuncts(Expression expression) {
+        List<Expression> result = new ArrayList<>();
+        Expression unwrapped = unwrap(expression);
+        if (unwrapped instanceof OrExpression or) {
+            result.addAll(disjuncts(or.getLeftExpression()));
+            result.addAll(disjuncts(or.getRightExpression()));
+        } else {
+            result.add(unwrapped);
+        }
+        return result;
+    }
+
+    /**
+     * 可使用索引的单列条件（比较、IN、BETWEEN、IS NULL）对应的列名，其他条件返回null
+     */
+    private static String predicateColumn(Expression expression) {
+        Expression unwrapped = unwrap(expression);
+        Expression left = null;
+        if (unwrapped instanceof ComparisonOperator comparison) {
+            left = comparison.getLeftExpression() instanceof Column
+                    ? comparison.getLeftExpression() : comparison.getRightExpression();
+        } else if (unwrapped instanceof InExpression in && !in.isNot()) {
+            left = in.getLeftExpression();
+        } else if (unwrapped instanceof Between between && !between.isNot()) {
+            left = between.getLeftExpression();
+        } else if (unwrapped instanceof IsNullExpression isNull && !isNull.isNot()) {
+            left = isNull.getLeftExpression();
+        }
+        return left instanceof Column column ? normalize(column.getColumnName()) : null;
+    }
+
+    /**
+     * 去掉条件外层的括号（JSqlParser 5 将括号表达式解析为单元素的 ParenthesedExpressionList）
+     */
+    private static Expression unwrap(Expression expression) {
+        while (expression instanceof ParenthesedExpressionList<?> list && list.size() == 1) {
+            expression = list.get(0);
+        }
+        return expression;
+    }
+
+    /**
+     * 读取表上的全部索引（含主键），每个索引为按顺序排列的列名
+     */
+    private static List<List<String>> indexes(Connection connection, String table) {
+        try {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String tableName = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT) : table;
+            Map<String, SortedMap<Short, String>> indexColumns = new LinkedHashMap<>();
+            try (ResultSet resultSet = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(),
+                    tableName, false, true)) {
+                while (resultSet.next()) {
+                    String indexName = resultSet.getString("INDEX_NAME");
+                    String column = resultSet.getString("COLUMN_NAME");
+                    if (indexName == null || column == null) {
+                        continue;
+                    }
+                    indexColumns.computeIfAbsent(indexName, name -> new TreeMap<>())
+                            .put(resultSet.getShort("ORDINAL_POSITION"), normalize(column));
+                }
+            }
+            List<List<String>> indexes = new ArrayList<>();
+            indexColumns.values().forEach(columns -> indexes.add(List.copyOf(columns.values())));
+            return indexes;
+        } catch (SQLException e) {
+            throw new IllegalStateException("读取表 " + table + " 的索引失败: " + e.getMessage(), e);
+        }
+    }
+
+    private static String normalize(String identifier) {
+        return identifier.replace("`", "").toLowerCase(Locale.ROOT);
+    }
+}
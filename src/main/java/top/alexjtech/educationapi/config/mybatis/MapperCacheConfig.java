@@ -0,0 +1,52 @@
+package top.alexjtech.educationapi.config.mybatis;
+
+import com.baomidou.mybatisplus.autoconfigure.ConfigurationCustomizer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.RedisTemplate;
+import top.alexjtech.educationapi.mapper.UserMapper;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * MyBatis二级缓存配置
+ * UserMapper的XML语句（cache-ref）和MyBatis-Plus注入的语句（@CacheNamespaceRef）共用此处注册的Redis缓存；
+ * 缓存总开关为 app.mybatis-cache.enabled（关闭时不创建CachingExecutor，缓存对象仍注册以便解析cache-ref），
+ * 启用缓存的查询语句由 app.mybatis-cache.user.statements 指定
+ */
+@Configuration
+public class MapperCacheConfig {
+
+    @Value("${app.mybatis-cache.enabled:true}")
+    private boolean enabled;
+
+    // 缓存有效期
+    @Value("${app.mybatis-cache.user.ttl:10m}")
+    private Duration ttl;
+
+    @Value("${app.mybatis-cache.user.statements:selectById,selectByEmail,selectByPhone}")
+    private List<String> statements;
+
+    @Bean
+    public RedisMapperCache userMapperCache(RedisTemplate<String, byte[]> bytesRedisTemplate, MeterRegistry meterRegistry) {
+        return new RedisMapperCache(UserMapper.class.getName(), bytesRedisTemplate, ttl, meterRegistry);
+    }
+
+    @Bean
+    public ConfigurationCustomizer mapperCacheConfigurationCustomizer(RedisMapperCache userMapperCache) {
+        return configuration -> {
+            configuration.setCacheEnabled(enabled);
+            configuration.addCache(userMapperCache);
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.mybatis-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public MapperCacheInterceptor mapperCacheInterceptor(RedisMapperCache userMapperCache) {
+        return new MapperCacheInterceptor(userMapperCache, statements);
+    }
+}
@@ -0,0 +1,176 @@
+package top.alexjtech.educationapi.config.mybatis;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import top.alexjtech.educationapi.dto.user.LastLoginDTO;
+import top.alexjtech.educationapi.entity.User;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 用户Mapper二级缓存控制
+ * 1. 按语句开关：命名空间内未启用缓存的查询改用 useCache=false 的语句副本执行
+ * 2. 精确失效：按用户ID更新的语句改用 flushCache=false 的副本执行，不再清空整个命名空间，
+ *    事务提交后（无事务时立即）删除包含这些用户的缓存条目；同一事务内此后的查询不读缓存，保证读到本事务的写入
+ * 3. 新增用户不清空缓存：空结果不缓存，唯一索引保证新用户不会出现在已缓存的按标识查询结果中
+ * 其他写语句保持MyBatis默认行为，提交时清空整个命名空间
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})
+})
+public class MapperCacheInterceptor implements Interceptor {
+
+    /**
+     * 按用户ID更新的语句，参数中用户ID的取法见 {@link #userIds(Object)}
+     */
+    private static final Set<String> USER_SCOPED_UPDATES = Set.of("updateById", "updateLastLoginInfo",
+            "batchUpdateLastLoginInfo", "updateWechatSessionKey", "updatePasswordHash", "logicDeleteById");
+
+    private final RedisMapperCache cache;
+    private final String namespacePrefix;
+    private final Set<String> cachedStatements;
+    private final Map<String, MappedStatement> uncachedCopies = new ConcurrentHashMap<>();
+    private final Map<String, MappedStatement> noFlushCopies = new ConcurrentHashMap<>();
+
+    /**
+     * @param cache            命名空间的二级缓存
+     * @param cachedStatements 启用缓存的查询语句名（不含命名空间）
+     */
+    public MapperCacheInterceptor(RedisMapperCache cache, Collection<String> cachedStatements) {
+        this.cache = cache;
+        this.namespacePrefix = cache.getId() + ".";
+        this.cachedStatements = Set.copyOf(cachedStatements);
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object[] args = invocation.getArgs();
+        MappedStatement ms = (MappedStatement) args[0];
+        if (ms.getCache() != cache || !ms.getId().startsWith(namespacePrefix)) {
+            return invocation.proceed();
+        }
+        String statement = ms.getId().substring(namespacePrefix.length());
+        if (args.length > 2) {
+            if (ms.isUseCache() && (!cachedStatements.contains(statement) || TransactionSynchronizationManager.hasResource(cache))) {
+                args[0] = uncachedCopies.computeIfAbsent(ms.getId(), id -> copy(ms, false, ms.isFlushCacheRequired()));
+            }
+            return invocation.proceed();
+        }
+        if ("insert".equals(statement)) {
+            args[0] = noFlushCopies.computeIfAbsent(ms.getId(), id -> copy(ms, ms.isUseCache(), false));
+            return invocation.proceed();
+        }
+        if (!USER_SCOPED_UPDATES.contains(statement)) {
+            return invocation.proceed();
+        }
+        Set<Long> userIds = userIds(args[1]);
+        if (userIds.isEmpty()) {
+            return invocation.proceed();
+        }
+        args[0] = noFlushCopies.computeIfAbsent(ms.getId(), id -> copy(ms, ms.isUseCache(), false));
+        Object result = invocation.proceed();
+        invalidateAfterCommit(userIds);
+        return result;
+    }
+
+    private void invalidateAfterCommit(Set<Long> userIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.invalidate(userIds);
+            return;
+        }
+        if (!TransactionSynchronizationManager.hasResource(cache)) {
+            TransactionSynchronizationManager.bindResource(cache, Boolean.TRUE);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.invalidate(userIds);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (TransactionSynchronizationManager.hasResource(cache)) {
+                    TransactionSynchronizationManager.unbindResource(cache);
+                }
+            }
+        });
+    }
+
+    /**
+     * 从语句参数中取出被更新的用户ID：实体（MyBatis-Plus的et参数）、id参数或登录记录列表
+     */
+    static Set<Long> userIds(Object parameter) {
+        Set<Long> userIds = new LinkedHashSet<>();
+        if (parameter instanceof User user) {
+            addIfPresent(userIds, user.getId());
+        } else if (parameter instanceof Map<?, ?> params) {
+            if (params.containsKey("et") && params.get("et") instanceof User user) {
+                addIfPresent(userIds, user.getId());
+            } else if (params.containsKey("id") && params.get("id") instanceof Long id) {
+                userIds.add(id);
+            } else if (params.containsKey("records") && params.get("records") instanceof List<?> records) {
+                for (Object record : records) {
+                    if (record instanceof LastLoginDTO login) {
+                        addIfPresent(userIds, login.getUserId());
+                    }
+                }
+            }
+        }
+        return userIds;
+    }
+
+    private static void addIfPresent(Set<Long> userIds, Long id) {
+        if (id != null) {
+            userIds.add(id);
+        }
+    }
+
+    private static MappedStatement copy(MappedStatement ms, boolean useCache, boolean flushCache) {
+        MappedStatement.Builder builder = new MappedStatement.Builder(ms.getConfiguration(), ms.getId(),
+                ms.getSqlSource(), ms.getSqlCommandType())
+                .resource(ms.getResource())
+                .fetchSize(ms.getFetchSize())
+                .timeout(ms.getTimeout())
+                .statementType(ms.getStatementType())
+                .resultSetType(ms.getResultSetType())
+                .parameterMap(ms.getParameterMap())
+                .resultMaps(ms.getResultMaps())
+                .resultOrdered(ms.isResultOrdered())
+                .keyGenerator(ms.getKeyGenerator())
+                .databaseId(ms.getDatabaseId())
+                .lang(ms.getLang())
+                .dirtySelect(ms.isDirtySelect())
+                .cache(ms.getCache())
+                .useCache(useCache)
+                .flushCacheRequired(flushCache);
+        if (ms.getKeyProperties() != null) {
+            builder.keyProperty(String.join(",", ms.getKeyProperties()));
+        }
+        if (ms.getKeyColumns() != null) {
+            builder.keyColumn(String.join(",", ms.getKeyColumns()));
+        }
+        if (ms.getResultSets() != null) {
+            builder.resultSets(String.join(",", ms.getResultSets()));
+        }
+        return builder.build();
+    }
+}
@@ -2,6 +2,7 @@ package top.alexjtech.educationapi.config.mybatis;
 
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
+import com.baomidou.mybatisplus.extension.plugins.inner.OptimisticLockerInnerInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.context.annotation.Bean;
@@ -15,7 +16,7 @@ import org.springframework.context.annotation.Configuration;
 public class MyBatisPlusConfig {
 
     /**
-     * 分页插件配置
+     * 分页插件和乐观锁插件配置
      */
     @Bean
     public MybatisPlusInterceptor mybatisPlusInterceptor() {
@@ -25,6 +26,8 @@ public class MyBatisPlusConfig {
         // 设置最大单页限制数量，默认 500 条，-1 不受限制
         paginationInterceptor.setMaxLimit(500L);
         interceptor.addInnerInterceptor(paginationInterceptor);
+        // 添加乐观锁插件：实体带version时，更新语句追加 version = ? 条件并将版本号加1
+        interceptor.addInnerInterceptor(new OptimisticLockerInnerInterceptor());
         return interceptor;
     }
 }
\ No newline at end of file
@@ -25,6 +25,7 @@ public class MyMetaObjectHandler implements MetaObjectHandler {
     @Override
     public void updateFill(MetaObject metaObject) {
         log.info("开始更新填充...");
-        this.strictUpdateFill(metaObject, "updateTime", LocalDateTime.class, LocalDateTime.now());
+        // 始终覆盖：从库中查出再修改的实体自带旧的更新时间，strictUpdateFill不会覆盖非空值
+        this.setFieldValByName("updateTime", LocalDateTime.now(), metaObject);
     }
 }
\ No newline at end of file
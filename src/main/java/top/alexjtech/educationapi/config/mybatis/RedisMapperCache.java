@@ -0,0 +1,231 @@
+package top.alexjtech.educationapi.config.mybatis;
+
+import com.alibaba.fastjson2.JSONB;
+import com.alibaba.fastjson2.JSONReader;
+import com.alibaba.fastjson2.JSONWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cache.Cache;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.util.DigestUtils;
+import top.alexjtech.educationapi.entity.User;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 基于Redis的MyBatis二级缓存（用户Mapper）
+ * 缓存值为查询结果中的用户列表，使用fastjson2 JSONB紧凑序列化，带@JsonIgnore的密码和会话密钥不会写入缓存；
+ * 每条缓存登记到所含用户的索引集合中，按用户ID精确失效（{@link #invalidate(Collection)}），
+ * 其余写操作由MyBatis调用 {@link #clear()} 清空整个命名空间
+ * 空结果和非用户结果不缓存：新增用户后不会命中旧的空结果，也无法按用户失效
+ * Redis不可用时按未命中处理，查询回落到数据库
+ */
+@Slf4j
+public class RedisMapperCache implements Cache {
+
+    private final String id;
+    private final RedisTemplate<String, byte[]> bytesRedisTemplate;
+    private final Expiration expiration;
+    private final String entryKeyPrefix;
+    private final String indexKeyPrefix;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter putCounter;
+    private final Counter skipCounter;
+    private final Counter entryInvalidationCounter;
+    private final Counter clearCounter;
+    private final Counter errorCounter;
+
+    /**
+     * @param id                 缓存ID（Mapper命名空间）
+     * @param bytesRedisTemplate 二进制值Redis模板
+     * @param ttl                缓存有效期（失效遗漏时的最大陈旧时间）
+     * @param meterRegistry      监控指标注册表
+     */
+    public RedisMapperCache(String id, RedisTemplate<String, byte[]> bytesRedisTemplate, Duration ttl,
+                            MeterRegistry meterRegistry) {
+        this.id = id;
+        this.bytesRedisTemplate = bytesRedisTemplate;
+        this.expiration = Expiration.from(ttl);
+        String name = id.substring(id.lastIndexOf('.') + 1);
+        this.entryKeyPrefix = "mybatis:cache:" + name + ":e:";
+        this.indexKeyPrefix = "mybatis:cache:" + name + ":idx:";
+        hitCounter = counter(meterRegistry, "mybatis.cache.requests", name, "result", "hit");
+        missCounter = counter(meterRegistry, "mybatis.cache.requests", name, "result", "miss");
+        putCounter = counter(meterRegistry, "mybatis.cache.puts", name, "result", "stored");
+        skipCounter = counter(meterRegistry, "mybatis.cache.puts", name, "result", "skipped");
+        entryInvalidationCounter = counter(meterRegistry, "mybatis.cache.invalidations", name, "type", "entry");
+        clearCounter = counter(meterRegistry, "mybatis.cache.invalidations", name, "type", "clear");
+        errorCounter = counter(meterRegistry, "mybatis.cache.errors", name, null, null);
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public void putObject(Object key, Object value) {
+        List<User> users = users(value);
+        if (users == null) {
+            skipCounter.increment();
+            return;
+        }
+        byte[] entryKey = bytes(entryKey(key));
+        byte[] bytes = JSONB.toBytes(users, JSONWriter.Feature.FieldBased);
+        long ttlSeconds = expiration.getExpirationTimeInSeconds();
+        try {
+            bytesRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                connection.stringCommands().set(entryKey, bytes, expiration, RedisStringCommands.SetOption.upsert());
+                for (User user : users) {
+                    byte[] indexKey = bytes(indexKeyPrefix + user.getId());
+                    connection.setCommands().sAdd(indexKey, entryKey);
+                    // 索引比缓存条目多保留一个有效期，不会先于条目过期
+                    connection.keyCommands().expire(indexKey, ttlSeconds * 2);
+                }
+                return null;
+            });
+            putCounter.increment();
+        } catch (RuntimeException e) {
+            errorCounter.increment();
+            log.warn("写入MyBatis二级缓存失败, cache={}: {}", id, e.getMessage());
+        }
+    }
+
+    @Override
+    public Object getObject(Object key) {
+        byte[] bytes;
+        try {
+            bytes = bytesRedisTemplate.opsForValue().get(entryKey(key));
+        } catch (RuntimeException e) {
+            errorCounter.increment();
+            log.warn("读取MyBatis二级缓存失败, cache={}: {}", id, e.getMessage());
+            return null;
+        }
+        if (bytes == null) {
+            missCounter.increment();
+            return null;
+        }
+        hitCounter.increment();
+        return new ArrayList<>(JSONB.parseArray(bytes, User.class, JSONReader.Feature.FieldBased));
+    }
+
+    @Override
+    public Object removeObject(Object key) {
+        try {
+            bytesRedisTemplate.delete(entryKey(key));
+        } catch (RuntimeException e) {
+            errorCounter.increment();
+            log.warn("删除MyBatis二级缓存失败, cache={}: {}", id, e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * 清空命名空间下的全部缓存（MyBatis在执行未做精确失效的写语句后调用）
+     */
+    @Override
+    public void clear() {
+        clearCounter.increment();
+        try {
+            List<String> keys = new ArrayList<>();
+            for (String prefix : List.of(entryKeyPrefix, indexKeyPrefix)) {
+                try (Cursor<String> cursor = bytesRedisTemplate.scan(ScanOptions.scanOptions().match(prefix + "*").count(1000).build())) {
+                    cursor.forEachRemaining(keys::add);
+                }
+            }
+            if (!keys.isEmpty()) {
+                bytesRedisTemplate.unlink(keys);
+            }
+            log.debug("已清空MyBatis二级缓存 {}，共 {} 个键", id, keys.size());
+        } catch (RuntimeException e) {
+            errorCounter.increment();
+            log.warn("清空MyBatis二级缓存失败, cache={}: {}", id, e.getMessage());
+        }
+    }
+
+    @Override
+    public int getSize() {
+        // 条目分布在Redis中，不统计
+        return 0;
+    }
+
+    /**
+     * 删除包含指定用户的全部缓存条目
+     */
+    public void invalidate(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        entryInvalidationCounter.increment(userIds.size());
+        try {
+            List<Object> members = bytesRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Long userId : userIds) {
+                    connection.setCommands().sMembers(bytes(indexKeyPrefix + userId));
+                }
+                return null;
+            });
+            List<byte[]> keys = new ArrayList<>();
+            for (Object entryKeys : members) {
+                if (entryKeys instanceof Collection<?> collection) {
+                    collection.forEach(entryKey -> keys.add((byte[]) entryKey));
+                }
+            }
+            for (Long userId : userIds) {
+                keys.add(bytes(indexKeyPrefix + userId));
+            }
+            bytesRedisTemplate.execute((RedisCallback<Long>) connection ->
+                    connection.keyCommands().del(keys.toArray(new byte[0][])));
+        } catch (RuntimeException e) {
+            errorCounter.increment();
+            log.warn("按用户失效MyBatis二级缓存失败, cache={}, userIds={}: {}", id, userIds, e.getMessage());
+        }
+    }
+
+    /**
+     * 查询结果中的用户列表；结果为空或包含非用户对象时返回null（不缓存）
+     */
+    private static List<User> users(Object value) {
+        if (!(value instanceof List<?> list) || list.isEmpty()) {
+            return null;
+        }
+        List<User> users = new ArrayList<>(list.size());
+        for (Object element : list) {
+            if (!(element instanceof User user) || user.getId() == null) {
+                return null;
+            }
+            users.add(user);
+        }
+        return users;
+    }
+
+    /**
+     * 缓存键：CacheKey包含语句ID、分页参数、SQL和参数值，取摘要作为Redis键
+     */
+    private String entryKey(Object key) {
+        return entryKeyPrefix + DigestUtils.md5DigestAsHex(bytes(key.toString()));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String cache, String tag, String value) {
+        Counter.Builder builder = Counter.builder(name).tag("cache", cache);
+        if (tag != null) {
+            builder.tag(tag, value);
+        }
+        return builder.register(meterRegistry);
+    }
+}
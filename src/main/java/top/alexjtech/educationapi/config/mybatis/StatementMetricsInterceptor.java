@@ -0,0 +1,173 @@
+package top.alexjtech.educationapi.config.mybatis;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SQL执行统计拦截器
+ * 按映射语句（如 UserMapper.selectByUsername）记录耗时分布、返回/影响行数和失败次数，替代逐条打印SQL；
+ * 耗时超过阈值的语句记录慢SQL日志，同一语句在间隔内只记录一次，其余只计数
+ * 排在插件链最外层，统计的耗时包含分页等其他插件和结果映射
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "app.sql-metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "queryCursor",
+                args = {MappedStatement.class, Object.class, RowBounds.class}),
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})
+})
+public class StatementMetricsInterceptor implements Interceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    // 慢SQL阈值
+    @Value("${app.sql-metrics.slow-threshold:500ms}")
+    private Duration slowThreshold;
+
+    // 同一语句慢SQL日志的最短间隔
+    @Value("${app.sql-metrics.slow-log-interval:10s}")
+    private Duration slowLogInterval;
+
+    private final Map<String, StatementMeters> meters = new ConcurrentHashMap<>();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+        StatementMeters statement = meters.computeIfAbsent(ms.getId(), id -> new StatementMeters(ms));
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            statement.failure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        long elapsed = System.nanoTime() - start;
+        statement.success.record(elapsed, TimeUnit.NANOSECONDS);
+        long rows = rows(result);
+        if (rows >= 0) {
+            statement.rows.record(rows);
+        }
+        if (elapsed >= slowThreshold.toNanos()) {
+            slow(statement, ms, invocation.getArgs()[1], elapsed, rows);
+        }
+        return result;
+    }
+
+    private void slow(StatementMeters statement, MappedStatement ms, Object parameter, long elapsed, long rows) {
+        statement.slow.increment();
+        long now = System.nanoTime();
+        long last = statement.lastSlowLog.get();
+        if (last != 0 && now - last < slowLogInterval.toNanos()) {
+            statement.suppressedSlowLogs.incrementAndGet();
+            return;
+        }
+        if (!statement.lastSlowLog.compareAndSet(last, now)) {
+            statement.suppressedSlowLogs.incrementAndGet();
+            return;
+        }
+        String sql;
+        try {
+            sql = ms.getBoundSql(parameter).getSql().replaceAll("\\s+", " ").trim();
+        } catch (RuntimeException e) {
+            sql = "(无法生成SQL: " + e.getMessage() + ")";
+        }
+        log.warn("慢SQL {} 耗时 {}ms，{} 行，上次记录后另有 {} 次慢查询未记录: {}", statement.name,
+                TimeUnit.NANOSECONDS.toMillis(elapsed), rows >= 0 ? rows : "未知",
+                statement.suppressedSlowLogs.getAndSet(0), sql);
+    }
+
+    /**
+     * 查询返回的行数或更新影响的行数；使用ResultHandler或游标时无法得知，返回-1
+     */
+    private static long rows(Object result) {
+        if (result instanceof List<?> list) {
+            return list.size();
+        }
+        if (result instanceof Number number) {
+            return number.longValue();
+        }
+        return -1;
+    }
+
+    /**
+     * 映射语句的简短名称：Mapper类名.方法名
+     */
+    static String statementName(String id) {
+        int method = id.lastIndexOf('.');
+        int type = method > 0 ? id.lastIndexOf('.', method - 1) : -1;
+        return id.substring(type + 1);
+    }
+
+    private final class StatementMeters {
+
+        private final String name;
+        private final Timer success;
+        private final Timer failure;
+        private final DistributionSummary rows;
+        private final Counter slow;
+        private final AtomicLong lastSlowLog = new AtomicLong();
+        private final AtomicLong suppressedSlowLogs = new AtomicLong();
+
+        private StatementMeters(MappedStatement ms) {
+            name = statementName(ms.getId());
+            String type = ms.getSqlCommandType().name().toLowerCase(Locale.ROOT);
+            success = timer(type, "success");
+            failure = timer(type, "error");
+            rows = DistributionSummary.builder("mybatis.statement.rows")
+                    .description("查询返回或更新影响的行数")
+                    .tag("statement", name)
+                    .tag("type", type)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(1.0)
+                    .maximumExpectedValue(100_000.0)
+                    .register(meterRegistry);
+            slow = Counter.builder("mybatis.statement.slow")
+                    .description("耗时超过慢SQL阈值的次数")
+                    .tag("statement", name)
+                    .register(meterRegistry);
+        }
+
+        private Timer timer(String type, String outcome) {
+            return Timer.builder("mybatis.statement")
+                    .description("映射语句执行耗时（含结果映射）")
+                    .tag("statement", name)
+                    .tag("type", type)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package top.alexjtech.educationapi.config.redis;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import top.alexjtech.educationapi.service.user.impl.UserCacheServiceImpl;
+import top.alexjtech.educationapi.service.user.impl.UserIdentifierFilter;
+import top.alexjtech.educationapi.service.user.impl.UserSearchIndex;
+
+/**
+ * Redis配置类
+ */
+@Configuration
+public class RedisConfig {
+
+    /**
+     * 二进制值模板（键为字符串，值为原始字节），用于存放紧凑序列化的缓存对象
+     */
+    @Bean
+    public RedisTemplate<String, byte[]> bytesRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.setHashKeySerializer(RedisSerializer.string());
+        template.setHashValueSerializer(RedisSerializer.byteArray());
+        return template;
+    }
+
+    /**
+     * Redis消息监听容器，用于接收其他节点广播的缓存失效消息和新增用户标识
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       UserCacheServiceImpl userCacheService,
+                                                                       UserIdentifierFilter userIdentifierFilter,
+                                                                       UserSearchIndex userSearchIndex) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(userCacheService, new ChannelTopic(UserCacheServiceImpl.INVALIDATION_CHANNEL));
+        container.addMessageListener(userIdentifierFilter, new ChannelTopic(UserIdentifierFilter.ADD_CHANNEL));
+        // 其他节点修改用户后广播缓存失效，搜索索引据此回库读取最新字段
+        container.addMessageListener(userSearchIndex, new ChannelTopic(UserCacheServiceImpl.INVALIDATION_CHANNEL));
+        return container;
+    }
+}
@@ -5,20 +5,26 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
+import top.alexjtech.educationapi.entity.CustomUserDetails;
+import top.alexjtech.educationapi.service.security.TokenRevocationService;
 import top.alexjtech.educationapi.util.security.JwtUtil;
+import top.alexjtech.educationapi.util.security.VerifiedToken;
 
 import java.io.IOException;
 
 /**
  * JWT认证过滤器
  * 用于拦截请求，验证JWT令牌，并设置认证信息
+ * 默认直接从令牌声明构建用户身份，仅对敏感接口回库校验用户状态；吊销检查经本地布隆过滤器快速放行
  */
 @Component
 @RequiredArgsConstructor
@@ -26,6 +32,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    // 是否启用无状态认证（不查询数据库）
+    @Value("${jwt.stateless.enabled:true}")
+    private boolean statelessEnabled;
+
+    // 需要回库校验的敏感接口路径（不含context-path）
+    @Value("${jwt.stateless.db-check-paths:/user/change-password}")
+    private String[] dbCheckPaths;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -33,26 +50,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
         String jwt = null;
 
         // 检查Authorization头是否存在且以Bearer开头
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             jwt = authorizationHeader.substring(7);
-            try {
-                username = jwtUtil.getUsernameFromToken(jwt);
-            } catch (Exception e) {
-                logger.error("JWT令牌验证失败: " + e.getMessage());
-            }
         }
 
-        // 如果找到了用户名且当前没有认证信息
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            // 从用户服务加载用户详情
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        // 如果找到了令牌且当前没有认证信息
+        if (jwt != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = resolveUserDetails(jwt, request);
 
-            // 验证令牌
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+            if (userDetails != null && userDetails.isEnabled()) {
                 // 创建认证令牌
                 UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
@@ -66,4 +75,53 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // 继续过滤器链
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    /**
+     * 解析令牌对应的用户详情
+     * 非敏感接口直接使用令牌声明；敏感接口或旧版本令牌回退到数据库加载并校验
+     */
+    private UserDetails resolveUserDetails(String jwt, HttpServletRequest request) {
+        try {
+            // 令牌只解析和校验一次
+            VerifiedToken verifiedToken = jwtUtil.verify(jwt);
+
+            UserDetails userDetails = null;
+            if (statelessEnabled && !requiresDbCheck(request)) {
+                userDetails = jwtUtil.getUserDetails(verifiedToken);
+            }
+
+            if (userDetails == null) {
+                // 从用户服务加载用户详情并验证令牌
+                userDetails = this.userDetailsService.loadUserByUsername(verifiedToken.getSubject());
+                if (!jwtUtil.validateToken(verifiedToken, userDetails)) {
+                    return null;
+                }
+            }
+
+            // 检查令牌是否已被吊销（修改密码、禁用账号、注销）
+            Long userId = userDetails instanceof CustomUserDetails customUserDetails
+                    ? customUserDetails.getUserId() : null;
+            if (tokenRevocationService.isRevoked(verifiedToken, userId)) {
+                logger.debug("令牌已被吊销: " + verifiedToken.getTokenId());
+                return null;
+            }
+            return userDetails;
+        } catch (Exception e) {
+            logger.error("JWT令牌验证失败: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 判断当前请求是否为需要回库校验的敏感接口
+     */
+    private boolean requiresDbCheck(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (String pattern : dbCheckPaths) {
+            if (pathMatcher.match(pattern.trim(), path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -7,13 +7,13 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import top.alexjtech.educationapi.service.security.PasswordHashService;
 
 import java.util.Arrays;
 
@@ -25,9 +25,12 @@ import java.util.Arrays;
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    /**
+     * 密码编码器，使用启动时按目标耗时标定cost的BCrypt
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashService passwordHashService) {
+        return passwordHashService.getEncoder();
     }
 
     // 注入JWT认证过滤器
@@ -58,6 +61,12 @@ public class SecurityConfig {
                                 "/error"                 // 错误页面
                         ).permitAll()
 
+                        // 管理接口仅管理员可访问
+                        .requestMatchers("/admin/**").hasRole("ADMIN")
+
+                        // 用户搜索仅老师和管理员可访问
+                        .requestMatchers("/user/search", "/user/batch").hasAnyRole("TEACHER", "ADMIN")
+
                         // 其他所有请求都需要认证
                         .anyRequest().authenticated()
                 )
@@ -0,0 +1,129 @@
+package top.alexjtech.educationapi.config.thread;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 虚拟线程钉住（pinning）监控
+ * 通过JFR流式订阅 jdk.VirtualThreadPinned 事件：虚拟线程在synchronized块或本地方法中阻塞时无法让出载体线程，
+ * 按阻塞位置所属组件（Druid、MyBatis、MySQL驱动、应用代码）记录耗时指标，每个不同的调用位置首次出现时输出调用栈
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    // 用于识别阻塞位置所属组件的包名前缀，按顺序匹配
+    private static final List<String[]> SOURCES = List.of(
+            new String[]{"com.alibaba.druid.", "druid"},
+            new String[]{"org.apache.ibatis.", "mybatis"},
+            new String[]{"com.baomidou.", "mybatis"},
+            new String[]{"com.mysql.", "mysql-driver"},
+            new String[]{"io.lettuce.", "redis"},
+            new String[]{"top.alexjtech.", "application"}
+    );
+
+    // 最多记录的不同调用位置数量，避免日志刷屏
+    private static final int MAX_REPORTED_SITES = 200;
+
+    // 输出的调用栈深度
+    private static final int REPORTED_FRAMES = 12;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.virtual-threads.pinning-monitor.enabled:true}")
+    private boolean enabled;
+
+    // 钉住时间超过该阈值才记录
+    @Value("${app.virtual-threads.pinning-monitor.threshold:20ms}")
+    private Duration threshold;
+
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+
+    private RecordingStream recordingStream;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        log.info("虚拟线程钉住监控已启动，阈值 {} ms", threshold.toMillis());
+    }
+
+    @PreDestroy
+    void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace != null ? stackTrace.getFrames() : List.of();
+        String source = classify(frames);
+
+        Timer.builder("jvm.threads.virtual.pinned")
+                .description("虚拟线程钉住载体线程的时长")
+                .tag("source", source)
+                .register(meterRegistry)
+                .record(event.getDuration());
+
+        String site = frames.isEmpty() ? "unknown" : describe(frames.get(0));
+        if (reportedSites.size() < MAX_REPORTED_SITES && reportedSites.add(site)) {
+            StringBuilder stack = new StringBuilder();
+            for (int i = 0; i < Math.min(frames.size(), REPORTED_FRAMES); i++) {
+                stack.append("\n\tat ").append(describe(frames.get(i)));
+            }
+            log.warn("虚拟线程钉住载体线程 {} ms, 组件: {}{}", event.getDuration().toMillis(), source, stack);
+        }
+    }
+
+    /**
+     * 从栈顶开始查找第一个属于已知组件的帧
+     */
+    private static String classify(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            if (frame.getMethod() == null || frame.getMethod().getType() == null) {
+                continue;
+            }
+            String typeName = frame.getMethod().getType().getName();
+            for (String[] source : SOURCES) {
+                if (typeName.startsWith(source[0])) {
+                    return source[1];
+                }
+            }
+        }
+        return "other";
+    }
+
+    private static String describe(RecordedFrame frame) {
+        if (frame.getMethod() == null) {
+            return "unknown";
+        }
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
@@ -7,8 +7,7 @@ import org.springframework.web.bind.annotation.*;
 import top.alexjtech.educationapi.common.ApiResponse;
 import top.alexjtech.educationapi.entity.User;
 import top.alexjtech.educationapi.mapper.UserMapper;
-
-import java.util.List;
+import top.alexjtech.educationapi.vo.UserInfoVO;
 
 /**
  * 数据库测试控制器
@@ -21,17 +20,10 @@ public class DatabaseTestController {
 
     private final UserMapper userMapper;
 
-    @Operation(summary = "查询所有用户", description = "测试数据库查询功能")
-    @GetMapping("/users")
-    public ApiResponse<List<User>> getAllUsers() {
-        List<User> users = userMapper.selectList(null);
-        return ApiResponse.success("查询成功", users);
-    }
-
     @Operation(summary = "根据ID查询用户", description = "测试单个用户查询")
     @GetMapping("/users/{id}")
-    public ApiResponse<User> getUserById(@PathVariable Long id) {
-        User user = userMapper.selectById(id);
+    public ApiResponse<UserInfoVO> getUserById(@PathVariable Long id) {
+        UserInfoVO user = userMapper.selectInfoById(id);
         if (user != null) {
             return ApiResponse.success("查询成功", user);
         } else {
@@ -13,7 +13,6 @@ import top.alexjtech.educationapi.mapper.UserMapper;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @Tag(name = "测试接口", description = "用于测试系统基础功能的接口")
@@ -45,13 +44,6 @@ public class TestController {
         return result;
     }
 
-    @Operation(summary = "查询所有用户")
-    @GetMapping("/users")
-    public ApiResponse<List<User>> getAllUsers() {
-        List<User> users = userMapper.selectList(null);
-        return ApiResponse.success("查询成功", users);
-    }
-
     @Operation(summary = "根据用户名查询用户")
     @GetMapping("/users/username/{username}")
     public ApiResponse<User> getUserByUsername(@PathVariable String username) {
@@ -0,0 +1,180 @@
+package top.alexjtech.educationapi.controller.admin;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import top.alexjtech.educationapi.common.ApiResponse;
+import top.alexjtech.educationapi.common.ExportFormat;
+import top.alexjtech.educationapi.common.ResponseCode;
+import top.alexjtech.educationapi.dto.user.UserDirectoryQueryDTO;
+import top.alexjtech.educationapi.exception.BusinessException;
+import top.alexjtech.educationapi.service.user.UserArchiveService;
+import top.alexjtech.educationapi.service.user.UserDirectoryService;
+import top.alexjtech.educationapi.service.user.UserExportService;
+import top.alexjtech.educationapi.service.user.UserImportService;
+import top.alexjtech.educationapi.vo.KeysetPageVO;
+import top.alexjtech.educationapi.vo.UserInfoVO;
+import top.alexjtech.educationapi.vo.user.DeletedUserVO;
+import top.alexjtech.educationapi.vo.user.UserImportJobVO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * 用户管理控制器（管理员）
+ * 处理用户目录查询、导出，学生和老师名单批量导入，已删除用户审计查询等管理操作，仅管理员可访问
+ */
+@Tag(name = "用户管理（管理员）", description = "用户目录查询、导出，批量导入学生和老师，已删除用户查询等管理接口")
+@RestController
+@RequestMapping("/admin/users")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminUserController {
+
+    private final UserImportService userImportService;
+    private final UserDirectoryService userDirectoryService;
+    private final UserExportService userExportService;
+    private final UserArchiveService userArchiveService;
+
+    /**
+     * 用户目录查询
+     * URL: /api/admin/users
+     * Method: GET
+     * 首页不传afterId，之后将上一页返回的nextCursor作为afterId传入
+     */
+    @Operation(summary = "用户目录", description = "按用户类型、状态、创建时间筛选，按用户ID游标分页")
+    @GetMapping
+    public ResponseEntity<ApiResponse<KeysetPageVO<UserInfoVO>>> listUsers(
+            @Valid @ParameterObject UserDirectoryQueryDTO query) {
+        return ResponseEntity.ok(ApiResponse.success("查询成功", userDirectoryService.listUsers(query)));
+    }
+
+    /**
+     * 导出用户
+     * URL: /api/admin/users/export
+     * Method: GET
+     * 按目录筛选条件导出全部匹配用户，响应以分块传输边查边写
+     */
+    @Operation(summary = "导出用户", description = "按用户类型、状态、创建时间筛选导出用户，支持CSV和NDJSON")
+    @GetMapping("/export")
+    public void exportUsers(@Valid @ParameterObject UserDirectoryQueryDTO query,
+                            @Parameter(description = "导出格式：csv 或 ndjson")
+                            @RequestParam(value = "format", defaultValue = "csv") String format,
+                            HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        if (exportFormat == null) {
+            throw new BusinessException(ResponseCode.BAD_REQUEST, "不支持的导出格式: " + format);
+        }
+
+        String filename = "users-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"))
+                + "." + exportFormat.getExtension();
+        response.setContentType(exportFormat.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename).build().toString());
+
+        try {
+            userExportService.exportUsers(query, exportFormat, response.getOutputStream());
+        } catch (BusinessException e) {
+            // 尚未写出数据时清除下载响应头，由全局异常处理器返回JSON错误
+            if (!response.isCommitted()) {
+                response.reset();
+            }
+            throw e;
+        } catch (IOException e) {
+            // 客户端中途断开连接，响应已提交，只记录日志
+            log.warn("用户导出中断: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 批量导入用户
+     * URL: /api/admin/users/import
+     * Method: POST
+     * Content-Type: multipart/form-data
+     * 名单表头：用户名（必填）、密码、姓名、昵称、邮箱、手机号、用户类型（1/2 或 学生/老师）
+     * 导入在后台执行（大名单需要数分钟），返回任务ID，通过 /api/admin/users/import/{jobId} 查询进度和结果
+     */
+    @Operation(summary = "批量导入用户", description = "上传CSV/XLSX名单，后台批量创建学生或老师账号，返回导入任务")
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<UserImportJobVO>> importUsers(
+            @RequestParam("file") MultipartFile file,
+            @Parameter(description = "名单未填写用户类型时使用的类型（1：学生，2：老师）")
+            @RequestParam(value = "userType", defaultValue = "1") Integer userType,
+            @Parameter(description = "名单未填写密码时使用的初始密码")
+            @RequestParam(value = "defaultPassword", required = false) String defaultPassword) {
+
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.badRequest("请选择名单文件"));
+        }
+
+        try (InputStream inputStream = file.getInputStream()) {
+            UserImportJobVO job = userImportService.submitImport(
+                    inputStream, file.getOriginalFilename(), userType, defaultPassword);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.success("导入任务已提交", job));
+        } catch (BusinessException e) {
+            return ResponseEntity.status(e.getCode())
+                    .body(ApiResponse.error(e.getCode(), e.getMessage()));
+        } catch (IOException e) {
+            log.error("读取导入文件失败", e);
+            return ResponseEntity.internalServerError()
+                    .body(ApiResponse.error("文件读取失败，请重试"));
+        }
+    }
+
+    /**
+     * 查询批量导入任务
+     * URL: /api/admin/users/import/{jobId}
+     * Method: GET
+     * status为RUNNING时processedRows为已读取的行数，结束后result为导入结果和逐行失败原因
+     */
+    @Operation(summary = "查询导入任务", description = "查询批量导入任务的进度和结果")
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ApiResponse<UserImportJobVO>> getImportJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(ApiResponse.success("查询成功", userImportService.getImportJob(jobId)));
+    }
+
+    /**
+     * 按ID查询已删除用户（审计）
+     * URL: /api/admin/users/deleted/{id}
+     * Method: GET
+     * 包括仍在用户表中的和已归档的用户，archivedTime为空表示尚未归档
+     */
+    @Operation(summary = "查询已删除用户", description = "按用户ID查询已删除用户，包括已归档的用户")
+    @GetMapping("/deleted/{id}")
+    public ResponseEntity<ApiResponse<DeletedUserVO>> getDeletedUser(@PathVariable Long id) {
+        return ResponseEntity.ok(ApiResponse.success("查询成功", userArchiveService.getDeletedUser(id)));
+    }
+
+    /**
+     * 按用户名、邮箱或手机号查询已删除用户（审计）
+     * URL: /api/admin/users/deleted?identifier=xxx
+     * Method: GET
+     */
+    @Operation(summary = "按标识查询已删除用户", description = "按用户名、邮箱或手机号查询已删除用户，包括已归档的用户")
+    @GetMapping("/deleted")
+    public ResponseEntity<ApiResponse<List<DeletedUserVO>>> findDeletedUsers(
+            @Parameter(description = "用户名、邮箱或手机号")
+            @RequestParam("identifier") String identifier) {
+        if (identifier.isBlank()) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.badRequest("请输入用户名、邮箱或手机号"));
+        }
+        return ResponseEntity.ok(ApiResponse.success("查询成功", userArchiveService.findDeletedUsers(identifier.trim())));
+    }
+}
@@ -1,5 +1,6 @@
 package top.alexjtech.educationapi.controller.auth;
 
+import io.jsonwebtoken.JwtException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
@@ -12,9 +13,14 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import top.alexjtech.educationapi.common.ApiResponse;
+import top.alexjtech.educationapi.common.ResponseCode;
 import top.alexjtech.educationapi.dto.auth.LoginDTO;
 import top.alexjtech.educationapi.dto.WechatLoginDTO;
+import top.alexjtech.educationapi.service.security.LoginThrottleService;
+import top.alexjtech.educationapi.service.security.TokenRevocationService;
 import top.alexjtech.educationapi.service.user.UserService;
+import top.alexjtech.educationapi.util.security.JwtUtil;
+import top.alexjtech.educationapi.util.security.VerifiedToken;
 import top.alexjtech.educationapi.vo.auth.TokenVO;
 
 /**
@@ -27,6 +33,9 @@ import top.alexjtech.educationapi.vo.auth.TokenVO;
 public class AuthController {
 
     private final UserService userService;
+    private final JwtUtil jwtUtil;
+    private final TokenRevocationService tokenRevocationService;
+    private final LoginThrottleService loginThrottleService;
 
     /**
      * 用户登录
@@ -37,6 +46,12 @@ public class AuthController {
         // 获取客户端IP
         String ipAddress = getClientIp(request);
         loginDTO.setLoginIp(ipAddress);
+
+        // 限流检查在查询用户和校验密码之前进行
+        if (!loginThrottleService.tryAcquire(ipAddress, loginDTO.getUsername())) {
+            return ResponseEntity.status(ResponseCode.TOO_MANY_REQUESTS.getCode())
+                    .body(ApiResponse.error(ResponseCode.TOO_MANY_REQUESTS.getCode(), "登录尝试过于频繁，请稍后再试"));
+        }
         
         // 调用用户服务进行登录
         TokenVO tokenVO = userService.login(loginDTO);
@@ -56,6 +71,28 @@ public class AuthController {
         return ResponseEntity.ok(ApiResponse.success(tokenVO));
     }
     
+    /**
+     * 用户注销
+     */
+    @Operation(summary = "用户注销", description = "吊销当前请求携带的JWT令牌")
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse<Void>> logout(HttpServletRequest request) {
+        String authorizationHeader = request.getHeader("Authorization");
+        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            return ResponseEntity.badRequest().body(ApiResponse.badRequest("缺少访问令牌"));
+        }
+
+        VerifiedToken verifiedToken;
+        try {
+            verifiedToken = jwtUtil.verify(authorizationHeader.substring(7));
+        } catch (JwtException e) {
+            return ResponseEntity.status(401).body(ApiResponse.unauthorized("令牌无效或已过期"));
+        }
+        tokenRevocationService.revokeToken(verifiedToken);
+
+        return ResponseEntity.ok(ApiResponse.success());
+    }
+
     /**
      * 获取客户端真实IP地址
      */
@@ -0,0 +1,42 @@
+package top.alexjtech.educationapi.controller.user;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import top.alexjtech.educationapi.common.ApiResponse;
+import top.alexjtech.educationapi.dto.user.UserBatchQueryDTO;
+import top.alexjtech.educationapi.service.user.UserBatchService;
+import top.alexjtech.educationapi.vo.UserInfoVO;
+
+import java.util.List;
+
+/**
+ * 批量查询用户控制器
+ * 老师端看板、班级名单等一次获取多个学生的资料
+ */
+@Tag(name = "批量查询用户", description = "按用户ID批量获取用户信息")
+@RestController
+@RequestMapping("/user/batch")
+@RequiredArgsConstructor
+public class UserBatchController {
+
+    private final UserBatchService userBatchService;
+
+    /**
+     * 批量查询用户
+     * URL: /api/user/batch
+     * Method: POST
+     * Content-Type: application/json
+     */
+    @Operation(summary = "批量查询用户", description = "按请求顺序返回用户信息，不存在的用户不返回")
+    @PostMapping
+    public ResponseEntity<ApiResponse<List<UserInfoVO>>> getUsers(@Valid @RequestBody UserBatchQueryDTO query) {
+        return ResponseEntity.ok(ApiResponse.success("查询成功", userBatchService.getUserInfos(query.getIds())));
+    }
+}
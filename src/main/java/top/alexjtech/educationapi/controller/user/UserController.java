@@ -6,16 +6,23 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import top.alexjtech.educationapi.common.ApiResponse;
 import top.alexjtech.educationapi.dto.user.UserUpdateDTO;
 import top.alexjtech.educationapi.dto.user.PasswordChangeDTO;
 import top.alexjtech.educationapi.entity.CustomUserDetails;
 import top.alexjtech.educationapi.entity.User;
+import top.alexjtech.educationapi.exception.BusinessException;
+import top.alexjtech.educationapi.service.security.PasswordHashService;
+import top.alexjtech.educationapi.service.security.TokenRevocationService;
 import top.alexjtech.educationapi.service.user.UserService;
+import top.alexjtech.educationapi.service.user.UserValidator;
 import top.alexjtech.educationapi.util.security.SecurityUtil;
 
 import java.io.IOException;
@@ -38,6 +45,8 @@ import java.util.UUID;
 public class UserController {
 
   private final UserService userService;
+  private final TokenRevocationService tokenRevocationService;
+  private final PasswordHashService passwordHashService;
   
   // 从配置文件读取上传配置
   @Value("${app.upload.upload-dir:uploads/}")
@@ -49,6 +58,9 @@ public class UserController {
   @Value("${app.upload.max-size:5242880}") // 5MB
   private long maxFileSize;
   
+  // 用户资料仅允许客户端私有缓存，每次使用前须携带ETag重新校验
+  private static final CacheControl PROFILE_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+  
   // 允许的图片格式
   private static final List<String> ALLOWED_CONTENT_TYPES = Arrays.asList(
       "image/jpeg", "image/jpg", "image/png", "image/gif", "image/webp"
@@ -132,13 +144,22 @@ public class UserController {
                       .body(ApiResponse.notFound("用户不存在"));
           }
           
+          // 更新头像URL（只更新头像列，按版本号乐观锁）
+          User changes = new User();
+          changes.setId(currentUserId);
+          changes.setVersion(user.getVersion());
+          changes.setAvatarUrl(avatarUrl);
+          try {
+              userService.updateById(changes);
+          } catch (BusinessException e) {
+              Files.deleteIfExists(filePath);
+              return ResponseEntity.status(e.getCode())
+                      .body(ApiResponse.error(e.getCode(), e.getMessage()));
+          }
+          
           // 删除旧头像文件（如果存在）
           deleteOldAvatar(user.getAvatarUrl());
           
-          // 更新头像URL
-          user.setAvatarUrl(avatarUrl);
-          userService.updateById(user);
-          
           log.info("用户 {} 上传头像成功: {}", currentUserId, fileName);
           
           // 返回结果
@@ -180,43 +201,37 @@ public class UserController {
                       .body(ApiResponse.unauthorized("请先登录"));
           }
           
-          // 获取用户信息
+          // 获取用户信息（读缓存）
           User user = userService.getUserById(currentUserId);
           if (user == null) {
               return ResponseEntity.status(404)
                       .body(ApiResponse.notFound("用户不存在"));
           }
           
-          // 更新用户信息
+          // 只把有变化的字段写入更新对象，生成的UPDATE语句只包含这些列
+          User changes = new User();
+          changes.setId(currentUserId);
+          changes.setVersion(user.getVersion());
           boolean updated = false;
           
           if (userUpdateDTO.getName() != null && !userUpdateDTO.getName().equals(user.getRealName())) {
-              user.setRealName(userUpdateDTO.getName());
+              changes.setRealName(userUpdateDTO.getName());
               updated = true;
           }
           
           if (userUpdateDTO.getNickname() != null && !userUpdateDTO.getNickname().equals(user.getNickname())) {
-              user.setNickname(userUpdateDTO.getNickname());
+              changes.setNickname(userUpdateDTO.getNickname());
               updated = true;
           }
           
+          // 邮箱和手机号的唯一性由数据库唯一索引保证，冲突时返回"已被其他用户使用"
           if (userUpdateDTO.getEmail() != null && !userUpdateDTO.getEmail().equals(user.getEmail())) {
-              // 检查邮箱是否已被其他用户使用
-              if (userService.isEmailExists(userUpdateDTO.getEmail(), currentUserId)) {
-                  return ResponseEntity.badRequest()
-                          .body(ApiResponse.error("该邮箱已被其他用户使用"));
-              }
-              user.setEmail(userUpdateDTO.getEmail());
+              changes.setEmail(userUpdateDTO.getEmail());
               updated = true;
           }
           
           if (userUpdateDTO.getPhone() != null && !userUpdateDTO.getPhone().equals(user.getPhone())) {
-              // 检查手机号是否已被其他用户使用
-              if (userService.isPhoneExists(userUpdateDTO.getPhone(), currentUserId)) {
-                  return ResponseEntity.badRequest()
-                          .body(ApiResponse.error("该手机号已被其他用户使用"));
-              }
-              user.setPhone(userUpdateDTO.getPhone());
+              changes.setPhone(userUpdateDTO.getPhone());
               updated = true;
           }
           
@@ -224,15 +239,31 @@ public class UserController {
               return ResponseEntity.ok(ApiResponse.success("没有需要更新的信息", user));
           }
           
-          // 保存更新
-          userService.updateById(user);
+          // 保存更新（单条UPDATE，按版本号乐观锁）
+          userService.updateById(changes);
           
           log.info("用户 {} 更新信息成功", currentUserId);
           
           // 返回更新后的用户信息（不包含敏感信息）
-          user.setPassword(null); // 不返回密码
+          if (changes.getRealName() != null) {
+              user.setRealName(changes.getRealName());
+          }
+          if (changes.getNickname() != null) {
+              user.setNickname(changes.getNickname());
+          }
+          if (changes.getEmail() != null) {
+              user.setEmail(changes.getEmail());
+          }
+          if (changes.getPhone() != null) {
+              user.setPhone(changes.getPhone());
+          }
+          user.setVersion(changes.getVersion());
+          user.setUpdateTime(changes.getUpdateTime());
           return ResponseEntity.ok(ApiResponse.success("用户信息更新成功", user));
           
+      } catch (BusinessException e) {
+          return ResponseEntity.status(e.getCode())
+                  .body(ApiResponse.error(e.getCode(), e.getMessage()));
       } catch (Exception e) {
           log.error("更新用户信息异常", e);
           return ResponseEntity.internalServerError()
@@ -245,7 +276,7 @@ public class UserController {
    */
   @Operation(summary = "获取用户信息", description = "获取当前登录用户的详细信息")
   @GetMapping("/profile")
-  public ResponseEntity<ApiResponse<User>> getUserProfile(Authentication authentication) {
+  public ResponseEntity<ApiResponse<User>> getUserProfile(Authentication authentication, WebRequest webRequest) {
       try {
           Long currentUserId = SecurityUtil.getCurrentUserId(authentication);
           if (currentUserId == null) {
@@ -253,16 +284,27 @@ public class UserController {
                       .body(ApiResponse.unauthorized("请先登录"));
           }
           
+          // 客户端携带的ETag与校验值一致时直接返回304，不加载和序列化用户信息
+          UserValidator validator = userService.getUserValidator(currentUserId);
+          if (validator != null && webRequest.checkNotModified(validator.getEtag(), validator.getLastModified())) {
+              return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                      .cacheControl(PROFILE_CACHE_CONTROL)
+                      .build();
+          }
+          
           User user = userService.getUserById(currentUserId);
           if (user == null) {
               return ResponseEntity.status(404)
                       .body(ApiResponse.notFound("用户不存在"));
           }
           
-          // 不返回密码等敏感信息
-          user.setPassword(null);
-          
-          return ResponseEntity.ok(ApiResponse.success("获取成功", user));
+          // 以实际返回的数据重新生成校验值
+          ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(PROFILE_CACHE_CONTROL);
+          UserValidator current = UserValidator.of(user);
+          if (current != null) {
+              response.eTag(current.getEtag()).lastModified(current.getLastModified());
+          }
+          return response.body(ApiResponse.success("获取成功", user));
           
       } catch (Exception e) {
           log.error("获取用户信息异常", e);
@@ -319,7 +361,7 @@ public class UserController {
       try {
           // 获取当前用户
           CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
-          User currentUser = userService.getUserById(userDetails.getUserId());
+          User currentUser = userService.getUserWithPassword(userDetails.getUserId());
           
           if (currentUser == null) {
               return ResponseEntity.status(404)
@@ -327,23 +369,27 @@ public class UserController {
           }
           
           // 验证原密码是否正确
-          if (!userService.getPasswordEncoder().matches(passwordChangeDTO.getOldPassword(), currentUser.getPassword())) {
+          if (!passwordHashService.matches(passwordChangeDTO.getOldPassword(), currentUser.getPassword())) {
               return ResponseEntity.badRequest()
                       .body(ApiResponse.error("原密码不正确"));
           }
           
-          // 验证新密码与原密码是否相同
-          if (userService.getPasswordEncoder().matches(passwordChangeDTO.getNewPassword(), currentUser.getPassword())) {
+          // 验证新密码与原密码是否相同（原密码已校验通过，直接比较明文，省去一次BCrypt计算）
+          if (passwordChangeDTO.getNewPassword().equals(passwordChangeDTO.getOldPassword())) {
               return ResponseEntity.badRequest()
                       .body(ApiResponse.error("新密码不能与原密码相同"));
           }
           
-          // 更新密码
-          String encodedNewPassword = userService.getPasswordEncoder().encode(passwordChangeDTO.getNewPassword());
-          currentUser.setPassword(encodedNewPassword);
-          boolean success = userService.updateById(currentUser);
+          // 更新密码（只写入密码列，按版本号乐观锁）
+          User changes = new User();
+          changes.setId(currentUser.getId());
+          changes.setVersion(currentUser.getVersion());
+          changes.setPassword(passwordHashService.encode(passwordChangeDTO.getNewPassword()));
+          boolean success = userService.updateById(changes);
           
           if (success) {
+              // 吊销修改密码前签发的全部令牌，需重新登录
+              tokenRevocationService.revokeAllForUser(currentUser.getId());
               log.info("用户 {} 密码修改成功", currentUser.getId());
               return ResponseEntity.ok(ApiResponse.success("密码修改成功"));
           } else {
@@ -352,6 +398,9 @@ public class UserController {
                       .body(ApiResponse.error("密码修改失败"));
           }
           
+      } catch (BusinessException e) {
+          return ResponseEntity.status(e.getCode())
+                  .body(ApiResponse.error(e.getCode(), e.getMessage()));
       } catch (Exception e) {
           log.error("密码修改过程中发生错误", e);
           return ResponseEntity.status(500)
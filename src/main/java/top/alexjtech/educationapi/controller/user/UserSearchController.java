@@ -0,0 +1,43 @@
+package top.alexjtech.educationapi.controller.user;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import top.alexjtech.educationapi.common.ApiResponse;
+import top.alexjtech.educationapi.service.user.UserSearchService;
+import top.alexjtech.educationapi.vo.user.UserSearchResultVO;
+
+/**
+ * 用户搜索控制器
+ * 老师和管理员按用户名、姓名、昵称或手机号片段查找用户
+ */
+@Tag(name = "用户搜索", description = "按用户名、姓名、昵称、手机号片段搜索用户")
+@RestController
+@RequestMapping("/user/search")
+@RequiredArgsConstructor
+public class UserSearchController {
+
+    private final UserSearchService userSearchService;
+
+    /**
+     * 搜索用户
+     * URL: /api/user/search
+     * Method: GET
+     */
+    @Operation(summary = "搜索用户", description = "容忍少量错字，按匹配程度排序分页返回；单个字只按开头匹配")
+    @GetMapping
+    public ResponseEntity<ApiResponse<UserSearchResultVO>> search(
+            @Parameter(description = "关键字") @RequestParam("keyword") String keyword,
+            @Parameter(description = "用户类型（1：学生，2：老师，3：管理员），不传表示不限")
+            @RequestParam(value = "userType", required = false) Integer userType,
+            @Parameter(description = "页码，从1开始") @RequestParam(value = "page", defaultValue = "1") int page,
+            @Parameter(description = "每页条数") @RequestParam(value = "size", defaultValue = "20") int size) {
+        return ResponseEntity.ok(ApiResponse.success("查询成功", userSearchService.search(keyword, userType, page, size)));
+    }
+}
@@ -0,0 +1,31 @@
+package top.alexjtech.educationapi.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 最后登录信息（写回缓冲区内部使用）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LastLoginDTO {
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 登录时间
+     */
+    private LocalDateTime loginTime;
+
+    /**
+     * 登录IP
+     */
+    private String loginIp;
+}
@@ -0,0 +1,19 @@
+package top.alexjtech.educationapi.dto.user;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 批量查询用户DTO
+ */
+@Data
+@Schema(description = "批量查询用户请求")
+public class UserBatchQueryDTO {
+
+    @Schema(description = "用户ID列表，数量上限见 app.user-batch.max-size", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotEmpty(message = "用户ID不能为空")
+    private List<Long> ids;
+}
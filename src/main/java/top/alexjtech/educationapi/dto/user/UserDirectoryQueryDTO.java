@@ -0,0 +1,41 @@
+package top.alexjtech.educationapi.dto.user;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户目录查询DTO
+ * 按用户ID游标翻页：首页不传afterId，之后传上一页返回的nextCursor
+ */
+@Data
+@Schema(description = "用户目录查询条件")
+public class UserDirectoryQueryDTO {
+
+    @Schema(description = "用户类型（1：学生，2：老师，3：管理员）")
+    private Integer userType;
+
+    @Schema(description = "状态（0：正常，1：禁用）")
+    private Integer status;
+
+    @Schema(description = "创建时间起（包含），格式 yyyy-MM-dd HH:mm:ss")
+    @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdFrom;
+
+    @Schema(description = "创建时间止（不包含），格式 yyyy-MM-dd HH:mm:ss")
+    @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdTo;
+
+    @Schema(description = "游标：上一页最后一个用户ID")
+    @Min(value = 0, message = "游标不能为负数")
+    private Long afterId;
+
+    @Schema(description = "每页条数")
+    @Min(value = 1, message = "每页条数不能小于1")
+    @Max(value = 500, message = "每页条数不能超过500")
+    private Integer size;
+}
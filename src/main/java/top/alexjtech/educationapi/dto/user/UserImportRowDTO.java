@@ -0,0 +1,33 @@
+package top.alexjtech.educationapi.dto.user;
+
+import com.alibaba.excel.annotation.ExcelProperty;
+import lombok.Data;
+
+/**
+ * 用户批量导入行（按表头名称匹配CSV/XLSX列）
+ * 所有列按文本读取，由导入服务统一校验和转换
+ */
+@Data
+public class UserImportRowDTO {
+
+    @ExcelProperty("用户名")
+    private String username;
+
+    @ExcelProperty("密码")
+    private String password;
+
+    @ExcelProperty("姓名")
+    private String realName;
+
+    @ExcelProperty("昵称")
+    private String nickname;
+
+    @ExcelProperty("邮箱")
+    private String email;
+
+    @ExcelProperty("手机号")
+    private String phone;
+
+    @ExcelProperty("用户类型")
+    private String userType;
+}
@@ -7,15 +7,32 @@ import java.util.Collection;
 
 /**
  * 自定义UserDetails实现类
- * 扩展Spring Security的User类，添加用户ID字段
+ * 扩展Spring Security的User类，添加用户ID和用户类型字段
  */
 public class CustomUserDetails extends User {
     private Long userId;
+
+    /**
+     * 用户类型（1：学生，2：老师，3：管理员）
+     */
+    private Integer userType;
     
     public CustomUserDetails(String username, String password, Long userId, Collection<? extends GrantedAuthority> authorities) {
         super(username, password, authorities);
         this.userId = userId;
     }
+
+    public CustomUserDetails(String username, String password, Long userId, Integer userType,
+                             Collection<? extends GrantedAuthority> authorities) {
+        this(username, password, userId, userType, true, authorities);
+    }
+
+    public CustomUserDetails(String username, String password, Long userId, Integer userType, boolean enabled,
+                             Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, enabled, true, true, true, authorities);
+        this.userId = userId;
+        this.userType = userType;
+    }
     
     public Long getUserId() {
         return userId;
@@ -24,4 +41,12 @@ public class CustomUserDetails extends User {
     public void setUserId(Long userId) {
         this.userId = userId;
     }
-}
\ No newline at end of file
+
+    public Integer getUserType() {
+        return userType;
+    }
+
+    public void setUserType(Integer userType) {
+        this.userType = userType;
+    }
+}
@@ -2,6 +2,7 @@ package top.alexjtech.educationapi.entity;
 
 import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableName;
+import com.baomidou.mybatisplus.annotation.Version;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -117,4 +118,11 @@ public class User extends BaseEntity {
      */
     @TableField("remark")
     private String remark;
+
+    /**
+     * 乐观锁版本号（每次更新加1）
+     */
+    @Version
+    @TableField("version")
+    private Integer version;
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package top.alexjtech.educationapi.exception;
+
+import lombok.Getter;
+import top.alexjtech.educationapi.common.ResponseCode;
+
+/**
+ * 业务异常
+ * 携带响应码，由全局异常处理器转换为统一响应
+ */
+@Getter
+public class BusinessException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 响应码
+     */
+    private final Integer code;
+
+    public BusinessException(ResponseCode responseCode) {
+        this(responseCode.getCode(), responseCode.getMessage());
+    }
+
+    public BusinessException(ResponseCode responseCode, String message) {
+        this(responseCode.getCode(), message);
+    }
+
+    public BusinessException(Integer code, String message) {
+        super(message);
+        this.code = code;
+    }
+}
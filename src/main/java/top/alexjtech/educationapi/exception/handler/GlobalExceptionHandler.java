@@ -3,16 +3,20 @@ package top.alexjtech.educationapi.exception.handler;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.BindException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import top.alexjtech.educationapi.common.ApiResponse;
+import top.alexjtech.educationapi.common.ResponseCode;
+import top.alexjtech.educationapi.exception.BusinessException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -96,6 +100,28 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
 
+    /**
+     * 处理业务异常
+     * 响应码为HTTP状态码时直接作为响应状态，否则按400处理
+     */
+    @ExceptionHandler(BusinessException.class)
+    public ResponseEntity<ApiResponse<String>> handleBusinessException(BusinessException e) {
+        log.warn("业务异常: {}", e.getMessage());
+        HttpStatus status = HttpStatus.resolve(e.getCode());
+        return ResponseEntity.status(status != null ? status : HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.error(e.getCode(), e.getMessage()));
+    }
+
+    /**
+     * 处理数据库连接获取失败（连接池耗尽等待超时或数据库不可用）
+     */
+    @ExceptionHandler({CannotGetJdbcConnectionException.class, CannotCreateTransactionException.class})
+    public ResponseEntity<ApiResponse<String>> handleConnectionUnavailable(Exception e) {
+        log.error("获取数据库连接失败: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ApiResponse.error(ResponseCode.SERVICE_UNAVAILABLE.getCode(), "服务繁忙，请稍后重试"));
+    }
+
     /**
      * 处理其他所有异常
      */
@@ -0,0 +1,75 @@
+package top.alexjtech.educationapi.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import top.alexjtech.educationapi.vo.user.DeletedUserVO;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 已删除用户归档Mapper
+ * 独立于 {@link UserMapper} 的命名空间：归档时的删除不会清空用户二级缓存（缓存中只有未删除的用户）
+ */
+@Mapper
+public interface UserArchiveMapper {
+
+    /**
+     * 为没有删除时间的已删除用户补写删除时间（当前时间），保留期从补写时开始计算
+     * 不经 {@link UserMapper#logicDeleteById} 删除的用户（如 BaseMapper.deleteById）没有删除时间
+     *
+     * @param limit 最多更新的行数
+     * @return 更新的行数
+     */
+    int stampMissingDeletedTime(@Param("limit") int limit);
+
+    /**
+     * 锁定一批删除时间早于指定时间的用户（SELECT ... FOR UPDATE，需在事务内调用）
+     *
+     * @param deletedBefore 删除时间上限（不包含）
+     * @param limit         最多锁定的行数
+     * @return 用户ID，按删除时间升序
+     */
+    List<Long> lockExpiredIds(@Param("deletedBefore") LocalDateTime deletedBefore, @Param("limit") int limit);
+
+    /**
+     * 将指定的已删除用户复制到归档表（不复制密码和微信会话密钥）
+     *
+     * @return 复制的行数
+     */
+    int copyToArchive(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 从用户表删除指定的已删除用户
+     *
+     * @return 删除的行数
+     */
+    int deleteArchived(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 按ID查询已归档用户
+     */
+    DeletedUserVO selectArchivedById(@Param("id") Long id);
+
+    /**
+     * 按ID查询用户表中尚未归档的已删除用户
+     */
+    DeletedUserVO selectDeletedById(@Param("id") Long id);
+
+    /**
+     * 按用户名、邮箱或手机号查询已归档用户（同一标识可能属于多个先后被删除的用户）
+     *
+     * @param type       标识类型（LoginIdentifierType名称），决定查询的列
+     * @param identifier 标识值
+     */
+    List<DeletedUserVO> selectArchivedByIdentifier(@Param("type") String type, @Param("identifier") String identifier);
+
+    /**
+     * 按用户名、邮箱或手机号查询用户表中尚未归档的已删除用户
+     *
+     * @param type       标识类型（LoginIdentifierType名称），决定查询的列
+     * @param identifier 标识值
+     */
+    List<DeletedUserVO> selectDeletedByIdentifier(@Param("type") String type, @Param("identifier") String identifier);
+}
@@ -1,23 +1,166 @@
 package top.alexjtech.educationapi.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import top.alexjtech.educationapi.common.LoginIdentifierType;
+import top.alexjtech.educationapi.dto.user.LastLoginDTO;
 import top.alexjtech.educationapi.entity.User;
+import top.alexjtech.educationapi.vo.UserInfoVO;
+import org.apache.ibatis.annotations.CacheNamespaceRef;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
 
 /**
  * 用户Mapper接口
+ * 二级缓存见 {@link top.alexjtech.educationapi.config.mybatis.MapperCacheConfig}，
+ * 注解使MyBatis-Plus注入的语句（selectById等）与XML语句共用同一缓存
  */
 @Mapper
+@CacheNamespaceRef(UserMapper.class)
 public interface UserMapper extends BaseMapper<User> {
 
     /**
-     * 根据用户名查询用户（支持用户名、邮箱、手机号登录）
+     * 根据用户名查询用户资料（不含密码和微信会话密钥）
      */
     User selectByUsername(@Param("username") String username);
 
     /**
-     * 根据微信OpenID查询用户
+     * 根据ID查询用户资料（不含密码和微信会话密钥），用于加载用户缓存
+     */
+    User selectProfileById(@Param("id") Long id);
+
+    /**
+     * 按ID批量查询用户资料（不含密码和微信会话密钥），结果不保证顺序
+     */
+    List<User> selectProfileByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 根据ID查询用户展示字段
+     */
+    UserInfoVO selectInfoById(@Param("id") Long id);
+
+    /**
+     * 根据登录标识查询用户资料（支持用户名、邮箱、手机号），不含密码
+     */
+    default User selectByLoginIdentifier(String identifier) {
+        return selectByIdentifier(identifier, this::selectByUsername, this::selectByPhone, this::selectByEmail);
+    }
+
+    /**
+     * 根据登录标识查询认证字段（ID、用户名、密码哈希、状态、用户类型、版本号），用于登录校验
+     */
+    default User selectAuthByLoginIdentifier(String identifier) {
+        return selectByIdentifier(identifier, this::selectAuthByUsername, this::selectAuthByPhone, this::selectAuthByEmail);
+    }
+
+    User selectAuthByUsername(@Param("username") String username);
+
+    User selectAuthByEmail(@Param("email") String email);
+
+    User selectAuthByPhone(@Param("phone") String phone);
+
+    /**
+     * 根据ID查询认证字段（修改密码时校验原密码）
+     */
+    User selectAuthById(@Param("id") Long id);
+
+    /**
+     * 按登录标识查询
+     * 先按格式判断标识类型，只查询对应字段，使查询可以命中单列唯一索引；
+     * 按手机号或邮箱未查到时再按用户名查询，兼容格式与手机号/邮箱相同的用户名
+     */
+    private static <T> T selectByIdentifier(String identifier, Function<String, T> byUsername,
+                                            Function<String, T> byPhone, Function<String, T> byEmail) {
+        LoginIdentifierType type = LoginIdentifierType.classify(identifier);
+        if (type == LoginIdentifierType.USERNAME) {
+            return byUsername.apply(identifier);
+        }
+        T result = type == LoginIdentifierType.PHONE ? byPhone.apply(identifier) : byEmail.apply(identifier);
+        return result != null ? result : byUsername.apply(identifier);
+    }
+
+    /**
+     * 流式读取全部用户的登录标识（用户名、邮箱、手机号、微信OpenID），用于构建用户标识过滤器
+     *
+     * @param handler 逐行处理结果，不在内存中保留完整结果集
+     */
+    void selectIdentifiers(ResultHandler<User> handler);
+
+    /**
+     * 查询已被占用的用户名、邮箱、手机号（包含已逻辑删除的用户，它们同样受唯一索引约束）
+     * 每个条件分别命中对应的唯一索引，用于批量导入前的冲突检查
+     *
+     * @return 仅包含username、email、phone的用户列表
+     */
+    List<User> selectExistingIdentifiers(@Param("usernames") Collection<String> usernames,
+                                         @Param("emails") Collection<String> emails,
+                                         @Param("phones") Collection<String> phones);
+
+    /**
+     * 流式读取全部用户的搜索字段（ID、用户名、姓名、昵称、手机号、用户类型），按ID升序，用于构建搜索索引
+     *
+     * @param handler 逐行处理结果，不在内存中保留完整结果集
+     */
+    void selectSearchFields(ResultHandler<User> handler);
+
+    /**
+     * 查询单个用户的搜索字段
+     */
+    User selectSearchFieldsById(@Param("id") Long id);
+
+    /**
+     * 按用户名批量查询搜索字段（批量导入后获取自增ID）
+     */
+    List<User> selectSearchFieldsByUsernames(@Param("usernames") Collection<String> usernames);
+
+    /**
+     * 按ID批量查询用户展示字段（不包含密码、微信会话密钥等敏感字段），结果不保证顺序
+     */
+    List<UserInfoVO> selectInfoByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 按条件游标分页查询用户目录（只查询展示字段）
+     *
+     * @param userType    用户类型，可为null
+     * @param status      状态，可为null
+     * @param createdFrom 创建时间起（包含），可为null
+     * @param createdTo   创建时间止（不包含），可为null
+     * @param afterId     上一页最后一个用户ID，首页为null
+     * @param limit       最多返回的行数
+     * @return 按ID升序排列的用户列表
+     */
+    List<UserInfoVO> selectDirectoryPage(@Param("userType") Integer userType,
+                                         @Param("status") Integer status,
+                                         @Param("createdFrom") LocalDateTime createdFrom,
+                                         @Param("createdTo") LocalDateTime createdTo,
+                                         @Param("afterId") Long afterId,
+                                         @Param("limit") int limit);
+
+    /**
+     * 统计满足目录筛选条件的用户数
+     */
+    long countDirectory(@Param("userType") Integer userType,
+                        @Param("status") Integer status,
+                        @Param("createdFrom") LocalDateTime createdFrom,
+                        @Param("createdTo") LocalDateTime createdTo);
+
+    /**
+     * 按目录筛选条件流式读取用户（只查询展示字段，按ID升序）
+     * 返回的游标需在事务内遍历并关闭，遍历期间占用一个数据库连接
+     */
+    Cursor<UserInfoVO> selectExportCursor(@Param("userType") Integer userType,
+                                          @Param("status") Integer status,
+                                          @Param("createdFrom") LocalDateTime createdFrom,
+                                          @Param("createdTo") LocalDateTime createdTo);
+
+    /**
+     * 根据微信OpenID查询用户资料（含微信会话密钥，不含密码）
      */
     User selectByWechatOpenId(@Param("openId") String openId);
 
@@ -41,27 +184,64 @@ public interface UserMapper extends BaseMapper<User> {
     int updateLastLoginInfo(@Param("id") Long id, @Param("loginIp") String loginIp);
 
     /**
-     * 检查用户名是否存在
+     * 批量更新最后登录信息
+     *
+     * @param records 登录记录（每个用户一条）
+     * @return 影响行数
+     */
+    int batchUpdateLastLoginInfo(@Param("records") List<LastLoginDTO> records);
+
+    /**
+     * 更新微信会话密钥
+     *
+     * @param id 用户ID
+     * @param sessionKey 会话密钥
+     * @return 影响行数
+     */
+    int updateWechatSessionKey(@Param("id") Long id, @Param("sessionKey") String sessionKey);
+
+    /**
+     * 更新密码哈希（仅当当前哈希仍为oldPassword时更新）
+     *
+     * @param id 用户ID
+     * @param oldPassword 原密码哈希
+     * @param newPassword 新密码哈希
+     * @return 影响行数
+     */
+    int updatePasswordHash(@Param("id") Long id, @Param("oldPassword") String oldPassword, @Param("newPassword") String newPassword);
+
+    /**
+     * 逻辑删除用户并记录删除时间
+     * 删除用户应使用此方法而不是 deleteById：归档任务按删除时间计算保留期，
+     * deleteById 删除的用户没有删除时间，要等归档任务补写后才开始计算保留期
+     *
+     * @param id 用户ID
+     * @return 影响行数，用户不存在或已删除时为0
+     */
+    int logicDeleteById(@Param("id") Long id);
+
+    /**
+     * 查询用户名对应的用户ID，不存在返回null
      */
-    int checkUsernameExists(@Param("username") String username);
+    Long selectIdByUsername(@Param("username") String username);
 
     /**
-     * 检查邮箱是否存在
+     * 查询邮箱对应的用户ID，不存在返回null
      */
-    int checkEmailExists(@Param("email") String email);
+    Long selectIdByEmail(@Param("email") String email);
 
     /**
-     * 检查手机号是否存在
+     * 查询手机号对应的用户ID，不存在返回null
      */
-    int checkPhoneExists(@Param("phone") String phone);
+    Long selectIdByPhone(@Param("phone") String phone);
     
     /**
-     * 根据邮箱查询用户
+     * 根据邮箱查询用户资料（不含密码和微信会话密钥）
      */
     User selectByEmail(@Param("email") String email);
     
     /**
-     * 根据手机号查询用户
+     * 根据手机号查询用户资料（不含密码和微信会话密钥）
      */
     User selectByPhone(@Param("phone") String phone);
 }
\ No newline at end of file
@@ -6,41 +6,44 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import top.alexjtech.educationapi.common.UserType;
 import top.alexjtech.educationapi.entity.CustomUserDetails;
 import top.alexjtech.educationapi.entity.User;
-import top.alexjtech.educationapi.mapper.UserMapper;
+import top.alexjtech.educationapi.service.user.UserCacheService;
 
 import java.util.Collections;
 import java.util.List;
 
 /**
  * 自定义UserDetailsService实现
- * 用于从数据库加载用户信息
+ * 用于加载用户信息（优先从用户缓存读取）
  */
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
-    private final UserMapper userMapper;
+    private final UserCacheService userCacheService;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        // 根据用户名查询用户
-        User user = userMapper.selectByUsername(username);
+        // 根据用户名查询用户（经两级缓存）
+        User user = userCacheService.getByIdentifier(username);
         if (user == null) {
             throw new UsernameNotFoundException("用户不存在: " + username);
         }
 
-        // 创建权限列表（这里简单处理，实际应该从数据库加载用户角色和权限）
+        // 根据用户类型创建权限列表，与登录时签发令牌中的角色保持一致
         List<SimpleGrantedAuthority> authorities = Collections.singletonList(
-                new SimpleGrantedAuthority("ROLE_USER")
+                new SimpleGrantedAuthority(UserType.getRoleByCode(user.getUserType()))
         );
 
-        // 返回自定义UserDetails对象，包含用户ID
+        // 返回自定义UserDetails对象，包含用户ID、用户类型和账号状态
         return new CustomUserDetails(
                 user.getUsername(),
-                user.getPassword(),
+                "", // 缓存中不保存密码，令牌认证也不需要密码
                 user.getId(), // 传递用户ID
+                user.getUserType(),
+                user.getStatus() == null || user.getStatus() == 0,
                 authorities
         );
     }
@@ -0,0 +1,156 @@
+package top.alexjtech.educationapi.service.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import top.alexjtech.educationapi.util.ratelimit.StripedTokenBucket;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 登录限流服务
+ * 在查询数据库和计算BCrypt之前，分别按客户端IP和登录标识进行令牌桶限流，防止撞库请求耗尽CPU；
+ * 可选开启Redis固定窗口计数，使限流在多个节点间同时生效
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LoginThrottleService {
+
+    private static final String REDIS_KEY_PREFIX = "login:throttle:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.login-throttle.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.login-throttle.stripes:65536}")
+    private int stripes;
+
+    @Value("${app.login-throttle.ip-capacity:60}")
+    private int ipCapacity;
+
+    @Value("${app.login-throttle.ip-refill-per-second:1.0}")
+    private double ipRefillPerSecond;
+
+    @Value("${app.login-throttle.identifier-capacity:10}")
+    private int identifierCapacity;
+
+    @Value("${app.login-throttle.identifier-refill-per-second:0.1}")
+    private double identifierRefillPerSecond;
+
+    // 是否通过Redis在多节点间同步限流
+    @Value("${app.login-throttle.redis-sync:false}")
+    private boolean redisSync;
+
+    @Value("${app.login-throttle.redis-window:60s}")
+    private Duration redisWindow;
+
+    // 限流日志的最短间隔，间隔内只计数（撞库时每次拒绝都记录会刷屏并拖慢请求）
+    @Value("${app.login-throttle.reject-log-interval:10s}")
+    private Duration rejectLogInterval;
+
+    private final AtomicLong lastRejectLog = new AtomicLong();
+    private final AtomicLong suppressedRejectLogs = new AtomicLong();
+
+    private StripedTokenBucket ipBuckets;
+    private StripedTokenBucket identifierBuckets;
+
+    private Counter ipAllowedCounter;
+    private Counter ipRejectedCounter;
+    private Counter identifierAllowedCounter;
+    private Counter identifierRejectedCounter;
+
+    @PostConstruct
+    void init() {
+        ipBuckets = new StripedTokenBucket(stripes, ipCapacity, ipRefillPerSecond);
+        identifierBuckets = new StripedTokenBucket(stripes, identifierCapacity, identifierRefillPerSecond);
+        ipAllowedCounter = meterRegistry.counter("login.throttle", "dimension", "ip", "result", "allowed");
+        ipRejectedCounter = meterRegistry.counter("login.throttle", "dimension", "ip", "result", "rejected");
+        identifierAllowedCounter = meterRegistry.counter("login.throttle", "dimension", "identifier", "result", "allowed");
+        identifierRejectedCounter = meterRegistry.counter("login.throttle", "dimension", "identifier", "result", "rejected");
+    }
+
+    /**
+     * 尝试获取一次登录机会
+     *
+     * @param clientIp   客户端IP
+     * @param identifier 登录标识（用户名/邮箱/手机号）
+     * @return 允许登录返回true，超出限制返回false
+     */
+    public boolean tryAcquire(String clientIp, String identifier) {
+        if (!enabled) {
+            return true;
+        }
+
+        if (clientIp != null) {
+            if (!ipBuckets.tryAcquire(clientIp)
+                    || (redisSync && !tryAcquireRedis("ip:", clientIp, ipCapacity, ipRefillPerSecond))) {
+                ipRejectedCounter.increment();
+                rejected("IP", clientIp);
+                return false;
+            }
+            ipAllowedCounter.increment();
+        }
+
+        if (identifier != null) {
+            // 标识不区分大小写，避免通过大小写变换绕过限流
+            String normalized = identifier.trim().toLowerCase(Locale.ROOT);
+            if (!identifierBuckets.tryAcquire(normalized)
+                    || (redisSync && !tryAcquireRedis("id:", normalized, identifierCapacity, identifierRefillPerSecond))) {
+                identifierRejectedCounter.increment();
+                rejected("登录标识", normalized);
+                return false;
+            }
+            identifierAllowedCounter.increment();
+        }
+        return true;
+    }
+
+    /**
+     * 记录限流日志，每个间隔最多记录一次，其余只计数（各维度的拒绝次数见 login.throttle 指标）
+     */
+    private void rejected(String dimension, String key) {
+        long now = System.nanoTime();
+        long last = lastRejectLog.get();
+        if (last != 0 && now - last < rejectLogInterval.toNanos()) {
+            suppressedRejectLogs.incrementAndGet();
+            return;
+        }
+        if (!lastRejectLog.compareAndSet(last, now)) {
+            suppressedRejectLogs.incrementAndGet();
+            return;
+        }
+        log.warn("登录请求过于频繁，已按{}限流: {}，上次记录后另有 {} 次限流未记录",
+                dimension, key, suppressedRejectLogs.getAndSet(0));
+    }
+
+    /**
+     * Redis固定窗口计数，窗口内允许的次数为桶容量加上窗口内可补充的令牌数
+     * Redis不可用时放行，仅依赖本地限流
+     */
+    private boolean tryAcquireRedis(String dimension, String key, int capacity, double refillPerSecond) {
+        long windowMillis = redisWindow.toMillis();
+        long window = System.currentTimeMillis() / windowMillis;
+        String redisKey = REDIS_KEY_PREFIX + dimension + key + ":" + window;
+        long limit = capacity + (long) (refillPerSecond * windowMillis / 1000);
+        try {
+            Long count = stringRedisTemplate.opsForValue().increment(redisKey);
+            if (count != null && count == 1) {
+                stringRedisTemplate.expire(redisKey, redisWindow);
+            }
+            return count == null || count <= limit;
+        } catch (RuntimeException e) {
+            log.warn("Redis登录限流计数失败，仅使用本地限流: {}", e.getMessage());
+            return true;
+        }
+    }
+}
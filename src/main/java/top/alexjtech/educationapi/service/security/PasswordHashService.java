@@ -0,0 +1,254 @@
+package top.alexjtech.educationapi.service.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+import top.alexjtech.educationapi.common.ResponseCode;
+import top.alexjtech.educationapi.exception.BusinessException;
+import top.alexjtech.educationapi.mapper.UserMapper;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 密码哈希服务
+ * BCrypt计算在独立的定长线程池中执行，队列满时立即返回503，避免登录高峰占满Tomcat请求线程；
+ * 启动时按目标耗时标定BCrypt cost，登录成功后对cost低于目标的旧哈希在后台重新计算；
+ * 只升级不降级：各节点标定结果可能不同（负载、硬件），不会因此把已存储的哈希改回较低的cost或在节点间反复重算
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PasswordHashService {
+
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+
+    private final UserMapper userMapper;
+    private final MeterRegistry meterRegistry;
+
+    // 线程池大小，0表示使用CPU核数
+    @Value("${app.password.pool-size:0}")
+    private int poolSize;
+
+    @Value("${app.password.queue-capacity:64}")
+    private int queueCapacity;
+
+    // 等待哈希结果的最长时间
+    @Value("${app.password.hash-timeout:5s}")
+    private Duration hashTimeout;
+
+    // 固定cost，大于0时跳过标定
+    @Value("${app.password.strength:0}")
+    private int fixedStrength;
+
+    @Value("${app.password.target-latency:100ms}")
+    private Duration targetLatency;
+
+    @Value("${app.password.min-strength:10}")
+    private int minStrength;
+
+    @Value("${app.password.max-strength:14}")
+    private int maxStrength;
+
+    // 标定时每个cost的测量次数，取最短耗时，减少启动时负载的干扰
+    @Value("${app.password.calibration-samples:3}")
+    private int calibrationSamples;
+
+    private ThreadPoolExecutor executor;
+
+    /**
+     * 标定后的密码编码器
+     */
+    @Getter
+    private BCryptPasswordEncoder encoder;
+
+    /**
+     * 目标BCrypt cost
+     */
+    @Getter
+    private int strength;
+
+    private Timer matchesTimer;
+    private Timer encodeTimer;
+    private Counter rejectedCounter;
+    private Counter rehashCounter;
+
+    @PostConstruct
+    void init() {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        strength = fixedStrength > 0 ? fixedStrength : calibrate();
+        encoder = new BCryptPasswordEncoder(strength);
+        log.info("密码哈希线程池: {} 线程, 队列容量 {}, BCrypt cost {}", threads, queueCapacity, strength);
+
+        Gauge.builder("password.hash.queue.depth", executor, e -> e.getQueue().size())
+                .description("等待执行的密码哈希任务数")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        Gauge.builder("password.hash.strength", this, PasswordHashService::getStrength)
+                .register(meterRegistry);
+        matchesTimer = Timer.builder("password.hash.latency").tag("operation", "matches")
+                .publishPercentileHistogram().register(meterRegistry);
+        encodeTimer = Timer.builder("password.hash.latency").tag("operation", "encode")
+                .publishPercentileHistogram().register(meterRegistry);
+        rejectedCounter = meterRegistry.counter("password.hash.rejected");
+        rehashCounter = meterRegistry.counter("password.hash.rehashed");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 校验明文密码与哈希是否匹配（在哈希线程池中执行）
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        return execute(() -> matchesTimer.record(() -> encoder.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * 使用目标cost计算密码哈希（在哈希线程池中执行）
+     */
+    public String encode(String rawPassword) {
+        return execute(() -> encodeTimer.record(() -> encoder.encode(rawPassword)));
+    }
+
+    /**
+     * 哈希的cost是否低于当前目标（只升级，不降级）
+     */
+    public boolean needsRehash(String encodedPassword) {
+        int cost = parseStrength(encodedPassword);
+        return cost > 0 && cost < strength;
+    }
+
+    /**
+     * 登录成功后在后台按目标cost重新哈希；线程池繁忙时直接跳过，下次登录再处理
+     *
+     * @param userId      用户ID
+     * @param rawPassword 已验证通过的明文密码
+     * @param oldPassword 当前存储的密码哈希
+     */
+    public void rehashAsync(Long userId, String rawPassword, String oldPassword) {
+        try {
+            executor.execute(() -> {
+                try {
+                    String newPassword = encodeTimer.record(() -> encoder.encode(rawPassword));
+                    if (userMapper.updatePasswordHash(userId, oldPassword, newPassword) > 0) {
+                        rehashCounter.increment();
+                        log.debug("用户 {} 的密码哈希已更新为 cost {}", userId, strength);
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("用户 {} 密码重新哈希失败: {}", userId, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("哈希线程池繁忙，跳过用户 {} 的密码重新哈希", userId);
+        }
+    }
+
+    /**
+     * 提交任务并等待结果；队列已满或等待超时时抛出503业务异常
+     */
+    private <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new BusinessException(ResponseCode.SERVICE_UNAVAILABLE, "当前请求较多，请稍后重试");
+        }
+
+        try {
+            return future.get(hashTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new BusinessException(ResponseCode.SERVICE_UNAVAILABLE, "当前请求较多，请稍后重试");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ResponseCode.SERVICE_UNAVAILABLE, "请求已中断");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * 按目标耗时标定cost：从最小值开始逐级测量，取耗时不超过目标的最大cost
+     * 每级测量多次取最短耗时，启动时的偶发负载只会使单次测量变慢，不会使最短耗时变慢
+     */
+    private int calibrate() {
+        // 预热，避免首次调用的类加载和JIT开销影响测量
+        new BCryptPasswordEncoder(4).encode(CALIBRATION_PASSWORD);
+
+        long targetNanos = targetLatency.toNanos();
+        int selected = minStrength;
+        for (int cost = minStrength; cost <= maxStrength; cost++) {
+            BCryptPasswordEncoder candidate = new BCryptPasswordEncoder(cost);
+            long elapsed = Long.MAX_VALUE;
+            for (int sample = 0; sample < Math.max(1, calibrationSamples); sample++) {
+                long start = System.nanoTime();
+                candidate.encode(CALIBRATION_PASSWORD);
+                elapsed = Math.min(elapsed, System.nanoTime() - start);
+            }
+            log.debug("BCrypt cost {} 耗时 {} ms", cost, TimeUnit.NANOSECONDS.toMillis(elapsed));
+            if (elapsed > targetNanos) {
+                break;
+            }
+            selected = cost;
+        }
+        return selected;
+    }
+
+    /**
+     * 从BCrypt哈希（如 $2a$10$...）中解析cost，无法解析时返回-1
+     */
+    static int parseStrength(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return -1;
+        }
+        int separator = encodedPassword.indexOf('$', 1);
+        if (separator < 0 || separator + 3 > encodedPassword.length()) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(encodedPassword, separator + 1, separator + 3, 10);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
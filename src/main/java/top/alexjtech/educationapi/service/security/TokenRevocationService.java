@@ -0,0 +1,239 @@
+package top.alexjtech.educationapi.service.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import top.alexjtech.educationapi.util.cache.BloomFilter;
+import top.alexjtech.educationapi.util.security.JwtUtil;
+import top.alexjtech.educationapi.util.security.VerifiedToken;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 令牌吊销服务
+ * Redis中保存两类吊销记录：单个令牌（jti）和用户级水位线（该时间之前签发的令牌全部失效）
+ * 每个节点在内存中维护一个布隆过滤器，定时从Redis增量同步；未吊销的令牌（绝大多数请求）在本地即可判定，无需访问Redis
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationService {
+
+    private static final String TOKEN_KEY_PREFIX = "auth:revoked:jti:";
+    private static final String USER_KEY_PREFIX = "auth:revoked:user:";
+    // 吊销变更日志（成员为 j:{jti} 或 u:{userId}，分值为吊销时间），供各节点增量同步布隆过滤器
+    private static final String REVOCATION_LOG_KEY = "auth:revocations";
+    private static final String TOKEN_MEMBER_PREFIX = "j:";
+    private static final String USER_MEMBER_PREFIX = "u:";
+
+    // 写入变更日志：分值取Redis服务器时间（毫秒），且不小于日志中已有的最大分值
+    // 脚本串行执行，分值按写入顺序单调不减，各节点按水位线增量读取时不会因节点时钟偏差漏读
+    private static final RedisScript<Long> APPEND_LOG_SCRIPT = new DefaultRedisScript<>(
+            "local t = redis.call('TIME') "
+                    + "local score = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000) "
+                    + "local last = redis.call('ZRANGE', KEYS[1], -1, -1, 'WITHSCORES') "
+                    + "if last[2] and tonumber(last[2]) > score then score = tonumber(last[2]) end "
+                    + "redis.call('ZADD', KEYS[1], score, ARGV[1]) "
+                    + "return score",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final JwtUtil jwtUtil;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${jwt.revocation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jwt.revocation.bloom-expected-insertions:100000}")
+    private long bloomExpectedInsertions;
+
+    @Value("${jwt.revocation.bloom-fpp:0.001}")
+    private double bloomFpp;
+
+    // 布隆过滤器全量重建间隔，用于清除已过期的吊销记录
+    @Value("${jwt.revocation.rebuild-interval:10m}")
+    private Duration rebuildInterval;
+
+    private volatile BloomFilter bloomFilter;
+
+    // 是否已与Redis完成同步；未同步时直接查询Redis
+    private volatile boolean synced;
+
+    // 已同步到的最大吊销时间（Redis服务器时间）
+    private volatile long lastSyncedScore;
+
+    private volatile long lastRebuildTime;
+
+    private Counter localPassCounter;
+    private Counter redisCheckCounter;
+    private Counter revokedCounter;
+    private Counter redisErrorCounter;
+
+    @PostConstruct
+    void init() {
+        bloomFilter = new BloomFilter(bloomExpectedInsertions, bloomFpp);
+        localPassCounter = meterRegistry.counter("auth.revocation.checks", "result", "local-pass");
+        redisCheckCounter = meterRegistry.counter("auth.revocation.checks", "result", "redis-check");
+        revokedCounter = meterRegistry.counter("auth.revocation.checks", "result", "revoked");
+        redisErrorCounter = meterRegistry.counter("auth.revocation.checks", "result", "error");
+        if (enabled) {
+            refresh();
+        }
+    }
+
+    /**
+     * 判断令牌是否已被吊销
+     * Redis不可用时放行（仅记录告警），避免缓存故障导致全站无法访问
+     *
+     * @param verifiedToken 已验证的令牌
+     * @param userId        令牌所属用户ID
+     * @return 是否已吊销
+     */
+    public boolean isRevoked(VerifiedToken verifiedToken, Long userId) {
+        if (!enabled) {
+            return false;
+        }
+
+        String tokenId = verifiedToken.getTokenId();
+        boolean checkToken = tokenId != null
+                && (!synced || bloomFilter.mightContain(TOKEN_MEMBER_PREFIX + tokenId));
+        boolean checkUser = userId != null
+                && (!synced || bloomFilter.mightContain(USER_MEMBER_PREFIX + userId));
+        if (!checkToken && !checkUser) {
+            localPassCounter.increment();
+            return false;
+        }
+
+        redisCheckCounter.increment();
+        try {
+            boolean revoked = (checkToken && Boolean.TRUE.equals(stringRedisTemplate.hasKey(TOKEN_KEY_PREFIX + tokenId)))
+                    || (checkUser && isBeforeWatermark(verifiedToken, userId));
+            if (revoked) {
+                revokedCounter.increment();
+            }
+            return revoked;
+        } catch (RuntimeException e) {
+            redisErrorCounter.increment();
+            log.warn("查询令牌吊销状态失败: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 吊销单个令牌（如用户注销）
+     */
+    public void revokeToken(VerifiedToken verifiedToken) {
+        if (!enabled || verifiedToken.getTokenId() == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long ttl = verifiedToken.getExpiration() - now;
+        if (ttl <= 0) {
+            return;
+        }
+        String member = TOKEN_MEMBER_PREFIX + verifiedToken.getTokenId();
+        stringRedisTemplate.opsForValue().set(TOKEN_KEY_PREFIX + verifiedToken.getTokenId(), "1", Duration.ofMillis(ttl));
+        appendLog(member);
+        bloomFilter.put(member);
+        log.info("令牌已吊销, jti={}", verifiedToken.getTokenId());
+    }
+
+    /**
+     * 吊销用户此前签发的全部令牌（如修改密码、禁用账号）
+     */
+    public void revokeAllForUser(Long userId) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        String member = USER_MEMBER_PREFIX + userId;
+        // 水位线只需保留到此前签发的令牌全部自然过期
+        stringRedisTemplate.opsForValue().set(USER_KEY_PREFIX + userId, String.valueOf(now),
+                Duration.ofMillis(jwtUtil.getExpirationMillis()));
+        appendLog(member);
+        bloomFilter.put(member);
+        log.info("用户令牌已全部吊销, userId={}", userId);
+    }
+
+    /**
+     * 定时从Redis增量同步吊销记录到本地布隆过滤器，并按间隔全量重建以淘汰过期记录
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval:5000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long oldest = now - jwtUtil.getExpirationMillis();
+        try {
+            if (!synced || now - lastRebuildTime >= rebuildInterval.toMillis()) {
+                // 全量重建：清理已过期的变更日志后重新加载
+                stringRedisTemplate.opsForZSet().removeRangeByScore(REVOCATION_LOG_KEY, 0, oldest);
+                BloomFilter rebuilt = new BloomFilter(bloomExpectedInsertions, bloomFpp);
+                long maxScore = load(rebuilt, oldest);
+                bloomFilter = rebuilt;
+                lastSyncedScore = maxScore;
+                lastRebuildTime = now;
+            } else {
+                // 增量同步：包含边界分值，避免同一毫秒内的记录漏读（重复写入布隆过滤器无副作用）
+                lastSyncedScore = Math.max(lastSyncedScore, load(bloomFilter, lastSyncedScore));
+            }
+            synced = true;
+        } catch (RuntimeException e) {
+            synced = false;
+            redisErrorCounter.increment();
+            log.warn("同步令牌吊销记录失败，暂时直接查询Redis: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 追加吊销记录到变更日志，分值由Redis生成（不使用本节点时钟）
+     */
+    private void appendLog(String member) {
+        stringRedisTemplate.execute(APPEND_LOG_SCRIPT, List.of(REVOCATION_LOG_KEY), member);
+    }
+
+    /**
+     * 加载分值不小于minScore的吊销记录，返回其中的最大分值
+     */
+    private long load(BloomFilter target, long minScore) {
+        Set<ZSetOperations.TypedTuple<String>> entries = stringRedisTemplate.opsForZSet()
+                .rangeByScoreWithScores(REVOCATION_LOG_KEY, minScore, Double.POSITIVE_INFINITY);
+        long maxScore = minScore;
+        if (entries != null) {
+            for (ZSetOperations.TypedTuple<String> entry : entries) {
+                if (entry.getValue() != null) {
+                    target.put(entry.getValue());
+                }
+                if (entry.getScore() != null) {
+                    maxScore = Math.max(maxScore, entry.getScore().longValue());
+                }
+            }
+        }
+        return maxScore;
+    }
+
+    /**
+     * 令牌签发时间是否早于用户水位线
+     * JWT签发时间精确到秒，与水位线同一秒签发的令牌也视为已吊销
+     */
+    private boolean isBeforeWatermark(VerifiedToken verifiedToken, Long userId) {
+        String watermark = stringRedisTemplate.opsForValue().get(USER_KEY_PREFIX + userId);
+        if (watermark == null) {
+            return false;
+        }
+        long watermarkSeconds = Long.parseLong(watermark) / 1000;
+        return verifiedToken.getIssuedAt() / 1000 <= watermarkSeconds;
+    }
+}
@@ -0,0 +1,28 @@
+package top.alexjtech.educationapi.service.user;
+
+import top.alexjtech.educationapi.vo.user.DeletedUserVO;
+
+import java.util.List;
+
+/**
+ * 已删除用户审计查询服务接口
+ * 逻辑删除的用户在保留期内仍在用户表中，超过保留期后由归档任务移入归档表，两处均可查询
+ */
+public interface UserArchiveService {
+
+    /**
+     * 按ID查询已删除用户
+     *
+     * @param id 用户ID
+     * @return 已删除用户，不存在或未删除时抛出 DATA_NOT_FOUND
+     */
+    DeletedUserVO getDeletedUser(Long id);
+
+    /**
+     * 按用户名、邮箱或手机号查询已删除用户
+     *
+     * @param identifier 登录标识
+     * @return 匹配的已删除用户（归档后同一标识可能被多个用户先后使用），尚未归档的在前
+     */
+    List<DeletedUserVO> findDeletedUsers(String identifier);
+}
@@ -0,0 +1,19 @@
+package top.alexjtech.educationapi.service.user;
+
+import top.alexjtech.educationapi.vo.UserInfoVO;
+
+import java.util.List;
+
+/**
+ * 批量查询用户服务接口
+ */
+public interface UserBatchService {
+
+    /**
+     * 批量获取用户展示信息（经两级缓存）
+     *
+     * @param ids 用户ID列表
+     * @return 按请求顺序排列的用户信息，重复的ID只返回一次，不存在的用户不返回
+     */
+    List<UserInfoVO> getUserInfos(List<Long> ids);
+}
@@ -0,0 +1,62 @@
+package top.alexjtech.educationapi.service.user;
+
+import top.alexjtech.educationapi.entity.User;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 用户缓存服务接口
+ * 进程内近端缓存 + Redis 两级读穿透缓存，缓存中的用户不包含密码、微信会话密钥等敏感字段
+ */
+public interface UserCacheService {
+
+    /**
+     * 根据用户ID获取用户（读穿透）
+     *
+     * @param id 用户ID
+     * @return 用户对象副本，不存在返回null
+     */
+    User getById(Long id);
+
+    /**
+     * 批量获取用户（读穿透）
+     * 近端缓存未命中的用户通过一次Redis MGET读取，仍未命中的用户通过一条IN查询回库并以管道写回Redis
+     *
+     * @param ids 用户ID，重复和null会被忽略
+     * @return 用户ID到用户对象副本的映射，不存在的用户不包含在内
+     */
+    Map<Long, User> getByIds(Collection<Long> ids);
+
+    /**
+     * 根据登录标识获取用户（读穿透）
+     * 支持用户名、邮箱、手机号
+     *
+     * @param identifier 用户名/邮箱/手机号
+     * @return 用户对象副本，不存在返回null
+     */
+    User getByIdentifier(String identifier);
+
+    /**
+     * 获取用户资料的缓存校验值
+     * 命中时不加载和反序列化用户对象，用于快速响应条件请求
+     *
+     * @param id 用户ID
+     * @return 校验值，用户不存在或没有更新时间时返回null
+     */
+    UserValidator getValidator(Long id);
+
+    /**
+     * 使指定用户的缓存失效，并广播到其他节点
+     *
+     * @param id 用户ID
+     */
+    void invalidate(Long id);
+
+    /**
+     * 使一批用户的缓存失效，Redis写入一次管道完成，其他节点只收到一条广播
+     *
+     * @param ids 用户ID
+     */
+    void invalidateAll(Collection<Long> ids);
+}
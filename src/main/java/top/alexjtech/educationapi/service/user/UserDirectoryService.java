@@ -0,0 +1,20 @@
+package top.alexjtech.educationapi.service.user;
+
+import top.alexjtech.educationapi.dto.user.UserDirectoryQueryDTO;
+import top.alexjtech.educationapi.vo.KeysetPageVO;
+import top.alexjtech.educationapi.vo.UserInfoVO;
+
+/**
+ * 用户目录服务接口
+ */
+public interface UserDirectoryService {
+
+    /**
+     * 按条件游标分页查询用户
+     * 只查询展示字段，不包含密码、微信会话密钥等敏感字段
+     *
+     * @param query 查询条件和游标
+     * @return 当前页用户及下一页游标
+     */
+    KeysetPageVO<UserInfoVO> listUsers(UserDirectoryQueryDTO query);
+}
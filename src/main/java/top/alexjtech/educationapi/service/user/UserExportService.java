@@ -0,0 +1,25 @@
+package top.alexjtech.educationapi.service.user;
+
+import top.alexjtech.educationapi.common.ExportFormat;
+import top.alexjtech.educationapi.dto.user.UserDirectoryQueryDTO;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 用户导出服务接口
+ */
+public interface UserExportService {
+
+    /**
+     * 按目录筛选条件导出用户，边读边写，不在内存中保留完整结果
+     * 只导出展示字段，不包含密码、微信会话密钥等敏感字段；游标和分页大小参数不参与导出
+     *
+     * @param filter 筛选条件（用户类型、状态、创建时间）
+     * @param format 导出格式
+     * @param out    输出流（通常为HTTP响应），由调用方关闭
+     * @return 导出的行数
+     * @throws IOException 写出失败（如客户端断开连接）
+     */
+    long exportUsers(UserDirectoryQueryDTO filter, ExportFormat format, OutputStream out) throws IOException;
+}
@@ -0,0 +1,46 @@
+package top.alexjtech.educationapi.service.user;
+
+import top.alexjtech.educationapi.vo.user.UserImportJobVO;
+import top.alexjtech.educationapi.vo.user.UserImportResultVO;
+
+import java.io.InputStream;
+
+/**
+ * 用户批量导入服务接口
+ */
+public interface UserImportService {
+
+    /**
+     * 流式导入学生/老师名单
+     * 逐行读取并校验，按批并行计算密码哈希后批量写入；单行失败不影响其他行
+     *
+     * @param inputStream     名单文件内容
+     * @param filename        文件名（按扩展名识别CSV/XLSX/XLS）
+     * @param defaultUserType 名单未填写用户类型时使用的类型（1：学生，2：老师）
+     * @param defaultPassword 名单未填写密码时使用的初始密码，可为null
+     * @return 导入结果
+     */
+    UserImportResultVO importUsers(InputStream inputStream, String filename,
+                                   Integer defaultUserType, String defaultPassword);
+
+    /**
+     * 提交后台导入任务
+     * 参数校验后将名单暂存为临时文件并立即返回任务，导入在后台执行，通过 {@link #getImportJob(String)} 查询进度和结果
+     *
+     * @param inputStream     名单文件内容
+     * @param filename        文件名（按扩展名识别CSV/XLSX/XLS）
+     * @param defaultUserType 名单未填写用户类型时使用的类型（1：学生，2：老师）
+     * @param defaultPassword 名单未填写密码时使用的初始密码，可为null
+     * @return 进行中的导入任务
+     */
+    UserImportJobVO submitImport(InputStream inputStream, String filename,
+                                 Integer defaultUserType, String defaultPassword);
+
+    /**
+     * 查询导入任务（任何节点提交的任务均可查询，结束后保留一段时间）
+     *
+     * @param jobId 任务ID
+     * @return 导入任务
+     */
+    UserImportJobVO getImportJob(String jobId);
+}
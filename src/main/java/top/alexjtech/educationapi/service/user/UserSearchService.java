@@ -0,0 +1,20 @@
+package top.alexjtech.educationapi.service.user;
+
+import top.alexjtech.educationapi.vo.user.UserSearchResultVO;
+
+/**
+ * 用户搜索服务接口
+ */
+public interface UserSearchService {
+
+    /**
+     * 按用户名、姓名、昵称或手机号片段搜索用户，容忍少量错字，按匹配程度排序
+     *
+     * @param keyword  关键字
+     * @param userType 用户类型，null表示不限
+     * @param page     页码（从1开始）
+     * @param size     每页条数
+     * @return 搜索结果
+     */
+    UserSearchResultVO search(String keyword, Integer userType, int page, int size);
+}
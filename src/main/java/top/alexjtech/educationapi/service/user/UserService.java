@@ -6,15 +6,13 @@ import top.alexjtech.educationapi.dto.auth.LoginDTO;
 import top.alexjtech.educationapi.entity.User;
 import top.alexjtech.educationapi.vo.auth.TokenVO;
 
-import java.util.List;
-
 /**
  * 用户服务接口
  */
 public interface UserService {
 
     /**
-     * 根据用户名查询用户
+     * 根据用户名查询用户（读缓存，不含密码等敏感字段）
      * 支持用户名、邮箱、手机号登录
      *
      * @param username 用户名/邮箱/手机号
@@ -23,7 +21,7 @@ public interface UserService {
     User getUserByUsername(String username);
 
     /**
-     * 根据用户ID查询用户
+     * 根据用户ID查询用户（读缓存，不含密码等敏感字段）
      *
      * @param id 用户ID
      * @return 用户对象
@@ -31,11 +29,20 @@ public interface UserService {
     User getUserById(Long id);
 
     /**
-     * 查询所有用户
+     * 根据用户ID查询包含密码的用户（直接读库，用于密码校验）
+     *
+     * @param id 用户ID
+     * @return 仅包含ID、用户名、密码哈希、状态、用户类型和版本号的用户对象
+     */
+    User getUserWithPassword(Long id);
+
+    /**
+     * 获取用户资料的缓存校验值（ETag/Last-Modified）
      *
-     * @return 用户列表
+     * @param id 用户ID
+     * @return 校验值，不支持条件请求时返回null
      */
-    List<User> getAllUsers();
+    UserValidator getUserValidator(Long id);
 
     /**
      * 用户登录
@@ -55,6 +62,7 @@ public interface UserService {
 
     /**
      * 更新用户最后登录信息
+     * 写入内存缓冲区后立即返回，由后台批量写入数据库
      *
      * @param userId  用户ID
      * @param loginIp 登录IP
@@ -63,6 +71,8 @@ public interface UserService {
 
     /**
      * 根据ID更新用户信息
+     * 只更新非空字段；带版本号时按乐观锁更新，版本不一致抛出409业务异常，
+     * 邮箱、手机号等违反唯一索引时抛出400业务异常
      *
      * @param user 用户对象
      * @return 是否更新成功
@@ -87,6 +97,22 @@ public interface UserService {
      */
     boolean isPhoneExists(String phone, Long excludeUserId);
 
+    /**
+     * 检查邮箱格式是否有效
+     *
+     * @param email 邮箱地址
+     * @return 是否有效
+     */
+    boolean isValidEmail(String email);
+
+    /**
+     * 检查手机号格式是否有效
+     *
+     * @param phone 手机号
+     * @return 是否有效
+     */
+    boolean isValidPhone(String phone);
+
     /**
      * 获取密码编码器
      * 
@@ -0,0 +1,44 @@
+package top.alexjtech.educationapi.service.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import top.alexjtech.educationapi.entity.User;
+
+import java.time.ZoneId;
+
+/**
+ * 用户资料的HTTP缓存校验值（ETag和Last-Modified）
+ * 由用户ID、乐观锁版本号和更新时间生成：update_time只精确到秒，同一秒内的两次资料修改靠version区分；
+ * 不递增version的更新（如最后登录信息）仍会刷新update_time
+ */
+@Getter
+@AllArgsConstructor
+public final class UserValidator {
+
+    // 响应格式变化时递增，使客户端已缓存的旧格式失效
+    private static final String FORMAT_VERSION = "v2";
+
+    /**
+     * 强ETag（含双引号）
+     */
+    private final String etag;
+
+    /**
+     * 最后修改时间（毫秒）
+     */
+    private final long lastModified;
+
+    /**
+     * 根据用户生成校验值，更新时间为空时返回null（不支持条件请求）
+     */
+    public static UserValidator of(User user) {
+        if (user == null || user.getId() == null || user.getUpdateTime() == null) {
+            return null;
+        }
+        long lastModified = user.getUpdateTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        int version = user.getVersion() == null ? 0 : user.getVersion();
+        String etag = "\"" + FORMAT_VERSION + "-" + Long.toHexString(user.getId())
+                + "-" + Integer.toHexString(version) + "-" + Long.toHexString(lastModified) + "\"";
+        return new UserValidator(etag, lastModified);
+    }
+}
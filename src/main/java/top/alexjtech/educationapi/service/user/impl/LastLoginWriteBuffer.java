@@ -0,0 +1,141 @@
+package top.alexjtech.educationapi.service.user.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import top.alexjtech.educationapi.dto.user.LastLoginDTO;
+import top.alexjtech.educationapi.mapper.UserMapper;
+import top.alexjtech.educationapi.service.user.UserCacheService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 最后登录信息写回缓冲区
+ * 登录时只在内存中按用户合并记录，由定时任务或数量阈值触发，以多行批量UPDATE写入数据库；应用关闭前会写出剩余记录
+ * 每批写入成功后批量失效这些用户的缓存（一条广播），用户资料中的最后登录时间和基于更新时间的校验值随之更新
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LastLoginWriteBuffer {
+
+    private final UserMapper userMapper;
+    private final UserCacheService userCacheService;
+    private final MeterRegistry meterRegistry;
+
+    // 同一用户在一个刷新周期内多次登录只保留最后一次
+    private final ConcurrentHashMap<Long, LastLoginDTO> pending = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    // 使用ReentrantLock而不是synchronized，虚拟线程在等待数据库时不会钉住载体线程
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // 达到阈值时立即触发异步刷新
+    @Value("${app.last-login.flush-threshold:500}")
+    private int flushThreshold;
+
+    // 单条UPDATE语句包含的最大行数
+    @Value("${app.last-login.batch-size:500}")
+    private int batchSize;
+
+    private ExecutorService flushExecutor;
+
+    private Counter flushedCounter;
+    private Counter batchCounter;
+
+    @PostConstruct
+    void init() {
+        flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "last-login-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("user.last-login.pending", pending, ConcurrentHashMap::size)
+                .description("等待写入的最后登录记录数")
+                .register(meterRegistry);
+        flushedCounter = meterRegistry.counter("user.last-login.flushed");
+        batchCounter = meterRegistry.counter("user.last-login.batches");
+    }
+
+    /**
+     * 记录一次登录
+     *
+     * @param userId  用户ID
+     * @param loginIp 登录IP（可为null）
+     */
+    public void record(Long userId, String loginIp) {
+        pending.put(userId, new LastLoginDTO(userId, LocalDateTime.now(), loginIp));
+        if (pending.size() >= flushThreshold && flushScheduled.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushScheduled.set(false);
+                flush();
+            });
+        }
+    }
+
+    /**
+     * 定时写出缓冲区中的登录记录
+     */
+    @Scheduled(fixedDelayString = "${app.last-login.flush-interval:5000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<LastLoginDTO> batch = new ArrayList<>(Math.min(batchSize, Math.max(pending.size(), 1)));
+            Iterator<Long> iterator = pending.keySet().iterator();
+            while (iterator.hasNext()) {
+                LastLoginDTO record = pending.remove(iterator.next());
+                if (record == null) {
+                    continue;
+                }
+                batch.add(record);
+                if (batch.size() >= batchSize) {
+                    write(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flushExecutor.shutdown();
+        flush();
+    }
+
+    private void write(List<LastLoginDTO> batch) {
+        try {
+            userMapper.batchUpdateLastLoginInfo(batch);
+            flushedCounter.increment(batch.size());
+            batchCounter.increment();
+        } catch (RuntimeException e) {
+            log.error("批量写入最后登录信息失败，{} 条记录将在下次刷新时重试", batch.size(), e);
+            // 重新放回缓冲区，但不覆盖期间产生的更新记录
+            for (LastLoginDTO record : batch) {
+                pending.putIfAbsent(record.getUserId(), record);
+            }
+            return;
+        }
+        userCacheService.invalidateAll(batch.stream().map(LastLoginDTO::getUserId).toList());
+    }
+}
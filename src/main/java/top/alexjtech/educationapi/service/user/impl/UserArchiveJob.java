@@ -0,0 +1,206 @@
+package top.alexjtech.educationapi.service.user.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import top.alexjtech.educationapi.mapper.UserArchiveMapper;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 已删除用户归档任务
+ * 逻辑删除超过保留期的用户移入归档表，使用户表及其索引的大小与有效用户数成正比
+ * 保留期按删除时间（deleted_time，由 UserMapper.logicDeleteById 写入）计算；
+ * 通过其他途径删除、没有删除时间的用户在每次执行开始时补写为当前时间，从补写时开始计算保留期
+ * 每批在独立的短事务中执行：按删除时间加锁读取一批用户 → 复制到归档表 → 从用户表删除，
+ * 复制和删除的行数不一致时回滚并中止本次归档；批次之间暂停，数据库繁忙（单批耗时变长）时自动放慢
+ * 多节点部署时通过Redis锁保证同一时间只有一个节点执行
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.user-archive", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class UserArchiveJob {
+
+    static final String LOCK_KEY = "user:archive:lock";
+
+    // 锁的有效期比最长执行时间多留的余量，节点崩溃时锁到期自动释放
+    private static final Duration LOCK_MARGIN = Duration.ofMinutes(5);
+
+    // 只释放自己持有的锁
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final UserArchiveMapper userArchiveMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    // 删除后保留在用户表中的时间
+    @Value("${app.user-archive.retention:90d}")
+    private Duration retention;
+
+    // 每个事务归档的用户数
+    @Value("${app.user-archive.batch-size:500}")
+    private int batchSize;
+
+    // 批次之间的最短暂停时间
+    @Value("${app.user-archive.batch-pause:200ms}")
+    private Duration batchPause;
+
+    // 暂停时间不少于上一批耗时的倍数
+    @Value("${app.user-archive.pause-ratio:1.0}")
+    private double pauseRatio;
+
+    // 单次执行的最长时间，超出后剩余用户留到下次
+    @Value("${app.user-archive.max-run-time:30m}")
+    private Duration maxRunTime;
+
+    private TransactionTemplate transaction;
+
+    private Counter archivedCounter;
+    private Counter failureCounter;
+    private Timer batchTimer;
+
+    @PostConstruct
+    void init() {
+        transaction = new TransactionTemplate(transactionManager);
+        archivedCounter = meterRegistry.counter("user.archive.archived");
+        failureCounter = meterRegistry.counter("user.archive.failures");
+        batchTimer = Timer.builder("user.archive.batch")
+                .description("单批归档事务耗时")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 定时归档（默认每天凌晨执行）
+     */
+    @Scheduled(cron = "${app.user-archive.cron:0 30 3 * * *}")
+    public void archive() {
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = stringRedisTemplate.opsForValue().setIfAbsent(LOCK_KEY, token, maxRunTime.plus(LOCK_MARGIN));
+            if (!Boolean.TRUE.equals(acquired)) {
+                log.info("其他节点正在归档已删除用户，本节点跳过");
+                return;
+            }
+        } catch (RuntimeException e) {
+            log.warn("获取归档锁失败，跳过本次归档: {}", e.getMessage());
+            return;
+        }
+        try {
+            archiveExpired();
+        } finally {
+            try {
+                stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(LOCK_KEY), token);
+            } catch (RuntimeException e) {
+                log.warn("释放归档锁失败，锁将在到期后自动释放: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 分批归档删除时间早于保留期的用户
+     *
+     * @return 本次归档的用户数
+     */
+    int archiveExpired() {
+        stampMissingDeletedTime();
+        LocalDateTime deletedBefore = LocalDateTime.now().minus(retention);
+        long deadline = System.nanoTime() + maxRunTime.toNanos();
+        int total = 0;
+        int batches = 0;
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            Integer archived;
+            try {
+                archived = transaction.execute(status -> archiveBatch(deletedBefore));
+            } catch (RuntimeException e) {
+                failureCounter.increment();
+                log.error("归档已删除用户失败，本次归档中止，已归档 {} 个用户", total, e);
+                break;
+            }
+            long elapsed = System.nanoTime() - start;
+            batchTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            batches++;
+            total += archived;
+            archivedCounter.increment(archived);
+            if (archived < batchSize || !pause(elapsed)) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("已归档 {} 个删除时间早于 {} 的用户，共 {} 批", total, deletedBefore, batches);
+        }
+        return total;
+    }
+
+    /**
+     * 分批补写缺失的删除时间，失败时只记录日志，不影响本次归档
+     */
+    private void stampMissingDeletedTime() {
+        int total = 0;
+        try {
+            int stamped;
+            do {
+                stamped = userArchiveMapper.stampMissingDeletedTime(batchSize);
+                total += stamped;
+            } while (stamped >= batchSize);
+        } catch (RuntimeException e) {
+            failureCounter.increment();
+            log.error("补写已删除用户的删除时间失败，已补写 {} 个用户", total, e);
+        }
+        if (total > 0) {
+            log.warn("{} 个已删除用户没有删除时间（未通过 UserMapper.logicDeleteById 删除），已补写为当前时间", total);
+        }
+    }
+
+    /**
+     * 在当前事务中归档一批用户
+     */
+    private int archiveBatch(LocalDateTime deletedBefore) {
+        List<Long> ids = userArchiveMapper.lockExpiredIds(deletedBefore, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int copied = userArchiveMapper.copyToArchive(ids);
+        int deleted = userArchiveMapper.deleteArchived(ids);
+        if (copied != ids.size() || deleted != ids.size()) {
+            throw new IllegalStateException("归档行数不一致：锁定 " + ids.size() + "，复制 " + copied + "，删除 " + deleted);
+        }
+        return deleted;
+    }
+
+    /**
+     * 批次间暂停，给其他事务和只读副本的复制让出资源
+     *
+     * @return 被中断（应用关闭）时返回false
+     */
+    private boolean pause(long lastBatchNanos) {
+        long pauseNanos = Math.max(batchPause.toNanos(), (long) (lastBatchNanos * pauseRatio));
+        try {
+            TimeUnit.NANOSECONDS.sleep(pauseNanos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
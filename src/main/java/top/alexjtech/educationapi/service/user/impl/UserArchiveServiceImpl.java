@@ -0,0 +1,60 @@
+package top.alexjtech.educationapi.service.user.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import top.alexjtech.educationapi.common.LoginIdentifierType;
+import top.alexjtech.educationapi.common.ResponseCode;
+import top.alexjtech.educationapi.common.UserType;
+import top.alexjtech.educationapi.exception.BusinessException;
+import top.alexjtech.educationapi.mapper.UserArchiveMapper;
+import top.alexjtech.educationapi.service.user.UserArchiveService;
+import top.alexjtech.educationapi.vo.user.DeletedUserVO;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 已删除用户审计查询服务实现类
+ * 先查用户表中尚未归档的已删除用户，再查归档表，两处都按主键或单列索引查询；
+ * 归档任务在同一事务中复制并删除，按此顺序查询不会因归档同时进行而漏查（可能两处都查到，按ID去重）
+ */
+@Service
+@RequiredArgsConstructor
+public class UserArchiveServiceImpl implements UserArchiveService {
+
+    private final UserArchiveMapper userArchiveMapper;
+
+    @Override
+    public DeletedUserVO getDeletedUser(Long id) {
+        DeletedUserVO user = userArchiveMapper.selectDeletedById(id);
+        if (user == null) {
+            user = userArchiveMapper.selectArchivedById(id);
+        }
+        if (user == null) {
+            throw new BusinessException(ResponseCode.DATA_NOT_FOUND, "已删除用户不存在");
+        }
+        fillUserTypeDesc(user);
+        return user;
+    }
+
+    @Override
+    public List<DeletedUserVO> findDeletedUsers(String identifier) {
+        String type = LoginIdentifierType.classify(identifier).name();
+        Map<Long, DeletedUserVO> users = new LinkedHashMap<>();
+        for (DeletedUserVO user : userArchiveMapper.selectDeletedByIdentifier(type, identifier)) {
+            users.put(user.getId(), user);
+        }
+        for (DeletedUserVO user : userArchiveMapper.selectArchivedByIdentifier(type, identifier)) {
+            users.putIfAbsent(user.getId(), user);
+        }
+        users.values().forEach(this::fillUserTypeDesc);
+        return new ArrayList<>(users.values());
+    }
+
+    private void fillUserTypeDesc(DeletedUserVO user) {
+        UserType userType = UserType.getByCode(user.getUserType());
+        user.setUserTypeDesc(userType != null ? userType.getDescription() : null);
+    }
+}
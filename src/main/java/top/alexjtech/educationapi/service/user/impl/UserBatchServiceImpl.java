@@ -0,0 +1,74 @@
+package top.alexjtech.educationapi.service.user.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import top.alexjtech.educationapi.common.ResponseCode;
+import top.alexjtech.educationapi.common.UserType;
+import top.alexjtech.educationapi.entity.User;
+import top.alexjtech.educationapi.exception.BusinessException;
+import top.alexjtech.educationapi.service.user.UserBatchService;
+import top.alexjtech.educationapi.service.user.UserCacheService;
+import top.alexjtech.educationapi.vo.UserInfoVO;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 批量查询用户服务实现类
+ * 一次读取近端缓存，未命中的用户合并为一次Redis MGET和一条IN查询，替代逐个用户调用接口
+ */
+@Service
+@RequiredArgsConstructor
+public class UserBatchServiceImpl implements UserBatchService {
+
+    private final UserCacheService userCacheService;
+
+    // 单次最多查询的用户数
+    @Value("${app.user-batch.max-size:200}")
+    private int maxSize;
+
+    @Override
+    public List<UserInfoVO> getUserInfos(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new BusinessException(ResponseCode.BAD_REQUEST, "用户ID不能为空");
+        }
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        distinct.remove(null);
+        if (distinct.size() > maxSize) {
+            throw new BusinessException(ResponseCode.BAD_REQUEST, "单次最多查询" + maxSize + "个用户");
+        }
+
+        Map<Long, User> users = userCacheService.getByIds(distinct);
+        List<UserInfoVO> records = new ArrayList<>(users.size());
+        for (Long id : distinct) {
+            User user = users.get(id);
+            if (user != null) {
+                records.add(toInfo(user));
+            }
+        }
+        return records;
+    }
+
+    private static UserInfoVO toInfo(User user) {
+        UserInfoVO info = new UserInfoVO();
+        info.setId(user.getId());
+        info.setUsername(user.getUsername());
+        info.setEmail(user.getEmail());
+        info.setPhone(user.getPhone());
+        info.setUserType(user.getUserType());
+        UserType type = UserType.getByCode(user.getUserType());
+        info.setUserTypeDesc(type != null ? type.getDescription() : null);
+        info.setRealName(user.getRealName());
+        info.setNickname(user.getNickname());
+        info.setAvatarUrl(user.getAvatarUrl());
+        info.setGender(user.getGender());
+        info.setStatus(user.getStatus());
+        info.setLastLoginTime(user.getLastLoginTime());
+        info.setCreateTime(user.getCreateTime());
+        return info;
+    }
+}
@@ -0,0 +1,502 @@
+package top.alexjtech.educationapi.service.user.impl;
+
+import com.alibaba.fastjson2.JSONB;
+import com.alibaba.fastjson2.JSONReader;
+import com.alibaba.fastjson2.JSONWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Service;
+import top.alexjtech.educationapi.entity.User;
+import top.alexjtech.educationapi.mapper.UserMapper;
+import top.alexjtech.educationapi.service.user.UserCacheService;
+import top.alexjtech.educationapi.service.user.UserValidator;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * 用户缓存服务实现类
+ * 读取顺序：进程内近端缓存 -> Redis -> MySQL；更新后删除本节点和Redis中的缓存，并通过Redis发布订阅通知其他节点
+ * 回填防护：失效时Redis中的缓存替换为短期的失效标记，回库结果只在键不存在时写入（SET NX），
+ * 失效前读到旧数据、失效后才回填的请求写入失败，也不写入近端缓存，避免旧数据在缓存中保留整个有效期
+ * 缓存值使用fastjson2 JSONB紧凑序列化，带@JsonIgnore的密码和会话密钥不会写入缓存
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserCacheServiceImpl implements UserCacheService, MessageListener {
+
+    /**
+     * 缓存失效广播频道
+     */
+    public static final String INVALIDATION_CHANNEL = "user:cache:invalidate";
+
+    private static final String ID_KEY_PREFIX = "user:cache:id:";
+    private static final String IDENTIFIER_KEY_PREFIX = "user:cache:ident:";
+
+    // 失效标记：空值，读取时视为未命中
+    private static final byte[] TOMBSTONE = new byte[0];
+
+    private final UserMapper userMapper;
+    private final RedisTemplate<String, byte[]> bytesRedisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final UserIdentifierFilter userIdentifierFilter;
+
+    // 当前节点标识，用于忽略自己发出的失效消息
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${app.cache.user.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cache.user.near-max-size:10000}")
+    private long nearMaxSize;
+
+    // 近端缓存有效期，也是失效消息丢失时的最大陈旧时间
+    @Value("${app.cache.user.near-ttl:60s}")
+    private Duration nearTtl;
+
+    @Value("${app.cache.user.redis-ttl:30m}")
+    private Duration redisTtl;
+
+    // 失效后禁止回填的时间，需大于一次回库查询的耗时
+    @Value("${app.cache.user.invalidation-fence:5s}")
+    private Duration invalidationFence;
+
+    private Cache<Long, byte[]> nearCache;
+    private Cache<String, Long> identifierCache;
+    private Cache<Long, UserValidator> validatorCache;
+    // 本节点最近失效的用户，Redis不可用时用于判断能否回填近端缓存
+    private Cache<Long, Boolean> fenceCache;
+
+    private Counter redisHitCounter;
+    private Counter redisMissCounter;
+    private Counter redisErrorCounter;
+    private Counter invalidationCounter;
+    private DistributionSummary batchSizeSummary;
+    private DistributionSummary batchHitRatioSummary;
+
+    @PostConstruct
+    void init() {
+        nearCache = Caffeine.newBuilder()
+                .maximumSize(nearMaxSize)
+                .expireAfterWrite(nearTtl)
+                .recordStats()
+                .build();
+        identifierCache = Caffeine.newBuilder()
+                .maximumSize(nearMaxSize)
+                .expireAfterWrite(nearTtl)
+                .recordStats()
+                .build();
+
+        validatorCache = Caffeine.newBuilder()
+                .maximumSize(nearMaxSize)
+                .expireAfterWrite(nearTtl)
+                .recordStats()
+                .build();
+
+        fenceCache = Caffeine.newBuilder()
+                .maximumSize(nearMaxSize)
+                .expireAfterWrite(invalidationFence)
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, nearCache, "user.near");
+        CaffeineCacheMetrics.monitor(meterRegistry, validatorCache, "user.validator");
+        CaffeineCacheMetrics.monitor(meterRegistry, identifierCache, "user.identifier.near");
+        redisHitCounter = meterRegistry.counter("user.cache.redis", "result", "hit");
+        redisMissCounter = meterRegistry.counter("user.cache.redis", "result", "miss");
+        redisErrorCounter = meterRegistry.counter("user.cache.redis", "result", "error");
+        invalidationCounter = meterRegistry.counter("user.cache.invalidations");
+        batchSizeSummary = DistributionSummary.builder("user.cache.batch.size")
+                .description("批量读取的用户数（去重后）")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(1000.0)
+                .register(meterRegistry);
+        batchHitRatioSummary = DistributionSummary.builder("user.cache.batch.hit.ratio")
+                .description("批量读取中由近端缓存或Redis命中的比例")
+                .baseUnit("percent")
+                .serviceLevelObjectives(25, 50, 75, 90, 99, 100)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public User getById(Long id) {
+        if (id == null) {
+            return null;
+        }
+        if (!enabled) {
+            User user = userMapper.selectProfileById(id);
+            return user != null ? decode(encode(user)) : null;
+        }
+
+        byte[] bytes = nearCache.getIfPresent(id);
+        if (bytes == null) {
+            bytes = redisGet(ID_KEY_PREFIX + id);
+            if (bytes != null) {
+                nearCache.put(id, bytes);
+            } else {
+                User user = userMapper.selectProfileById(id);
+                if (user == null) {
+                    return null;
+                }
+                bytes = store(user);
+            }
+        }
+        return decode(bytes);
+    }
+
+    @Override
+    public Map<Long, User> getByIds(Collection<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+        Map<Long, User> users = new HashMap<>(requested.size() * 2);
+        if (requested.isEmpty()) {
+            return users;
+        }
+        if (!enabled) {
+            for (User user : userMapper.selectProfileByIds(requested)) {
+                users.put(user.getId(), decode(encode(user)));
+            }
+            return users;
+        }
+
+        Map<Long, byte[]> near = nearCache.getAllPresent(requested);
+        near.forEach((id, bytes) -> users.put(id, decode(bytes)));
+        List<Long> misses = new ArrayList<>(requested.size() - near.size());
+        for (Long id : requested) {
+            if (!near.containsKey(id)) {
+                misses.add(id);
+            }
+        }
+
+        // 近端缓存未命中的用户一次MGET读取
+        if (!misses.isEmpty()) {
+            List<byte[]> values = redisMultiGet(misses);
+            List<Long> dbMisses = new ArrayList<>();
+            for (int i = 0; i < misses.size(); i++) {
+                byte[] bytes = values != null ? values.get(i) : null;
+                if (bytes != null) {
+                    nearCache.put(misses.get(i), bytes);
+                    users.put(misses.get(i), decode(bytes));
+                } else {
+                    dbMisses.add(misses.get(i));
+                }
+            }
+            // 仍未命中的用户一条IN查询回库，管道写回Redis
+            if (!dbMisses.isEmpty()) {
+                Map<Long, byte[]> loaded = new HashMap<>(dbMisses.size() * 2);
+                for (User user : userMapper.selectProfileByIds(dbMisses)) {
+                    byte[] bytes = encode(user);
+                    loaded.put(user.getId(), bytes);
+                    users.put(user.getId(), decode(bytes));
+                }
+                storeAll(loaded);
+            }
+            misses = dbMisses;
+        }
+
+        batchSizeSummary.record(requested.size());
+        batchHitRatioSummary.record(100.0 * (requested.size() - misses.size()) / requested.size());
+        return users;
+    }
+
+    @Override
+    public User getByIdentifier(String identifier) {
+        if (identifier == null) {
+            return null;
+        }
+        if (!enabled) {
+            User user = userMapper.selectByLoginIdentifier(identifier);
+            return user != null ? decode(encode(user)) : null;
+        }
+
+        Long id = identifierCache.getIfPresent(identifier);
+        if (id == null) {
+            id = redisGetId(IDENTIFIER_KEY_PREFIX + identifier);
+        }
+        if (id != null) {
+            User user = getById(id);
+            // 用户名、邮箱或手机号可能已被修改，映射失配时回库重新解析
+            if (user != null && matchesIdentifier(user, identifier)) {
+                identifierCache.put(identifier, id);
+                return user;
+            }
+            identifierCache.invalidate(identifier);
+        }
+
+        // 过滤器判定一定不存在时不再查库
+        if (!userIdentifierFilter.mightExist(identifier)) {
+            return null;
+        }
+        User user = userMapper.selectByLoginIdentifier(identifier);
+        if (user == null) {
+            userIdentifierFilter.recordFalsePositive();
+            return null;
+        }
+        byte[] bytes = store(user);
+        identifierCache.put(identifier, user.getId());
+        redisSet(IDENTIFIER_KEY_PREFIX + identifier, String.valueOf(user.getId()).getBytes(StandardCharsets.UTF_8));
+        return decode(bytes);
+    }
+
+    @Override
+    public UserValidator getValidator(Long id) {
+        if (id == null) {
+            return null;
+        }
+        if (!enabled) {
+            return UserValidator.of(getById(id));
+        }
+
+        UserValidator validator = validatorCache.getIfPresent(id);
+        if (validator == null) {
+            validator = UserValidator.of(getById(id));
+            if (validator != null && fenceCache.getIfPresent(id) == null) {
+                validatorCache.put(id, validator);
+            }
+        }
+        return validator;
+    }
+
+    @Override
+    public void invalidate(Long id) {
+        if (id == null) {
+            return;
+        }
+        invalidationCounter.increment();
+        invalidateLocal(id);
+        if (!enabled) {
+            return;
+        }
+        try {
+            // 用失效标记覆盖缓存而不是删除，阻止失效前开始的回库请求写回旧数据
+            bytesRedisTemplate.opsForValue().set(ID_KEY_PREFIX + id, TOMBSTONE, invalidationFence);
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, nodeId + ":" + id);
+        } catch (RuntimeException e) {
+            redisErrorCounter.increment();
+            log.warn("用户缓存失效广播失败, userId={}: {}", id, e.getMessage());
+        }
+    }
+
+    @Override
+    public void invalidateAll(Collection<Long> ids) {
+        List<Long> userIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (userIds.isEmpty()) {
+            return;
+        }
+        invalidationCounter.increment(userIds.size());
+        userIds.forEach(this::invalidateLocal);
+        if (!enabled) {
+            return;
+        }
+        Expiration expiration = Expiration.from(invalidationFence);
+        try {
+            bytesRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Long id : userIds) {
+                    connection.stringCommands().set((ID_KEY_PREFIX + id).getBytes(StandardCharsets.UTF_8),
+                            TOMBSTONE, expiration, RedisStringCommands.SetOption.upsert());
+                }
+                return null;
+            });
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, nodeId + ":"
+                    + userIds.stream().map(String::valueOf).collect(Collectors.joining(",")));
+        } catch (RuntimeException e) {
+            redisErrorCounter.increment();
+            log.warn("批量用户缓存失效广播失败, size={}: {}", userIds.size(), e.getMessage());
+        }
+    }
+
+    private void invalidateLocal(Long id) {
+        fenceCache.put(id, Boolean.TRUE);
+        nearCache.invalidate(id);
+        validatorCache.invalidate(id);
+    }
+
+    /**
+     * 接收其他节点广播的失效消息，消息格式：节点标识:用户ID[,用户ID...]
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(':');
+        if (separator < 0 || body.substring(0, separator).equals(nodeId)) {
+            return;
+        }
+        for (String id : body.substring(separator + 1).split(",")) {
+            try {
+                invalidateLocal(Long.valueOf(id.trim()));
+            } catch (NumberFormatException e) {
+                log.warn("忽略无法解析的用户缓存失效消息: {}", body);
+            }
+        }
+    }
+
+    /**
+     * 回填Redis和近端缓存，返回序列化后的字节
+     * Redis中已有值或失效标记时不覆盖，此时本次读到的数据可能已过期，也不写入近端缓存
+     */
+    private byte[] store(User user) {
+        byte[] bytes = encode(user);
+        if (canFillNear(user.getId(), redisSetIfAbsent(ID_KEY_PREFIX + user.getId(), bytes))) {
+            nearCache.put(user.getId(), bytes);
+        }
+        return bytes;
+    }
+
+    /**
+     * 批量回填，规则同 {@link #store(User)}；Redis写入一次管道完成
+     */
+    private void storeAll(Map<Long, byte[]> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(values.keySet());
+        List<Object> results = redisSetAllIfAbsent(ids, values);
+        for (int i = 0; i < ids.size(); i++) {
+            Boolean stored = results != null && i < results.size() && results.get(i) instanceof Boolean b ? b : null;
+            if (canFillNear(ids.get(i), stored)) {
+                nearCache.put(ids.get(i), values.get(ids.get(i)));
+            }
+        }
+    }
+
+    /**
+     * Redis写入成功时可以写入近端缓存；Redis不可用（stored为null）时按本节点的失效记录判断
+     */
+    private boolean canFillNear(Long id, Boolean stored) {
+        return stored != null ? stored : fenceCache.getIfPresent(id) == null;
+    }
+
+    private byte[] redisGet(String key) {
+        try {
+            byte[] bytes = bytesRedisTemplate.opsForValue().get(key);
+            if (bytes == null || bytes.length == 0) {
+                redisMissCounter.increment();
+                return null;
+            }
+            redisHitCounter.increment();
+            return bytes;
+        } catch (RuntimeException e) {
+            redisErrorCounter.increment();
+            log.warn("读取Redis用户缓存失败, key={}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private List<byte[]> redisMultiGet(List<Long> ids) {
+        List<String> keys = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            keys.add(ID_KEY_PREFIX + id);
+        }
+        try {
+            List<byte[]> values = bytesRedisTemplate.opsForValue().multiGet(keys);
+            if (values == null) {
+                return null;
+            }
+            List<byte[]> result = new ArrayList<>(values.size());
+            for (byte[] value : values) {
+                // 失效标记视为未命中
+                result.add(value != null && value.length > 0 ? value : null);
+            }
+            long hits = result.stream().filter(Objects::nonNull).count();
+            redisHitCounter.increment(hits);
+            redisMissCounter.increment(result.size() - hits);
+            return result;
+        } catch (RuntimeException e) {
+            redisErrorCounter.increment();
+            log.warn("批量读取Redis用户缓存失败, size={}: {}", keys.size(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 管道批量SET NX，返回与ids顺序一致的写入结果，失败返回null
+     */
+    private List<Object> redisSetAllIfAbsent(List<Long> ids, Map<Long, byte[]> values) {
+        Expiration expiration = Expiration.from(redisTtl);
+        try {
+            return bytesRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Long id : ids) {
+                    connection.stringCommands().set((ID_KEY_PREFIX + id).getBytes(StandardCharsets.UTF_8),
+                            values.get(id), expiration, RedisStringCommands.SetOption.ifAbsent());
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            redisErrorCounter.increment();
+            log.warn("批量写入Redis用户缓存失败, size={}: {}", values.size(), e.getMessage());
+            return null;
+        }
+    }
+
+    private Boolean redisSetIfAbsent(String key, byte[] value) {
+        try {
+            return Boolean.TRUE.equals(bytesRedisTemplate.opsForValue().setIfAbsent(key, value, redisTtl));
+        } catch (RuntimeException e) {
+            redisErrorCounter.increment();
+            log.warn("写入Redis用户缓存失败, key={}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private Long redisGetId(String key) {
+        byte[] bytes = redisGet(key);
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(new String(bytes, StandardCharsets.UTF_8));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void redisSet(String key, byte[] value) {
+        try {
+            bytesRedisTemplate.opsForValue().set(key, value, redisTtl);
+        } catch (RuntimeException e) {
+            redisErrorCounter.increment();
+            log.warn("写入Redis用户缓存失败, key={}: {}", key, e.getMessage());
+        }
+    }
+
+    private static boolean matchesIdentifier(User user, String identifier) {
+        return identifier.equals(user.getUsername())
+                || identifier.equals(user.getEmail())
+                || identifier.equals(user.getPhone());
+    }
+
+    private static byte[] encode(User user) {
+        return JSONB.toBytes(user, JSONWriter.Feature.FieldBased);
+    }
+
+    private static User decode(byte[] bytes) {
+        return JSONB.parseObject(bytes, User.class, JSONReader.Feature.FieldBased);
+    }
+}
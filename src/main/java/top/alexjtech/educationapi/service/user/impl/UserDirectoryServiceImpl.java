@@ -0,0 +1,128 @@
+package top.alexjtech.educationapi.service.user.impl;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import top.alexjtech.educationapi.common.UserType;
+import top.alexjtech.educationapi.dto.user.UserDirectoryQueryDTO;
+import top.alexjtech.educationapi.mapper.UserMapper;
+import top.alexjtech.educationapi.service.user.UserDirectoryService;
+import top.alexjtech.educationapi.vo.KeysetPageVO;
+import top.alexjtech.educationapi.vo.UserInfoVO;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 用户目录服务实现类
+ * 按主键游标分页（WHERE id > ? ORDER BY id LIMIT n），每页多取一行判断是否还有下一页；
+ * 按用户类型筛选时走 idx_user_type（二级索引隐含主键，即 (user_type, id) 有序），不需要排序和跳过前面的行
+ * 总数按筛选条件缓存，到期后后台刷新，翻页请求不再执行COUNT；新的筛选条件首次查询时在后台统计，
+ * 统计完成前总数返回null，请求不等待全表或大范围的COUNT
+ * 分页查询和统计均在只读事务中执行，开启读写分离时由只读副本承担
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserDirectoryServiceImpl implements UserDirectoryService {
+
+    private final UserMapper userMapper;
+    private final MeterRegistry meterRegistry;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.user-directory.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${app.user-directory.max-page-size:100}")
+    private int maxPageSize;
+
+    // 总数缓存刷新间隔，超过后首次访问仍返回旧值并在后台重新统计
+    @Value("${app.user-directory.count-refresh:5m}")
+    private Duration countRefresh;
+
+    // 总数缓存最长保留时间
+    @Value("${app.user-directory.count-ttl:1h}")
+    private Duration countTtl;
+
+    @Value("${app.user-directory.count-cache-max-size:1000}")
+    private int countCacheMaxSize;
+
+    private AsyncLoadingCache<DirectoryFilter, Long> countCache;
+
+    // 总数在后台线程刷新时不在请求的事务中，单独开启只读事务
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        countCache = Caffeine.newBuilder()
+                .maximumSize(countCacheMaxSize)
+                .refreshAfterWrite(countRefresh)
+                .expireAfterWrite(countTtl)
+                .recordStats()
+                .buildAsync(this::count);
+        CaffeineCacheMetrics.monitor(meterRegistry, countCache, "user.directory.count");
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPageVO<UserInfoVO> listUsers(UserDirectoryQueryDTO query) {
+        int size = query.getSize() == null ? defaultPageSize : Math.min(query.getSize(), maxPageSize);
+        DirectoryFilter filter = new DirectoryFilter(query.getUserType(), query.getStatus(),
+                query.getCreatedFrom(), query.getCreatedTo());
+
+        List<UserInfoVO> records = userMapper.selectDirectoryPage(filter.userType(), filter.status(),
+                filter.createdFrom(), filter.createdTo(), query.getAfterId(), size + 1);
+
+        boolean hasMore = records.size() > size;
+        if (hasMore) {
+            records = records.subList(0, size);
+        }
+        for (UserInfoVO record : records) {
+            UserType userType = UserType.getByCode(record.getUserType());
+            record.setUserTypeDesc(userType != null ? userType.getDescription() : null);
+        }
+
+        KeysetPageVO<UserInfoVO> page = new KeysetPageVO<>();
+        page.setRecords(records);
+        page.setSize(size);
+        page.setHasMore(hasMore);
+        page.setNextCursor(hasMore ? records.get(records.size() - 1).getId() : null);
+        page.setTotal(cachedCount(filter));
+        return page;
+    }
+
+    /**
+     * 读取缓存的总数，未缓存时提交后台统计并返回null
+     * 进行中的统计本身就是缓存项，同一条件的并发请求共享同一次统计
+     */
+    private Long cachedCount(DirectoryFilter filter) {
+        return countCache.get(filter).getNow(null);
+    }
+
+    private Long count(DirectoryFilter filter) {
+        long start = System.nanoTime();
+        Long total = readOnlyTransaction.execute(status -> userMapper.countDirectory(filter.userType(),
+                filter.status(), filter.createdFrom(), filter.createdTo()));
+        log.debug("用户目录总数已统计: {} -> {}，耗时 {}ms", filter, total, (System.nanoTime() - start) / 1_000_000);
+        return total;
+    }
+
+    /**
+     * 总数缓存键（游标不参与）
+     */
+    private record DirectoryFilter(Integer userType, Integer status,
+                                   LocalDateTime createdFrom, LocalDateTime createdTo) {
+    }
+}
@@ -0,0 +1,29 @@
+package top.alexjtech.educationapi.service.user.impl;
+
+import org.springframework.dao.DuplicateKeyException;
+
+/**
+ * sys_user唯一索引冲突提示（索引见 db/migration/V2__add_user_indexes.sql）
+ */
+final class UserDuplicateKeys {
+
+    private UserDuplicateKeys() {
+    }
+
+    /**
+     * 根据违反的唯一索引生成提示信息
+     */
+    static String message(DuplicateKeyException e) {
+        String message = String.valueOf(e.getMostSpecificCause().getMessage());
+        if (message.contains("uk_email")) {
+            return "该邮箱已被其他用户使用";
+        }
+        if (message.contains("uk_phone")) {
+            return "该手机号已被其他用户使用";
+        }
+        if (message.contains("uk_username")) {
+            return "该用户名已被其他用户使用";
+        }
+        return "数据已被其他用户使用";
+    }
+}
@@ -0,0 +1,186 @@
+package top.alexjtech.educationapi.service.user.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import top.alexjtech.educationapi.common.ExportFormat;
+import top.alexjtech.educationapi.common.ResponseCode;
+import top.alexjtech.educationapi.common.UserType;
+import top.alexjtech.educationapi.dto.user.UserDirectoryQueryDTO;
+import top.alexjtech.educationapi.exception.BusinessException;
+import top.alexjtech.educationapi.mapper.UserMapper;
+import top.alexjtech.educationapi.service.user.UserExportService;
+import top.alexjtech.educationapi.vo.UserInfoVO;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 用户导出服务实现类
+ * MyBatis Cursor配合 fetchSize = Integer.MIN_VALUE 使MySQL驱动逐行读取结果集，每行转换后立即写入响应；
+ * 写缓冲区满时写操作阻塞在Socket上，游标随之停止读取，内存占用与表大小无关
+ * 每个导出任务在整个导出期间占用一个数据库连接，因此限制同时进行的导出任务数
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserExportServiceImpl implements UserExportService {
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private static final String CSV_HEADER = "用户ID,用户名,姓名,昵称,邮箱,手机号,用户类型,性别,状态,最后登录时间,创建时间\n";
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final UserMapper userMapper;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final PlatformTransactionManager transactionManager;
+
+    // 同时进行的导出任务数
+    @Value("${app.user-export.max-concurrent-exports:2}")
+    private int maxConcurrentExports;
+
+    private Semaphore exportPermits;
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    void init() {
+        exportPermits = new Semaphore(maxConcurrentExports);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public long exportUsers(UserDirectoryQueryDTO filter, ExportFormat format, OutputStream out) throws IOException {
+        // 先取得许可再获取数据库连接，超出并发数的请求不占用连接
+        if (!exportPermits.tryAcquire()) {
+            throw new BusinessException(ResponseCode.TOO_MANY_REQUESTS, "导出任务过多，请稍后再试");
+        }
+        long start = System.nanoTime();
+        long rows;
+        try {
+            // 游标只在事务（同一个SqlSession和数据库连接）内有效
+            rows = readOnlyTransaction.execute(status -> {
+                try {
+                    return export(filter, format, out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            exportPermits.release();
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        meterRegistry.counter("user.export.rows", "format", format.getExtension()).increment(rows);
+        log.info("用户导出完成: 格式={}, 行数={}, 耗时={}ms", format, rows, elapsedMillis);
+        return rows;
+    }
+
+    private long export(UserDirectoryQueryDTO filter, ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        long rows;
+        try (Cursor<UserInfoVO> cursor = userMapper.selectExportCursor(filter.getUserType(), filter.getStatus(),
+                filter.getCreatedFrom(), filter.getCreatedTo())) {
+            rows = format == ExportFormat.NDJSON ? writeNdjson(cursor, writer) : writeCsv(cursor, writer);
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private long writeCsv(Cursor<UserInfoVO> cursor, Writer writer) throws IOException {
+        // UTF-8 BOM，Excel打开时正确识别中文
+        writer.write('\uFEFF');
+        writer.write(CSV_HEADER);
+        long rows = 0;
+        for (UserInfoVO user : cursor) {
+            writer.write(String.valueOf(user.getId()));
+            writeCsvField(writer, user.getUsername());
+            writeCsvField(writer, user.getRealName());
+            writeCsvField(writer, user.getNickname());
+            writeCsvField(writer, user.getEmail());
+            writeCsvField(writer, user.getPhone());
+            writeCsvField(writer, userTypeDesc(user.getUserType()));
+            writeCsvField(writer, user.getGender() != null ? user.getGender().toString() : null);
+            writeCsvField(writer, user.getStatus() != null ? user.getStatus().toString() : null);
+            writeCsvField(writer, format(user.getLastLoginTime()));
+            writeCsvField(writer, format(user.getCreateTime()));
+            writer.write('\n');
+            rows++;
+        }
+        return rows;
+    }
+
+    private long writeNdjson(Cursor<UserInfoVO> cursor, Writer writer) throws IOException {
+        // 复用应用的ObjectMapper，与接口返回的JSON格式（日期格式、空值处理）保持一致
+        ObjectWriter ndjsonWriter = objectMapper.writerFor(UserInfoVO.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n");
+        long rows = 0;
+        try (SequenceWriter sequenceWriter = ndjsonWriter.writeValues(writer)) {
+            for (UserInfoVO user : cursor) {
+                user.setUserTypeDesc(userTypeDesc(user.getUserType()));
+                sequenceWriter.write(user);
+                rows++;
+            }
+        }
+        if (rows > 0) {
+            writer.write('\n');
+        }
+        return rows;
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        writer.write(',');
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        // 以公式字符开头的内容加前缀，防止在Excel中被当作公式执行
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@') {
+            value = "'" + value;
+        }
+        if (quote) {
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(value);
+        }
+    }
+
+    private static String userTypeDesc(Integer code) {
+        UserType userType = UserType.getByCode(code);
+        return userType != null ? userType.getDescription() : null;
+    }
+
+    private static String format(LocalDateTime time) {
+        return time != null ? DATE_TIME_FORMATTER.format(time) : null;
+    }
+}
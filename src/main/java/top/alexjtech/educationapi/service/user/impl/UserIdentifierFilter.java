@@ -0,0 +1,244 @@
+package top.alexjtech.educationapi.service.user.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import top.alexjtech.educationapi.entity.User;
+import top.alexjtech.educationapi.mapper.UserMapper;
+import top.alexjtech.educationapi.util.cache.BloomFilter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * 用户标识过滤器
+ * 以布隆过滤器保存全部用户名、邮箱、手机号和微信OpenID，判定一定不存在的登录标识时无需查询数据库；
+ * 启动后流式读取sys_user构建，并按间隔全量重建；本节点新增的标识通过Redis发布订阅同步到其他节点
+ * 过滤器尚未构建完成时一律返回"可能存在"，退化为直接查库
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserIdentifierFilter implements MessageListener {
+
+    /**
+     * 标识新增广播频道
+     */
+    public static final String ADD_CHANNEL = "user:identifier:add";
+
+    private static final String OPEN_ID_PREFIX = "wx:";
+    // 每个用户最多4个标识
+    private static final int IDENTIFIERS_PER_USER = 4;
+
+    private final UserMapper userMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    // 当前节点标识，用于忽略自己发出的消息
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${app.identifier-filter.enabled:true}")
+    private boolean enabled;
+
+    // 最小容量，实际容量按用户数估算，取两者较大值
+    @Value("${app.identifier-filter.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${app.identifier-filter.fpp:0.01}")
+    private double fpp;
+
+    private volatile BloomFilter filter;
+
+    // 重建期间新增的标识同时写入新旧两个过滤器，避免重建过程中遗漏
+    private volatile BloomFilter building;
+
+    private Counter negativeCounter;
+    private Counter positiveCounter;
+    private Counter falsePositiveCounter;
+
+    @PostConstruct
+    void init() {
+        negativeCounter = meterRegistry.counter("user.identifier.filter.checks", "result", "negative");
+        positiveCounter = meterRegistry.counter("user.identifier.filter.checks", "result", "positive");
+        falsePositiveCounter = meterRegistry.counter("user.identifier.filter.false-positives");
+        Gauge.builder("user.identifier.filter.expected-fpp", this, f -> f.filter != null ? f.filter.expectedFpp() : 0)
+                .description("按当前写入量估算的假阳性率")
+                .register(meterRegistry);
+        Gauge.builder("user.identifier.filter.observed-fpp", this, UserIdentifierFilter::observedFpp)
+                .description("实际假阳性率：判定可能存在但数据库未查到的次数 / 所有实际不存在的查询次数")
+                .register(meterRegistry);
+        Gauge.builder("user.identifier.filter.insertions", this, f -> f.filter != null ? f.filter.getInsertions() : 0)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 登录标识（用户名、邮箱或手机号）是否可能存在，返回false时一定不存在
+     */
+    public boolean mightExist(String identifier) {
+        return check(normalize(identifier));
+    }
+
+    /**
+     * 微信OpenID是否可能已绑定用户，返回false时一定不存在
+     */
+    public boolean mightExistOpenId(String openId) {
+        return openId == null || check(OPEN_ID_PREFIX + openId);
+    }
+
+    /**
+     * 过滤器判定可能存在但数据库未查到时调用，用于统计实际假阳性率
+     */
+    public void recordFalsePositive() {
+        if (filter != null) {
+            falsePositiveCounter.increment();
+        }
+    }
+
+    /**
+     * 新增或修改用户后写入其标识，并通知其他节点
+     * 修改前的旧标识不会移除，只会略微提高假阳性率，直到下次重建
+     */
+    public void add(User user) {
+        if (!enabled || user == null) {
+            return;
+        }
+        publish(keysOf(user));
+    }
+
+    private void publish(List<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        keys.forEach(this::put);
+        try {
+            stringRedisTemplate.convertAndSend(ADD_CHANNEL, nodeId + "\n" + String.join("\n", keys));
+        } catch (RuntimeException e) {
+            log.warn("用户标识新增广播失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 批量写入新增用户的标识（如批量导入），合并为一条广播消息
+     */
+    public void addAll(Collection<User> users) {
+        if (!enabled || users.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(users.size() * IDENTIFIERS_PER_USER);
+        for (User user : users) {
+            keys.addAll(keysOf(user));
+        }
+        publish(keys);
+    }
+
+    /**
+     * 流式读取全部用户标识重建过滤器；启动后立即执行一次，之后按间隔执行以清除已修改或删除的标识
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.identifier-filter.rebuild-interval:1h}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            long users = userMapper.selectCount(null);
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedInsertions, users * IDENTIFIERS_PER_USER), fpp);
+            building = rebuilt;
+            userMapper.selectIdentifiers(context -> keysOf(context.getResultObject()).forEach(rebuilt::put));
+            filter = rebuilt;
+            log.info("用户标识过滤器构建完成: {} 个标识, 估算假阳性率 {}, 耗时 {} ms",
+                    rebuilt.getInsertions(), rebuilt.expectedFpp(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.warn("用户标识过滤器构建失败，{}: {}", filter == null ? "暂不过滤" : "继续使用旧过滤器", e.getMessage());
+        } finally {
+            building = null;
+        }
+    }
+
+    /**
+     * 接收其他节点广播的新增标识，消息格式：节点标识\n标识[\n标识...]
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] lines = new String(message.getBody(), StandardCharsets.UTF_8).split("\n");
+        if (lines.length < 2 || lines[0].equals(nodeId)) {
+            return;
+        }
+        for (int i = 1; i < lines.length; i++) {
+            put(lines[i]);
+        }
+    }
+
+    private boolean check(String key) {
+        BloomFilter current = filter;
+        if (!enabled || current == null || key == null) {
+            return true;
+        }
+        boolean result = current.mightContain(key);
+        (result ? positiveCounter : negativeCounter).increment();
+        return result;
+    }
+
+    private void put(String key) {
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(key);
+        }
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(key);
+        }
+    }
+
+    private double observedFpp() {
+        double falsePositives = falsePositiveCounter.count();
+        double negatives = falsePositives + negativeCounter.count();
+        return negatives > 0 ? falsePositives / negatives : 0;
+    }
+
+    private static List<String> keysOf(User user) {
+        List<String> keys = new ArrayList<>(IDENTIFIERS_PER_USER);
+        addKey(keys, normalize(user.getUsername()));
+        addKey(keys, normalize(user.getEmail()));
+        addKey(keys, normalize(user.getPhone()));
+        if (user.getWechatOpenId() != null && !user.getWechatOpenId().isEmpty()) {
+            keys.add(OPEN_ID_PREFIX + user.getWechatOpenId());
+        }
+        return keys;
+    }
+
+    private static void addKey(List<String> keys, String key) {
+        if (key != null && !key.isEmpty()) {
+            keys.add(key);
+        }
+    }
+
+    /**
+     * 与MySQL默认排序规则保持一致：不区分大小写、忽略尾部空格
+     * 含非ASCII字符的标识无法可靠归一化（如重音字符等价），返回null表示不过滤
+     */
+    private static String normalize(String identifier) {
+        if (identifier == null) {
+            return null;
+        }
+        for (int i = 0; i < identifier.length(); i++) {
+            if (identifier.charAt(i) > 0x7F) {
+                return null;
+            }
+        }
+        return identifier.stripTrailing().toLowerCase(Locale.ROOT);
+    }
+}
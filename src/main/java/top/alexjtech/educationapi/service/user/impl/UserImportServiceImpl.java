@@ -0,0 +1,644 @@
+package top.alexjtech.educationapi.service.user.impl;
+
+import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.context.AnalysisContext;
+import com.alibaba.excel.exception.ExcelAnalysisException;
+import com.alibaba.excel.metadata.data.ReadCellData;
+import com.alibaba.excel.read.listener.ReadListener;
+import com.alibaba.excel.support.ExcelTypeEnum;
+import com.alibaba.fastjson2.JSON;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.input.BOMInputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import top.alexjtech.educationapi.common.ResponseCode;
+import top.alexjtech.educationapi.common.UserType;
+import top.alexjtech.educationapi.dto.user.UserImportRowDTO;
+import top.alexjtech.educationapi.entity.User;
+import top.alexjtech.educationapi.exception.BusinessException;
+import top.alexjtech.educationapi.mapper.UserMapper;
+import top.alexjtech.educationapi.service.security.PasswordHashService;
+import top.alexjtech.educationapi.service.user.UserImportService;
+import top.alexjtech.educationapi.service.user.UserService;
+import top.alexjtech.educationapi.vo.user.UserImportJobVO;
+import top.alexjtech.educationapi.vo.user.UserImportResultVO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 用户批量导入服务实现类
+ * 名单由EasyExcel逐行流式解析（XLSX为SAX解析），每满一批执行：冲突检查 -> 并行计算密码哈希 -> JDBC批量插入，
+ * 内存中只保留当前批次；配合连接参数 rewriteBatchedStatements=true，每批合并为多值INSERT语句
+ * 每批在一个事务中插入：未开启 rewriteBatchedStatements 时驱动逐行发送，冲突行之前的行也随整批回滚，
+ * 逐行重试时不会把本批已写入的行误判为冲突
+ * 密码按密码哈希服务标定的BCrypt cost逐行加盐哈希（不低于 app.password.min-strength），
+ * 在导入专用的有界线程池中计算，不占用登录请求的哈希线程
+ * 大名单按标定cost逐行哈希需要数分钟，管理端通过后台任务导入：名单暂存为临时文件后立即返回任务ID，
+ * 任务状态保存在Redis中，任何节点都可以查询进度和结果
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final String INSERT_SQL = "INSERT INTO sys_user (username, password, email, phone, user_type, "
+            + "real_name, nickname, status, version, deleted, create_time, update_time) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, 0, 0, 0, ?, ?)";
+
+    private static final String REQUIRED_HEADER = "用户名";
+
+    private static final String JOB_KEY_PREFIX = "user:import:job:";
+
+    private final UserMapper userMapper;
+    private final UserService userService;
+    private final UserIdentifierFilter userIdentifierFilter;
+    private final UserSearchIndex userSearchIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordHashService passwordHashService;
+    private final PlatformTransactionManager transactionManager;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    // 每批处理的行数
+    @Value("${app.user-import.batch-size:1000}")
+    private int batchSize;
+
+    // 哈希线程数，0表示CPU核数的一半（为登录请求保留CPU）
+    @Value("${app.user-import.hash-threads:0}")
+    private int hashThreads;
+
+    // 返回的失败明细上限
+    @Value("${app.user-import.max-errors:1000}")
+    private int maxErrors;
+
+    // 同时进行的导入任务数
+    @Value("${app.user-import.max-concurrent-imports:1}")
+    private int maxConcurrentImports;
+
+    // 导入任务结束后状态和结果的保留时间
+    @Value("${app.user-import.job-retention:24h}")
+    private Duration jobRetention;
+
+    private ExecutorService hashExecutor;
+
+    private ExecutorService importExecutor;
+
+    private BCryptPasswordEncoder importEncoder;
+
+    private Semaphore importPermits;
+
+    private TransactionTemplate transaction;
+
+    @PostConstruct
+    void init() {
+        int threads = hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadIndex = new AtomicInteger();
+        hashExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "user-import-hash-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 并发导入数已由importPermits限制，任务不会排队
+        AtomicInteger importIndex = new AtomicInteger();
+        importExecutor = Executors.newFixedThreadPool(maxConcurrentImports, runnable -> {
+            Thread thread = new Thread(runnable, "user-import-" + importIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        importEncoder = new BCryptPasswordEncoder(passwordHashService.getStrength());
+        importPermits = new Semaphore(maxConcurrentImports);
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        importExecutor.shutdownNow();
+        hashExecutor.shutdownNow();
+    }
+
+    @Override
+    public UserImportResultVO importUsers(InputStream inputStream, String filename,
+                                          Integer defaultUserType, String defaultPassword) {
+        ExcelTypeEnum excelType = validateRequest(filename, defaultUserType, defaultPassword);
+        if (!importPermits.tryAcquire()) {
+            throw new BusinessException(ResponseCode.TOO_MANY_REQUESTS, "已有导入任务正在进行，请稍后再试");
+        }
+        try {
+            return runImport(inputStream, excelType, defaultUserType, defaultPassword, result -> {
+            });
+        } finally {
+            importPermits.release();
+        }
+    }
+
+    @Override
+    public UserImportJobVO submitImport(InputStream inputStream, String filename,
+                                        Integer defaultUserType, String defaultPassword) {
+        ExcelTypeEnum excelType = validateRequest(filename, defaultUserType, defaultPassword);
+        if (!importPermits.tryAcquire()) {
+            throw new BusinessException(ResponseCode.TOO_MANY_REQUESTS, "已有导入任务正在进行，请稍后再试");
+        }
+
+        Path file = null;
+        try {
+            // 请求结束后上传的文件会被删除，先复制到临时文件再在后台读取
+            file = Files.createTempFile("user-import-", "." + excelType.name().toLowerCase(Locale.ROOT));
+            Files.copy(inputStream, file, StandardCopyOption.REPLACE_EXISTING);
+
+            UserImportJobVO job = new UserImportJobVO();
+            job.setJobId(UUID.randomUUID().toString().replace("-", ""));
+            job.setStatus(UserImportJobVO.RUNNING);
+            job.setSubmitTime(LocalDateTime.now());
+            saveJob(job);
+
+            Path source = file;
+            importExecutor.execute(() -> runJob(job, source, excelType, defaultUserType, defaultPassword));
+            return job;
+        } catch (IOException e) {
+            deleteQuietly(file);
+            importPermits.release();
+            throw new BusinessException(ResponseCode.BAD_REQUEST, "读取名单文件失败");
+        } catch (RejectedExecutionException e) {
+            deleteQuietly(file);
+            importPermits.release();
+            throw new BusinessException(ResponseCode.SERVICE_UNAVAILABLE, "导入服务正在关闭，请稍后再试");
+        } catch (RuntimeException e) {
+            // 任务状态无法写入Redis时不启动导入，否则无法查询结果
+            deleteQuietly(file);
+            importPermits.release();
+            log.error("提交导入任务失败", e);
+            throw new BusinessException(ResponseCode.SERVICE_UNAVAILABLE, "提交导入任务失败，请稍后再试");
+        }
+    }
+
+    @Override
+    public UserImportJobVO getImportJob(String jobId) {
+        String json = stringRedisTemplate.opsForValue().get(JOB_KEY_PREFIX + jobId);
+        if (json == null) {
+            throw new BusinessException(ResponseCode.DATA_NOT_FOUND, "导入任务不存在或已过期");
+        }
+        return JSON.parseObject(json, UserImportJobVO.class);
+    }
+
+    /**
+     * 在后台线程中执行导入任务，每批处理后更新进度
+     */
+    private void runJob(UserImportJobVO job, Path file, ExcelTypeEnum excelType,
+                        Integer defaultUserType, String defaultPassword) {
+        try (InputStream in = Files.newInputStream(file)) {
+            UserImportResultVO result = runImport(in, excelType, defaultUserType, defaultPassword, progress -> {
+                job.setProcessedRows(progress.getTotal());
+                saveJobQuietly(job);
+            });
+            job.setProcessedRows(result.getTotal());
+            job.setResult(result);
+            job.setStatus(UserImportJobVO.SUCCEEDED);
+        } catch (BusinessException e) {
+            job.setStatus(UserImportJobVO.FAILED);
+            job.setMessage(e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            log.error("导入任务 {} 失败", job.getJobId(), e);
+            job.setStatus(UserImportJobVO.FAILED);
+            job.setMessage("导入失败，请重试");
+        } finally {
+            job.setFinishTime(LocalDateTime.now());
+            saveJobQuietly(job);
+            deleteQuietly(file);
+            importPermits.release();
+        }
+    }
+
+    private void saveJob(UserImportJobVO job) {
+        stringRedisTemplate.opsForValue().set(JOB_KEY_PREFIX + job.getJobId(), JSON.toJSONString(job), jobRetention);
+    }
+
+    private void saveJobQuietly(UserImportJobVO job) {
+        try {
+            saveJob(job);
+        } catch (RuntimeException e) {
+            log.warn("保存导入任务 {} 状态失败: {}", job.getJobId(), e.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("删除导入临时文件失败: {}", file);
+        }
+    }
+
+    /**
+     * 校验导入参数，返回名单文件类型
+     */
+    private static ExcelTypeEnum validateRequest(String filename, Integer defaultUserType, String defaultPassword) {
+        ExcelTypeEnum excelType = resolveExcelType(filename);
+        if (defaultUserType == null || (!UserType.STUDENT.getCode().equals(defaultUserType)
+                && !UserType.TEACHER.getCode().equals(defaultUserType))) {
+            throw new BusinessException(ResponseCode.BAD_REQUEST, "只能批量导入学生或老师");
+        }
+        if (StringUtils.hasText(defaultPassword) && !isValidPassword(defaultPassword)) {
+            throw new BusinessException(ResponseCode.BAD_REQUEST, "初始密码长度必须在6-50个字符之间");
+        }
+        return excelType;
+    }
+
+    /**
+     * 读取名单并逐批导入
+     *
+     * @param progress 每批处理后回调，参数为当前累计结果
+     */
+    private UserImportResultVO runImport(InputStream inputStream, ExcelTypeEnum excelType, Integer defaultUserType,
+                                         String defaultPassword, Consumer<UserImportResultVO> progress) {
+        long start = System.currentTimeMillis();
+        ImportListener listener = new ImportListener(defaultUserType,
+                StringUtils.hasText(defaultPassword) ? defaultPassword : null, progress);
+        try (InputStream in = excelType == ExcelTypeEnum.CSV
+                ? BOMInputStream.builder().setInputStream(inputStream).get()
+                : inputStream) {
+            EasyExcel.read(in, UserImportRowDTO.class, listener)
+                    .excelType(excelType)
+                    .charset(StandardCharsets.UTF_8)
+                    .sheet()
+                    .doRead();
+        } catch (ExcelAnalysisException e) {
+            if (e.getCause() instanceof BusinessException businessException) {
+                throw businessException;
+            }
+            log.warn("解析导入名单失败: {}", e.getMessage());
+            throw new BusinessException(ResponseCode.BAD_REQUEST, "名单文件解析失败，请检查文件格式");
+        } catch (IOException e) {
+            throw new BusinessException(ResponseCode.BAD_REQUEST, "读取名单文件失败");
+        }
+
+        UserImportResultVO result = listener.result;
+        // 冲突检查在批次写入时才进行，失败明细按行号重新排序
+        result.getErrors().sort(Comparator.comparingInt(UserImportResultVO.RowError::getRow));
+        result.setElapsedMillis(System.currentTimeMillis() - start);
+        log.info("用户批量导入完成: 共 {} 行, 成功 {} 行, 失败 {} 行, 耗时 {} ms",
+                result.getTotal(), result.getSucceeded(), result.getFailed(), result.getElapsedMillis());
+        return result;
+    }
+
+    /**
+     * 逐行读取名单，按批处理
+     */
+    private class ImportListener implements ReadListener<UserImportRowDTO> {
+
+        private final Integer defaultUserType;
+        private final String defaultPassword;
+        private final Consumer<UserImportResultVO> progress;
+        private final UserImportResultVO result = new UserImportResultVO();
+
+        // 本文件内已出现的标识（小写），用于发现文件内重复
+        private final Set<String> seenUsernames = new HashSet<>();
+        private final Set<String> seenEmails = new HashSet<>();
+        private final Set<String> seenPhones = new HashSet<>();
+
+        private List<PendingRow> batch = new ArrayList<>();
+
+        ImportListener(Integer defaultUserType, String defaultPassword, Consumer<UserImportResultVO> progress) {
+            this.defaultUserType = defaultUserType;
+            this.defaultPassword = defaultPassword;
+            this.progress = progress;
+        }
+
+        @Override
+        public void invokeHead(Map<Integer, ReadCellData<?>> headMap, AnalysisContext context) {
+            boolean hasUsername = headMap.values().stream()
+                    .anyMatch(cell -> cell != null && REQUIRED_HEADER.equals(trim(cell.getStringValue())));
+            if (!hasUsername) {
+                throw new BusinessException(ResponseCode.BAD_REQUEST, "名单表头缺少“" + REQUIRED_HEADER + "”列");
+            }
+        }
+
+        @Override
+        public void invoke(UserImportRowDTO data, AnalysisContext context) {
+            int row = context.readRowHolder().getRowIndex() + 1;
+            result.setTotal(result.getTotal() + 1);
+
+            String error = validate(data);
+            if (error != null) {
+                fail(row, data.getUsername(), error);
+                return;
+            }
+            batch.add(new PendingRow(row, data));
+            if (batch.size() >= batchSize) {
+                flush();
+                progress.accept(result);
+            }
+        }
+
+        @Override
+        public void doAfterAllAnalysed(AnalysisContext context) {
+            flush();
+        }
+
+        /**
+         * 校验单行并规范化字段，返回错误信息，校验通过返回null
+         */
+        private String validate(UserImportRowDTO data) {
+            data.setUsername(trim(data.getUsername()));
+            data.setEmail(emptyToNull(trim(data.getEmail())));
+            data.setPhone(emptyToNull(trim(data.getPhone())));
+            data.setRealName(emptyToNull(trim(data.getRealName())));
+            data.setNickname(emptyToNull(trim(data.getNickname())));
+
+            if (!StringUtils.hasText(data.getUsername())) {
+                return "用户名不能为空";
+            }
+            if (data.getUsername().length() > 50) {
+                return "用户名长度不能超过50个字符";
+            }
+            if (!StringUtils.hasText(data.getPassword())) {
+                if (defaultPassword == null) {
+                    return "密码不能为空";
+                }
+            } else if (!isValidPassword(data.getPassword())) {
+                return "密码长度必须在6-50个字符之间";
+            }
+            if (data.getRealName() != null && data.getRealName().length() > 50) {
+                return "姓名长度不能超过50个字符";
+            }
+            if (data.getNickname() != null && data.getNickname().length() > 50) {
+                return "昵称长度不能超过50个字符";
+            }
+            if (data.getEmail() != null && !userService.isValidEmail(data.getEmail())) {
+                return "邮箱格式不正确";
+            }
+            if (data.getPhone() != null && !userService.isValidPhone(data.getPhone())) {
+                return "手机号格式不正确";
+            }
+            String userType = trim(data.getUserType());
+            if (StringUtils.hasText(userType)) {
+                Integer code = parseUserType(userType);
+                if (code == null) {
+                    return "用户类型只能为学生或老师";
+                }
+                data.setUserType(String.valueOf(code));
+            } else {
+                data.setUserType(String.valueOf(defaultUserType));
+            }
+
+            if (!seenUsernames.add(data.getUsername().toLowerCase(Locale.ROOT))) {
+                return "用户名在名单中重复";
+            }
+            if (data.getEmail() != null && !seenEmails.add(data.getEmail().toLowerCase(Locale.ROOT))) {
+                return "邮箱在名单中重复";
+            }
+            if (data.getPhone() != null && !seenPhones.add(data.getPhone())) {
+                return "手机号在名单中重复";
+            }
+            return null;
+        }
+
+        /**
+         * 处理当前批次：排除已被占用的标识，并行哈希密码后批量插入
+         */
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<PendingRow> rows = excludeExisting(batch);
+            batch = new ArrayList<>(batchSize);
+            if (rows.isEmpty()) {
+                return;
+            }
+
+            List<User> users = hashPasswords(rows);
+            if (users == null) {
+                return;
+            }
+            insert(rows, users);
+        }
+
+        /**
+         * 一次查询找出本批中已被占用的用户名、邮箱、手机号
+         */
+        private List<PendingRow> excludeExisting(List<PendingRow> rows) {
+            List<String> usernames = new ArrayList<>(rows.size());
+            List<String> emails = new ArrayList<>();
+            List<String> phones = new ArrayList<>();
+            for (PendingRow row : rows) {
+                usernames.add(row.data.getUsername());
+                if (row.data.getEmail() != null) {
+                    emails.add(row.data.getEmail());
+                }
+                if (row.data.getPhone() != null) {
+                    phones.add(row.data.getPhone());
+                }
+            }
+
+            // MySQL默认排序规则不区分大小写，比较时统一转为小写
+            Set<String> takenUsernames = new HashSet<>();
+            Set<String> takenEmails = new HashSet<>();
+            Set<String> takenPhones = new HashSet<>();
+            for (User existing : userMapper.selectExistingIdentifiers(usernames, emails, phones)) {
+                addLowerCase(takenUsernames, existing.getUsername());
+                addLowerCase(takenEmails, existing.getEmail());
+                addLowerCase(takenPhones, existing.getPhone());
+            }
+
+            List<PendingRow> available = new ArrayList<>(rows.size());
+            for (PendingRow row : rows) {
+                if (takenUsernames.contains(row.data.getUsername().toLowerCase(Locale.ROOT))) {
+                    fail(row.row, row.data.getUsername(), "用户名已存在");
+                } else if (row.data.getEmail() != null
+                        && takenEmails.contains(row.data.getEmail().toLowerCase(Locale.ROOT))) {
+                    fail(row.row, row.data.getUsername(), "该邮箱已被其他用户使用");
+                } else if (row.data.getPhone() != null && takenPhones.contains(row.data.getPhone())) {
+                    fail(row.row, row.data.getUsername(), "该手机号已被其他用户使用");
+                } else {
+                    available.add(row);
+                }
+            }
+            return available;
+        }
+
+        /**
+         * 在导入线程池中并行计算密码哈希
+         * 使用统一初始密码的行也逐行哈希（各自的盐），数据库中无法看出哪些账号仍使用初始密码
+         */
+        private List<User> hashPasswords(List<PendingRow> rows) {
+            List<Future<String>> hashes = new ArrayList<>(rows.size());
+            for (PendingRow row : rows) {
+                String password = StringUtils.hasText(row.data.getPassword()) ? row.data.getPassword() : defaultPassword;
+                Callable<String> task = () -> importEncoder.encode(password);
+                hashes.add(hashExecutor.submit(task));
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            List<User> users = new ArrayList<>(rows.size());
+            try {
+                for (int i = 0; i < rows.size(); i++) {
+                    UserImportRowDTO data = rows.get(i).data;
+                    User user = new User();
+                    user.setUsername(data.getUsername());
+                    user.setPassword(hashes.get(i).get());
+                    user.setEmail(data.getEmail());
+                    user.setPhone(data.getPhone());
+                    user.setUserType(Integer.valueOf(data.getUserType()));
+                    user.setRealName(data.getRealName());
+                    user.setNickname(data.getNickname());
+                    user.setCreateTime(now);
+                    user.setUpdateTime(now);
+                    users.add(user);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                hashes.forEach(future -> future.cancel(true));
+                throw new BusinessException(ResponseCode.SERVICE_UNAVAILABLE, "导入已中断");
+            } catch (ExecutionException e) {
+                log.error("导入时计算密码哈希失败", e.getCause());
+                rows.forEach(row -> fail(row.row, row.data.getUsername(), "密码处理失败"));
+                return null;
+            }
+            return users;
+        }
+
+        /**
+         * 在一个事务中批量插入；批次中有行在检查后被并发占用导致失败时，整批回滚后逐行重试以定位失败行
+         */
+        private void insert(List<PendingRow> rows, List<User> users) {
+            try {
+                transaction.executeWithoutResult(status ->
+                        jdbcTemplate.batchUpdate(INSERT_SQL, users, users.size(), (ps, user) -> {
+                            ps.setString(1, user.getUsername());
+                            ps.setString(2, user.getPassword());
+                            ps.setString(3, user.getEmail());
+                            ps.setString(4, user.getPhone());
+                            ps.setInt(5, user.getUserType());
+                            ps.setString(6, user.getRealName());
+                            ps.setString(7, user.getNickname());
+                            ps.setTimestamp(8, Timestamp.valueOf(user.getCreateTime()));
+                            ps.setTimestamp(9, Timestamp.valueOf(user.getUpdateTime()));
+                        }));
+                succeed(users);
+            } catch (DataAccessException e) {
+                log.warn("批量插入失败，逐行重试定位冲突行: {}", e.getMostSpecificCause().getMessage());
+                List<User> inserted = new ArrayList<>(users.size());
+                for (int i = 0; i < users.size(); i++) {
+                    User user = users.get(i);
+                    try {
+                        jdbcTemplate.update(INSERT_SQL, user.getUsername(), user.getPassword(), user.getEmail(),
+                                user.getPhone(), user.getUserType(), user.getRealName(), user.getNickname(),
+                                Timestamp.valueOf(user.getCreateTime()), Timestamp.valueOf(user.getUpdateTime()));
+                        inserted.add(user);
+                    } catch (DuplicateKeyException duplicate) {
+                        fail(rows.get(i).row, user.getUsername(), UserDuplicateKeys.message(duplicate));
+                    } catch (DataAccessException rowError) {
+                        log.warn("导入第 {} 行失败: {}", rows.get(i).row, rowError.getMostSpecificCause().getMessage());
+                        fail(rows.get(i).row, user.getUsername(), "写入数据库失败");
+                    }
+                }
+                succeed(inserted);
+            }
+        }
+
+        private void succeed(List<User> users) {
+            result.setSucceeded(result.getSucceeded() + users.size());
+            // 新用户的标识必须写入过滤器，否则会被判定为不存在而无法登录
+            userIdentifierFilter.addAll(users);
+            // 批量插入不返回自增ID，按用户名（唯一索引）一次查回后写入搜索索引
+            if (!users.isEmpty() && userSearchIndex.isReady()) {
+                List<String> usernames = users.stream().map(User::getUsername).toList();
+                userSearchIndex.addAll(userMapper.selectSearchFieldsByUsernames(usernames));
+            }
+        }
+
+        private void fail(int row, String username, String message) {
+            result.setFailed(result.getFailed() + 1);
+            if (result.getErrors().size() < maxErrors) {
+                result.getErrors().add(new UserImportResultVO.RowError(row, username, message));
+            }
+        }
+    }
+
+    /**
+     * 已通过校验、等待写入的行
+     */
+    private record PendingRow(int row, UserImportRowDTO data) {
+    }
+
+    private static ExcelTypeEnum resolveExcelType(String filename) {
+        String name = filename != null ? filename.toLowerCase(Locale.ROOT) : "";
+        if (name.endsWith(".csv")) {
+            return ExcelTypeEnum.CSV;
+        }
+        if (name.endsWith(".xlsx")) {
+            return ExcelTypeEnum.XLSX;
+        }
+        if (name.endsWith(".xls")) {
+            return ExcelTypeEnum.XLS;
+        }
+        throw new BusinessException(ResponseCode.BAD_REQUEST, "仅支持CSV、XLSX、XLS格式的名单文件");
+    }
+
+    /**
+     * 用户类型支持编码（1/2）或名称（学生/老师）
+     */
+    private static Integer parseUserType(String value) {
+        for (UserType userType : new UserType[]{UserType.STUDENT, UserType.TEACHER}) {
+            if (userType.getCode().toString().equals(value) || userType.getDescription().equals(value)) {
+                return userType.getCode();
+            }
+        }
+        return null;
+    }
+
+    private static boolean isValidPassword(String password) {
+        return password.length() >= 6 && password.length() <= 50;
+    }
+
+    private static void addLowerCase(Set<String> target, String value) {
+        if (value != null) {
+            target.add(value.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private static String trim(String value) {
+        return value != null ? value.trim() : null;
+    }
+
+    private static String emptyToNull(String value) {
+        return StringUtils.hasText(value) ? value : null;
+    }
+}
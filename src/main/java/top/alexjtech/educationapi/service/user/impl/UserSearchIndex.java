@@ -0,0 +1,220 @@
+package top.alexjtech.educationapi.service.user.impl;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import top.alexjtech.educationapi.entity.User;
+import top.alexjtech.educationapi.mapper.UserMapper;
+import top.alexjtech.educationapi.util.search.NGramIndex;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * 用户搜索索引
+ * 对用户名、姓名、昵称、手机号建立进程内n-gram倒排索引，替代 LIKE '%x%' 全表扫描；
+ * 启动后流式读取sys_user构建，并按间隔全量重建以清除修改前的旧词项；
+ * 本节点修改、导入的用户直接写入索引，其他节点修改的用户通过用户缓存失效广播得知后回库读取
+ * 索引尚未构建完成时不可用，由调用方返回服务不可用
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserSearchIndex implements MessageListener {
+
+    private final UserMapper userMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.user-search.enabled:true}")
+    private boolean enabled;
+
+    // 索引内存上限，构建时超出则放弃本次构建
+    @Value("${app.user-search.max-memory:512MB}")
+    private DataSize maxMemory;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 保护构建中的新索引（构建线程与同期的增量写入），不影响对当前索引的检索
+    private final ReentrantLock buildLock = new ReentrantLock();
+
+    private volatile NGramIndex index;
+
+    // 重建期间修改的用户同时写入新旧两个索引，避免重建过程中遗漏
+    private volatile NGramIndex building;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("user.search.index.memory", this, i -> i.stat(NGramIndex::memoryBytes))
+                .description("搜索索引估算占用的堆内存")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("user.search.index.documents", this, i -> i.stat(NGramIndex::documentCount))
+                .register(meterRegistry);
+        Gauge.builder("user.search.index.terms", this, i -> i.stat(NGramIndex::termCount))
+                .register(meterRegistry);
+        Gauge.builder("user.search.index.postings", this, i -> i.stat(NGramIndex::postingCount))
+                .register(meterRegistry);
+    }
+
+    /**
+     * 索引是否可用
+     */
+    public boolean isReady() {
+        return enabled && index != null;
+    }
+
+    /**
+     * 检索用户ID
+     *
+     * @return 命中结果，索引不可用时返回null
+     */
+    public NGramIndex.Hits search(String keyword, Integer userType, double minMatchRatio, int offset, int limit) {
+        NGramIndex current = index;
+        if (!enabled || current == null) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            return current.search(keyword, userType, minMatchRatio, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 新增或修改用户后写入索引；修改时只需传入ID、用户类型和发生变化的字段
+     */
+    public void add(User user) {
+        if (!enabled || user == null || user.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            put(user);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 批量写入新增用户（如批量导入）
+     */
+    public void addAll(Collection<User> users) {
+        if (!enabled || users.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (User user : users) {
+                if (user.getId() != null) {
+                    put(user);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 流式读取全部用户重建索引；启动后立即执行一次，之后按间隔执行
+     * 新索引在替换前不会被检索，构建时只与同期的增量写入互斥，不阻塞检索
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.user-search.rebuild-interval:1h}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        long limit = maxMemory.toBytes();
+        NGramIndex rebuilt = new NGramIndex();
+        try {
+            building = rebuilt;
+            userMapper.selectSearchFields(context -> {
+                User user = context.getResultObject();
+                buildLock.lock();
+                try {
+                    index(rebuilt, user);
+                } finally {
+                    buildLock.unlock();
+                }
+                if (rebuilt.memoryBytes() > limit) {
+                    throw new IllegalStateException("搜索索引超出内存上限 " + maxMemory);
+                }
+            });
+            index = rebuilt;
+            log.info("用户搜索索引构建完成: {} 个用户, {} 个词项, 约 {} MB, 耗时 {} ms",
+                    rebuilt.documentCount(), rebuilt.termCount(), rebuilt.memoryBytes() >> 20,
+                    System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.warn("用户搜索索引构建失败，{}: {}", index == null ? "搜索暂不可用" : "继续使用旧索引", e.getMessage());
+        } finally {
+            building = null;
+        }
+    }
+
+    /**
+     * 接收用户缓存失效广播（格式：节点标识:用户ID），回库读取其他节点修改的用户并写入索引
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        if (!enabled || index == null) {
+            return;
+        }
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.lastIndexOf(':');
+        if (separator < 0) {
+            return;
+        }
+        try {
+            User user = userMapper.selectSearchFieldsById(Long.parseLong(body.substring(separator + 1)));
+            add(user);
+        } catch (RuntimeException e) {
+            log.warn("用户搜索索引同步失败: {}", e.getMessage());
+        }
+    }
+
+    private void put(User user) {
+        NGramIndex current = index;
+        if (current != null) {
+            index(current, user);
+        }
+        NGramIndex next = building;
+        if (next != null && next != current) {
+            buildLock.lock();
+            try {
+                index(next, user);
+            } finally {
+                buildLock.unlock();
+            }
+        }
+    }
+
+    private static void index(NGramIndex target, User user) {
+        target.add(user.getId(), user.getUserType(),
+                user.getUsername(), user.getRealName(), user.getNickname(), user.getPhone());
+    }
+
+    private long stat(ToLongFunction<NGramIndex> metric) {
+        NGramIndex current = index;
+        if (current == null) {
+            return 0;
+        }
+        lock.readLock().lock();
+        try {
+            return metric.applyAsLong(current);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package top.alexjtech.educationapi.service.user.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+import top.alexjtech.educationapi.common.ResponseCode;
+import top.alexjtech.educationapi.common.UserType;
+import top.alexjtech.educationapi.exception.BusinessException;
+import top.alexjtech.educationapi.mapper.UserMapper;
+import top.alexjtech.educationapi.service.user.UserSearchService;
+import top.alexjtech.educationapi.util.search.NGramIndex;
+import top.alexjtech.educationapi.vo.UserInfoVO;
+import top.alexjtech.educationapi.vo.user.UserSearchResultVO;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户搜索服务实现类
+ * 先在进程内索引中检索并排序出当前页的用户ID，再按主键批量回库读取展示字段；
+ * 回库结果按原文重新校验，过滤掉已删除或修改前的旧词项命中的用户；回库在只读事务中执行，开启读写分离时读取只读副本
+ */
+@Service
+@RequiredArgsConstructor
+public class UserSearchServiceImpl implements UserSearchService {
+
+    private final UserSearchIndex userSearchIndex;
+    private final UserMapper userMapper;
+    private final MeterRegistry meterRegistry;
+
+    // 至少命中关键字n-gram的比例，越小越容忍错字
+    @Value("${app.user-search.min-match-ratio:0.3}")
+    private double minMatchRatio;
+
+    @Value("${app.user-search.max-page-size:50}")
+    private int maxPageSize;
+
+    // 最多可翻到的结果数
+    @Value("${app.user-search.max-results:500}")
+    private int maxResults;
+
+    private Timer searchTimer;
+
+    @PostConstruct
+    void init() {
+        searchTimer = Timer.builder("user.search.latency")
+                .description("搜索索引检索耗时（不含回库）")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserSearchResultVO search(String keyword, Integer userType, int page, int size) {
+        if (!StringUtils.hasText(keyword)) {
+            throw new BusinessException(ResponseCode.BAD_REQUEST, "请输入搜索关键字");
+        }
+        int pageSize = Math.max(1, Math.min(size, maxPageSize));
+        int offset = (Math.max(page, 1) - 1) * pageSize;
+        if (offset >= maxResults) {
+            throw new BusinessException(ResponseCode.BAD_REQUEST, "最多只能查看前" + maxResults + "条结果，请输入更精确的关键字");
+        }
+
+        long start = System.nanoTime();
+        NGramIndex.Hits hits = userSearchIndex.search(keyword, userType, minMatchRatio, offset, pageSize);
+        long elapsed = System.nanoTime() - start;
+        if (hits == null) {
+            throw new BusinessException(ResponseCode.SERVICE_UNAVAILABLE, "搜索索引正在构建，请稍后再试");
+        }
+        searchTimer.record(elapsed, TimeUnit.NANOSECONDS);
+
+        UserSearchResultVO result = new UserSearchResultVO();
+        result.setRecords(load(hits.ids(), keyword, userType));
+        result.setTotal(hits.total());
+        result.setPage(Math.max(page, 1));
+        result.setSize(pageSize);
+        result.setTookMillis(elapsed / 1_000_000.0);
+        return result;
+    }
+
+    /**
+     * 按检索顺序回库读取当前页用户，并用最新字段重新校验
+     */
+    private List<UserInfoVO> load(long[] ids, String keyword, Integer userType) {
+        if (ids.length == 0) {
+            return new ArrayList<>();
+        }
+        List<Long> idList = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            idList.add(id);
+        }
+        Map<Long, UserInfoVO> users = new HashMap<>();
+        for (UserInfoVO user : userMapper.selectInfoByIds(idList)) {
+            users.put(user.getId(), user);
+        }
+
+        List<UserInfoVO> records = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            UserInfoVO user = users.get(id);
+            if (user == null
+                    || (userType != null && !userType.equals(user.getUserType()))
+                    || NGramIndex.score(keyword, minMatchRatio, user.getUsername(), user.getRealName(),
+                    user.getNickname(), user.getPhone()) == 0) {
+                continue;
+            }
+            UserType type = UserType.getByCode(user.getUserType());
+            user.setUserTypeDesc(type != null ? type.getDescription() : null);
+            records.add(user);
+        }
+        return records;
+    }
+}
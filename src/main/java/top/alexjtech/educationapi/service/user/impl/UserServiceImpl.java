@@ -2,23 +2,30 @@ package top.alexjtech.educationapi.service.user.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
+import top.alexjtech.educationapi.common.ResponseCode;
+import top.alexjtech.educationapi.common.UserType;
 import top.alexjtech.educationapi.dto.WechatLoginDTO;
 import top.alexjtech.educationapi.dto.auth.LoginDTO;
 import top.alexjtech.educationapi.entity.CustomUserDetails;
 import top.alexjtech.educationapi.entity.User;
+import top.alexjtech.educationapi.exception.BusinessException;
 import top.alexjtech.educationapi.mapper.UserMapper;
+import top.alexjtech.educationapi.service.security.PasswordHashService;
+import top.alexjtech.educationapi.service.security.TokenRevocationService;
+import top.alexjtech.educationapi.service.user.UserCacheService;
 import top.alexjtech.educationapi.service.user.UserService;
+import top.alexjtech.educationapi.service.user.UserValidator;
+import top.alexjtech.educationapi.service.wechat.WechatAuthClient;
+import top.alexjtech.educationapi.service.wechat.WechatSession;
 import top.alexjtech.educationapi.util.security.JwtUtil;
 import top.alexjtech.educationapi.vo.auth.TokenVO;
 
-import java.time.LocalDateTime;
-import java.util.List;
-
 /**
  * 用户服务实现类
  */
@@ -30,32 +37,50 @@ public class UserServiceImpl implements UserService {
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final UserCacheService userCacheService;
+    private final TokenRevocationService tokenRevocationService;
+    private final PasswordHashService passwordHashService;
+    private final LastLoginWriteBuffer lastLoginWriteBuffer;
+    private final UserIdentifierFilter userIdentifierFilter;
+    private final UserSearchIndex userSearchIndex;
+    private final WechatAuthClient wechatAuthClient;
 
     @Override
     public User getUserByUsername(String username) {
-        return userMapper.selectByUsername(username);
+        return userCacheService.getByIdentifier(username);
     }
 
     @Override
     public User getUserById(Long id) {
-        return userMapper.selectById(id);
+        return userCacheService.getById(id);
     }
 
     @Override
-    public List<User> getAllUsers() {
-        return userMapper.selectList(null);
+    public User getUserWithPassword(Long id) {
+        return userMapper.selectAuthById(id);
+    }
+
+    @Override
+    public UserValidator getUserValidator(Long id) {
+        return userCacheService.getValidator(id);
     }
 
     @Override
     public TokenVO login(LoginDTO loginDTO) {
-        // 根据用户名查询用户
-        User user = userMapper.selectByUsername(loginDTO.getUsername());
+        // 过滤器判定一定不存在的登录标识直接拒绝，不查询数据库
+        if (!userIdentifierFilter.mightExist(loginDTO.getUsername())) {
+            throw new UsernameNotFoundException("用户不存在: " + loginDTO.getUsername());
+        }
+
+        // 根据登录标识查询认证字段（不读取头像、备注等资料字段）
+        User user = userMapper.selectAuthByLoginIdentifier(loginDTO.getUsername());
         if (user == null) {
+            userIdentifierFilter.recordFalsePositive();
             throw new UsernameNotFoundException("用户不存在: " + loginDTO.getUsername());
         }
 
-        // 验证密码
-        if (!passwordEncoder.matches(loginDTO.getPassword(), user.getPassword())) {
+        // 验证密码（在独立的哈希线程池中执行，繁忙时快速返回503）
+        if (!passwordHashService.matches(loginDTO.getPassword(), user.getPassword())) {
             throw new BadCredentialsException("密码错误");
         }
 
@@ -69,14 +94,20 @@ public class UserServiceImpl implements UserService {
             throw new BadCredentialsException("用户身份不匹配，无法以该身份登录");
         }
 
+        // 哈希cost与当前目标不一致时后台重新哈希
+        if (passwordHashService.needsRehash(user.getPassword())) {
+            passwordHashService.rehashAsync(user.getId(), loginDTO.getPassword(), user.getPassword());
+        }
+
         // 根据用户类型设置权限
-        String role = getRoleByUserType(user.getUserType());
+        String role = UserType.getRoleByCode(user.getUserType());
         
         // 创建自定义UserDetails对象
         CustomUserDetails userDetails = new CustomUserDetails(
                 user.getUsername(),
                 user.getPassword(),
                 user.getId(), // 传递用户ID
+                user.getUserType(),
                 java.util.Collections.singletonList(new org.springframework.security.core.authority.SimpleGrantedAuthority(role))
         );
 
@@ -86,49 +117,33 @@ public class UserServiceImpl implements UserService {
         // 更新最后登录信息
         updateLastLoginInfo(user.getId(), loginDTO.getLoginIp());
 
+        // 昵称、头像从用户缓存读取（登录后客户端通常会立即获取资料，缓存随之预热）
+        User profile = userCacheService.getById(user.getId());
+
         // 构建并返回令牌信息
         return TokenVO.builder()
                 .token(token)
                 .tokenType("Bearer")
-                .expiresIn(3600L) // 令牌有效期，单位秒
+                .expiresIn(jwtUtil.getExpirationMillis() / 1000) // 令牌有效期，单位秒
                 .userId(user.getId())
                 .username(user.getUsername())
-                .nickname(user.getNickname())
-                .avatar(user.getAvatarUrl())
+                .nickname(profile != null ? profile.getNickname() : null)
+                .avatar(profile != null ? profile.getAvatarUrl() : null)
                 .userType(user.getUserType())
                 .build();
     }
 
-    /**
-     * 根据用户类型获取对应的角色
-     */
-    private String getRoleByUserType(Integer userType) {
-        if (userType == null) {
-            return "ROLE_USER";
-        }
-        switch (userType) {
-            case 1:
-                return "ROLE_STUDENT";
-            case 2:
-                return "ROLE_TEACHER";
-            case 3:
-                return "ROLE_ADMIN";
-            default:
-                return "ROLE_USER";
-        }
-    }
-
     @Override
     public TokenVO wechatLogin(WechatLoginDTO wechatLoginDTO) {
-        // 这里应该调用微信API验证code并获取openId
-        // 简化处理：假设已经通过code获取到了openId
-        String openId = getOpenIdFromWechatCode(wechatLoginDTO.getCode());
-        if (openId == null) {
+        // 调用微信接口使用code换取openId和会话密钥
+        WechatSession session = wechatAuthClient.code2Session(wechatLoginDTO.getCode());
+        if (session == null || session.getOpenId() == null) {
             throw new BadCredentialsException("微信授权码无效");
         }
+        String openId = session.getOpenId();
 
         // 根据微信OpenID查询用户
-        User user = userMapper.selectByWechatOpenId(openId);
+        User user = userIdentifierFilter.mightExistOpenId(openId) ? userMapper.selectByWechatOpenId(openId) : null;
         if (user == null) {
             throw new UsernameNotFoundException("微信用户未绑定系统账号");
         }
@@ -143,14 +158,20 @@ public class UserServiceImpl implements UserService {
             throw new BadCredentialsException("用户身份不匹配，无法以该身份登录");
         }
 
+        // 保存最新的会话密钥（用于解密小程序端加密数据）
+        if (session.getSessionKey() != null && !session.getSessionKey().equals(user.getWechatSessionKey())) {
+            userMapper.updateWechatSessionKey(user.getId(), session.getSessionKey());
+        }
+
         // 根据用户类型设置权限
-        String role = getRoleByUserType(user.getUserType());
+        String role = UserType.getRoleByCode(user.getUserType());
 
         // 创建自定义UserDetails对象
         CustomUserDetails userDetails = new CustomUserDetails(
                 user.getUsername() != null ? user.getUsername() : user.getWechatOpenId(),
                 user.getPassword() != null ? user.getPassword() : "",
                 user.getId(), // 传递用户ID
+                user.getUserType(),
                 java.util.Collections.singletonList(new org.springframework.security.core.authority.SimpleGrantedAuthority(role))
         );
 
@@ -164,7 +185,7 @@ public class UserServiceImpl implements UserService {
         return TokenVO.builder()
                 .token(token)
                 .tokenType("Bearer")
-                .expiresIn(3600L)
+                .expiresIn(jwtUtil.getExpirationMillis() / 1000)
                 .userId(user.getId())
                 .username(user.getUsername())
                 .nickname(user.getNickname())
@@ -173,24 +194,34 @@ public class UserServiceImpl implements UserService {
                 .build();
     }
 
-    /**
-     * 模拟从微信code获取openId
-     * 实际项目中应该调用微信官方API
-     */
-    private String getOpenIdFromWechatCode(String code) {
-        // TODO: 实际项目中需要调用微信API
-        // 这里简化处理，返回一个模拟的openId
-        return "mock_openid_" + code;
-    }
-
     @Override
     public void updateLastLoginInfo(Long userId, String loginIp) {
-        userMapper.updateLastLoginInfo(userId, LocalDateTime.now(), loginIp);
+        lastLoginWriteBuffer.record(userId, loginIp);
     }
 
     @Override
     public boolean updateById(User user) {
-        return userMapper.updateById(user) > 0;
+        boolean updated;
+        try {
+            updated = userMapper.updateById(user) > 0;
+        } catch (DuplicateKeyException e) {
+            throw new BusinessException(ResponseCode.BAD_REQUEST, UserDuplicateKeys.message(e));
+        }
+        if (!updated && user.getVersion() != null) {
+            // 版本号不匹配：读取之后已被其他请求修改，清除可能过期的缓存
+            userCacheService.invalidate(user.getId());
+            throw new BusinessException(ResponseCode.CONFLICT, "信息已被修改，请刷新后重试");
+        }
+        if (updated) {
+            userCacheService.invalidate(user.getId());
+            userIdentifierFilter.add(user);
+            userSearchIndex.add(user);
+            // 账号被禁用时吊销已签发的令牌
+            if (user.getStatus() != null && user.getStatus() != 0) {
+                tokenRevocationService.revokeAllForUser(user.getId());
+            }
+        }
+        return updated;
     }
 
     @Override
@@ -204,9 +235,17 @@ public class UserServiceImpl implements UserService {
             return false;
         }
         
-        // 查询是否存在相同邮箱的用户（排除指定用户ID）
-        User user = userMapper.selectByEmail(email);
-        return user != null && (excludeUserId == null || !user.getId().equals(excludeUserId));
+        // 过滤器判定一定不存在时无需查库
+        if (!userIdentifierFilter.mightExist(email)) {
+            return false;
+        }
+
+        // 查询是否存在相同邮箱的用户（排除指定用户ID），只读取ID
+        Long userId = userMapper.selectIdByEmail(email);
+        if (userId == null) {
+            userIdentifierFilter.recordFalsePositive();
+        }
+        return userId != null && !userId.equals(excludeUserId);
     }
 
     @Override
@@ -220,16 +259,20 @@ public class UserServiceImpl implements UserService {
             return false;
         }
         
-        // 查询是否存在相同手机号的用户（排除指定用户ID）
-        User user = userMapper.selectByPhone(phone);
-        return user != null && (excludeUserId == null || !user.getId().equals(excludeUserId));
+        // 过滤器判定一定不存在时无需查库
+        if (!userIdentifierFilter.mightExist(phone)) {
+            return false;
+        }
+
+        // 查询是否存在相同手机号的用户（排除指定用户ID），只读取ID
+        Long userId = userMapper.selectIdByPhone(phone);
+        if (userId == null) {
+            userIdentifierFilter.recordFalsePositive();
+        }
+        return userId != null && !userId.equals(excludeUserId);
     }
 
-    /**
-     * 检查邮箱格式是否有效
-     * @param email 邮箱地址
-     * @return 是否有效
-     */
+    @Override
     public boolean isValidEmail(String email) {
         if (!StringUtils.hasText(email)) {
             return false;
@@ -239,11 +282,7 @@ public class UserServiceImpl implements UserService {
         return email.matches(emailRegex);
     }
 
-    /**
-     * 检查手机号格式是否有效
-     * @param phone 手机号
-     * @return 是否有效
-     */
+    @Override
     public boolean isValidPhone(String phone) {
         if (!StringUtils.hasText(phone)) {
             return false;
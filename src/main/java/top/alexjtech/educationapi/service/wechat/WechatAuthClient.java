@@ -0,0 +1,16 @@
+package top.alexjtech.educationapi.service.wechat;
+
+/**
+ * 微信登录凭证校验客户端
+ */
+public interface WechatAuthClient {
+
+    /**
+     * 使用小程序wx.login获取的code换取会话信息
+     * 微信服务不可用时抛出BusinessException
+     *
+     * @param code 登录凭证
+     * @return 会话信息，code无效或已过期时返回null
+     */
+    WechatSession code2Session(String code);
+}
@@ -0,0 +1,27 @@
+package top.alexjtech.educationapi.service.wechat;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 微信登录会话（code2session返回结果）
+ */
+@Getter
+@AllArgsConstructor
+public class WechatSession {
+
+    /**
+     * 用户在小程序内的唯一标识
+     */
+    private final String openId;
+
+    /**
+     * 用户在开放平台的唯一标识（小程序绑定开放平台后才返回）
+     */
+    private final String unionId;
+
+    /**
+     * 会话密钥
+     */
+    private final String sessionKey;
+}
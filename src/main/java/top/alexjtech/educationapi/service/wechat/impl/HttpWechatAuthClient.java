@@ -0,0 +1,219 @@
+package top.alexjtech.educationapi.service.wechat.impl;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONObject;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import top.alexjtech.educationapi.common.ResponseCode;
+import top.alexjtech.educationapi.exception.BusinessException;
+import top.alexjtech.educationapi.service.wechat.WechatAuthClient;
+import top.alexjtech.educationapi.service.wechat.WechatSession;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 微信登录客户端（调用微信 jscode2session 接口）
+ * 使用JDK HttpClient异步请求，连接池复用keep-alive连接，连接和请求均有超时；
+ * 同一code的并发请求合并为一次调用，成功结果在code有效期内缓存，重复提交的code直接返回缓存结果
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.wechat.mock", havingValue = "false")
+@RequiredArgsConstructor
+public class HttpWechatAuthClient implements WechatAuthClient {
+
+    private static final String CODE2SESSION_PATH = "/sns/jscode2session";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.wechat.app-id:}")
+    private String appId;
+
+    @Value("${app.wechat.app-secret:}")
+    private String appSecret;
+
+    @Value("${app.wechat.api-base-url:https://api.weixin.qq.com}")
+    private String apiBaseUrl;
+
+    @Value("${app.wechat.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${app.wechat.request-timeout:3s}")
+    private Duration requestTimeout;
+
+    // 处理响应回调的线程数
+    @Value("${app.wechat.io-threads:4}")
+    private int ioThreads;
+
+    // 会话结果缓存时间，与微信code的有效期（5分钟）一致
+    @Value("${app.wechat.session-cache-ttl:5m}")
+    private Duration sessionCacheTtl;
+
+    @Value("${app.wechat.session-cache-max-size:10000}")
+    private long sessionCacheMaxSize;
+
+    private ExecutorService ioExecutor;
+
+    private HttpClient httpClient;
+
+    // 进行中的请求，同一code的并发请求共享同一个Future
+    private final ConcurrentHashMap<String, CompletableFuture<Optional<WechatSession>>> inFlight = new ConcurrentHashMap<>();
+
+    private Cache<String, WechatSession> sessionCache;
+
+    private Timer requestTimer;
+    private Counter coalescedCounter;
+    private Counter cacheHitCounter;
+    private Counter errorCounter;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        ioExecutor = Executors.newFixedThreadPool(ioThreads, runnable -> {
+            Thread thread = new Thread(runnable, "wechat-http-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .executor(ioExecutor)
+                .build();
+        sessionCache = Caffeine.newBuilder()
+                .maximumSize(sessionCacheMaxSize)
+                .expireAfterWrite(sessionCacheTtl)
+                .build();
+
+        requestTimer = Timer.builder("wechat.code2session.latency")
+                .publishPercentileHistogram().register(meterRegistry);
+        coalescedCounter = meterRegistry.counter("wechat.code2session.requests", "result", "coalesced");
+        cacheHitCounter = meterRegistry.counter("wechat.code2session.requests", "result", "cache-hit");
+        errorCounter = meterRegistry.counter("wechat.code2session.requests", "result", "error");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        ioExecutor.shutdown();
+    }
+
+    @Override
+    public WechatSession code2Session(String code) {
+        WechatSession cached = sessionCache.getIfPresent(code);
+        if (cached != null) {
+            cacheHitCounter.increment();
+            return cached;
+        }
+
+        CompletableFuture<Optional<WechatSession>> created = new CompletableFuture<>();
+        CompletableFuture<Optional<WechatSession>> future = inFlight.putIfAbsent(code, created);
+        if (future == null) {
+            future = created;
+            CompletableFuture<Optional<WechatSession>> response;
+            try {
+                response = request(code);
+            } catch (RuntimeException e) {
+                response = CompletableFuture.failedFuture(e);
+            }
+            response.whenComplete((session, error) -> {
+                // 先移除再完成：等待方拿到失败或空结果后立即重试时，不会再取到这个已结束的Future
+                if (error == null) {
+                    session.ifPresent(value -> sessionCache.put(code, value));
+                }
+                inFlight.remove(code, created);
+                if (error == null) {
+                    created.complete(session);
+                } else {
+                    created.completeExceptionally(error);
+                }
+            });
+        } else {
+            coalescedCounter.increment();
+        }
+
+        try {
+            // 比单次请求超时略长，HttpClient自身超时后会先以异常结束
+            return future.get(requestTimeout.toMillis() + connectTimeout.toMillis(), TimeUnit.MILLISECONDS).orElse(null);
+        } catch (TimeoutException e) {
+            errorCounter.increment();
+            throw new BusinessException(ResponseCode.SERVICE_UNAVAILABLE, "微信服务响应超时，请稍后重试");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ResponseCode.SERVICE_UNAVAILABLE, "请求已中断");
+        } catch (ExecutionException e) {
+            errorCounter.increment();
+            log.warn("调用微信code2session失败: {}", e.getCause() != null ? e.getCause().toString() : e.toString());
+            throw new BusinessException(ResponseCode.SERVICE_UNAVAILABLE, "微信服务暂时不可用，请稍后重试");
+        }
+    }
+
+    /**
+     * 发起异步请求；code无效时返回空结果，其他微信错误和网络错误以异常结束
+     */
+    private CompletableFuture<Optional<WechatSession>> request(String code) {
+        URI uri = URI.create(apiBaseUrl + CODE2SESSION_PATH
+                + "?appid=" + encode(appId)
+                + "&secret=" + encode(appSecret)
+                + "&js_code=" + encode(code)
+                + "&grant_type=authorization_code");
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(requestTimeout)
+                .GET()
+                .build();
+
+        long start = System.nanoTime();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8))
+                .thenApply(response -> {
+                    requestTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("微信接口返回HTTP " + response.statusCode());
+                    }
+                    return parse(response.body());
+                });
+    }
+
+    private static Optional<WechatSession> parse(String body) {
+        JSONObject json = JSON.parseObject(body);
+        int errcode = json.getIntValue("errcode");
+        if (errcode != 0) {
+            // 40029: code无效；40163: code已被使用
+            if (errcode == 40029 || errcode == 40163) {
+                return Optional.empty();
+            }
+            throw new IllegalStateException("微信接口错误 " + errcode + ": " + json.getString("errmsg"));
+        }
+        return Optional.of(new WechatSession(
+                json.getString("openid"),
+                json.getString("unionid"),
+                json.getString("session_key")
+        ));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,20 @@
+package top.alexjtech.educationapi.service.wechat.impl;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import top.alexjtech.educationapi.service.wechat.WechatAuthClient;
+import top.alexjtech.educationapi.service.wechat.WechatSession;
+
+/**
+ * 模拟微信登录客户端（开发环境使用，不访问微信服务器）
+ * openId固定为 mock_openid_ + code
+ */
+@Component
+@ConditionalOnProperty(name = "app.wechat.mock", havingValue = "true", matchIfMissing = true)
+public class MockWechatAuthClient implements WechatAuthClient {
+
+    @Override
+    public WechatSession code2Session(String code) {
+        return new WechatSession("mock_openid_" + code, null, "mock_session_key_" + code);
+    }
+}
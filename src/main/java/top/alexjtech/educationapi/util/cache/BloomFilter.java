@@ -0,0 +1,119 @@
+package top.alexjtech.educationapi.util.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 线程安全的布隆过滤器
+ * 只会误判存在（假阳性），不会误判不存在；写入和查询均为无锁操作，字符串哈希计算不产生对象分配
+ */
+public class BloomFilter {
+
+    private static final long SEED_1 = 0x9E3779B97F4A7C15L;
+    private static final long SEED_2 = 0xC2B2AE3D27D4EB4FL;
+
+    private final AtomicLongArray bits;
+    private final long bitSize;
+    private final int hashFunctions;
+    private final AtomicLong insertions = new AtomicLong();
+
+    /**
+     * @param expectedInsertions 预计写入元素数量
+     * @param fpp                期望假阳性率（0~1）
+     */
+    public BloomFilter(long expectedInsertions, double fpp) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("预计写入数量必须大于0");
+        }
+        if (fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("假阳性率必须在0和1之间");
+        }
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (optimalBits + 63) >>> 6);
+        this.bits = new AtomicLongArray(Math.max(words, 1));
+        this.bitSize = (long) this.bits.length() << 6;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * 写入元素
+     */
+    public void put(CharSequence value) {
+        long hash1 = hash(value, SEED_1);
+        long hash2 = hash(value, SEED_2);
+        for (int i = 0; i < hashFunctions; i++) {
+            setBit(index(hash1 + i * hash2));
+        }
+        insertions.incrementAndGet();
+    }
+
+    /**
+     * 判断元素是否可能存在，返回false时一定不存在
+     */
+    public boolean mightContain(CharSequence value) {
+        long hash1 = hash(value, SEED_1);
+        long hash2 = hash(value, SEED_2);
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = index(hash1 + i * hash2);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 已写入次数（重复写入也会计数）
+     */
+    public long getInsertions() {
+        return insertions.get();
+    }
+
+    /**
+     * 位数组大小（位）
+     */
+    public long getBitSize() {
+        return bitSize;
+    }
+
+    /**
+     * 按当前写入次数估算的假阳性率
+     */
+    public double expectedFpp() {
+        double exponent = -(double) hashFunctions * insertions.get() / bitSize;
+        return Math.pow(1 - Math.exp(exponent), hashFunctions);
+    }
+
+    private long index(long combinedHash) {
+        return (combinedHash & Long.MAX_VALUE) % bitSize;
+    }
+
+    private void setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(word, current, current | mask));
+    }
+
+    /**
+     * 64位字符串哈希（逐字符混合后使用MurmurHash3的finalizer扰动）
+     */
+    private static long hash(CharSequence value, long seed) {
+        long h = seed ^ value.length();
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001B3L;
+            h = Long.rotateLeft(h, 31);
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,84 @@
+package top.alexjtech.educationapi.util.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 分段令牌桶限流器
+ * 按键的哈希值映射到固定数量的桶，每个桶的状态（上次补充时间 + 剩余令牌）压缩在一个long中通过CAS更新，
+ * 无锁且获取令牌时不产生对象分配；不同键哈希冲突时共享同一个桶，桶数量足够大时影响可忽略
+ */
+public class StripedTokenBucket {
+
+    // 低20位保存剩余令牌（千分之一令牌为单位），高44位保存相对起始时间的毫秒数
+    private static final int TOKEN_BITS = 20;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long MILLI_TOKENS_PER_TOKEN = 1000L;
+
+    private final AtomicLongArray buckets;
+    private final int stripeMask;
+    private final long capacityMilliTokens;
+    // 每毫秒补充的千分之一令牌数，数值上等于每秒补充的令牌数
+    private final double refillMilliTokensPerMillis;
+    private final long epoch = System.currentTimeMillis();
+
+    /**
+     * @param stripes           桶数量，向上取整为2的幂
+     * @param capacity          桶容量（突发请求数），不超过1048
+     * @param refillPerSecond   每秒补充的令牌数
+     */
+    public StripedTokenBucket(int stripes, int capacity, double refillPerSecond) {
+        if (capacity <= 0 || capacity * MILLI_TOKENS_PER_TOKEN > TOKEN_MASK) {
+            throw new IllegalArgumentException("令牌桶容量必须在1到" + TOKEN_MASK / MILLI_TOKENS_PER_TOKEN + "之间");
+        }
+        if (refillPerSecond <= 0) {
+            throw new IllegalArgumentException("令牌补充速率必须大于0");
+        }
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.buckets = new AtomicLongArray(size);
+        this.stripeMask = size - 1;
+        this.capacityMilliTokens = capacity * MILLI_TOKENS_PER_TOKEN;
+        this.refillMilliTokensPerMillis = refillPerSecond;
+    }
+
+    /**
+     * 尝试为指定键获取一个令牌
+     *
+     * @return 获取成功返回true，令牌不足返回false
+     */
+    public boolean tryAcquire(CharSequence key) {
+        int index = (int) hash(key) & stripeMask;
+        // 时间偏移从1开始，0表示桶尚未使用
+        long now = System.currentTimeMillis() - epoch + 1;
+        while (true) {
+            long current = buckets.get(index);
+            long tokens;
+            if (current == 0) {
+                tokens = capacityMilliTokens;
+            } else {
+                long last = current >>> TOKEN_BITS;
+                long elapsed = Math.max(0, now - last);
+                tokens = Math.min(capacityMilliTokens,
+                        (current & TOKEN_MASK) + (long) (elapsed * refillMilliTokensPerMillis));
+            }
+
+            if (tokens < MILLI_TOKENS_PER_TOKEN) {
+                return false;
+            }
+            long updated = (now << TOKEN_BITS) | (tokens - MILLI_TOKENS_PER_TOKEN);
+            if (buckets.compareAndSet(index, current, updated)) {
+                return true;
+            }
+        }
+    }
+
+    private static long hash(CharSequence key) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
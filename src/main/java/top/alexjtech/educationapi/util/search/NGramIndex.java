@@ -0,0 +1,494 @@
+package top.alexjtech.educationapi.util.search;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 用户字段n-gram倒排索引
+ * 每个词项对应一个按ID升序排列的long数组；连续的ASCII字符（拼音用户名、手机号）切分为三元组，
+ * 其余字符（中文姓名、昵称）切分为二元组，另加前1个和前2个字符的前缀词项；
+ * 查询时归并各n-gram的倒排表计数，优先返回全部命中的结果，没有时按命中比例放宽以容忍错字
+ * 只增不删：文档修改后旧词项保留，由调用方回查原文过滤并定期重建；非线程安全，由调用方加锁
+ */
+public class NGramIndex {
+
+    private static final long KIND_BIGRAM = 1L << 48;
+    private static final long KIND_TRIGRAM = 2L << 48;
+    private static final long KIND_PREFIX1 = 3L << 48;
+    private static final long KIND_PREFIX2 = 4L << 48;
+    private static final long KIND_TAG = 5L << 48;
+    private static final long ALL_TERM = 6L << 48;
+
+    // 查询文本最大长度，超出部分忽略
+    private static final int MAX_QUERY_LENGTH = 32;
+
+    // 估算内存：HashMap条目、Long键、Posting对象和数组头
+    private static final long TERM_OVERHEAD_BYTES = 48 + 24 + 24 + 16;
+
+    private final Map<Long, Posting> postings = new HashMap<>();
+    private long postingCount;
+    private long memoryBytes;
+
+    /**
+     * 索引文档的各字段；同一ID可多次调用，新增的词项会合并到已有词项中
+     *
+     * @param id     文档ID
+     * @param tag    文档标签（如用户类型），查询时可按标签筛选，可为null
+     * @param fields 需要检索的字段，null忽略
+     */
+    public void add(long id, Integer tag, String... fields) {
+        addTerm(ALL_TERM, id);
+        if (tag != null) {
+            addTerm(KIND_TAG | (tag & 0xFFFFFFFFL), id);
+        }
+        for (String field : fields) {
+            Terms terms = terms(normalize(field));
+            if (terms == null) {
+                continue;
+            }
+            addTerm(terms.prefix1(), id);
+            if (terms.prefix2() != 0) {
+                addTerm(terms.prefix2(), id);
+            }
+            for (long gram : terms.grams()) {
+                addTerm(gram, id);
+            }
+        }
+    }
+
+    /**
+     * 检索并按得分排序
+     * 得分为命中的n-gram数量 x 2，文档以关键字开头时加1；得分相同时ID小的在前
+     * 单个字符、或两个ASCII字符的关键字只按开头匹配；
+     * 只返回命中n-gram最多的一档结果：有完全命中的结果时只返回这些结果，没有时逐个放宽直到比例阈值以容忍错字
+     *
+     * @param query         查询文本
+     * @param tag           只返回带该标签的文档，null表示不限
+     * @param minMatchRatio 放宽时至少命中n-gram的比例（0~1），越小越容忍错字
+     * @param offset        跳过的结果数
+     * @param limit         返回的结果数
+     * @return 命中结果
+     */
+    public Hits search(String query, Integer tag, double minMatchRatio, int offset, int limit) {
+        String text = normalize(query);
+        if (text.length() > MAX_QUERY_LENGTH) {
+            text = text.substring(0, MAX_QUERY_LENGTH);
+        }
+        Terms terms = terms(text);
+        if (terms == null || limit <= 0) {
+            return Hits.EMPTY;
+        }
+        Posting tagPosting = tag != null ? postings.get(KIND_TAG | (tag & 0xFFFFFFFFL)) : null;
+        if (tag != null && tagPosting == null) {
+            return Hits.EMPTY;
+        }
+        Posting prefix = postings.get(terms.prefix2() != 0 ? terms.prefix2() : terms.prefix1());
+
+        TopK topK = new TopK(offset + limit);
+        int total;
+        if (terms.prefixOnly()) {
+            total = prefix != null ? scan(prefix, tagPosting, topK) : 0;
+        } else {
+            long[] grams = terms.grams();
+            int required = requiredMatches(grams.length, minMatchRatio);
+            Posting[] lists = new Posting[grams.length];
+            int count = 0;
+            for (long gram : grams) {
+                Posting posting = postings.get(gram);
+                if (posting != null) {
+                    lists[count++] = posting;
+                }
+            }
+            if (count < required) {
+                return Hits.EMPTY;
+            }
+            lists = Arrays.copyOf(lists, count);
+            Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+            // 先要求命中全部n-gram，没有结果时每次少要求一个，直到比例阈值，容忍错字；
+            // 阈值越高需要归并的倒排表越少，常见的一两处错字在前几轮即可命中，无需归并大量长倒排表
+            total = 0;
+            for (int matches = count; matches >= required && total == 0; matches--) {
+                topK = new TopK(offset + limit);
+                total = merge(lists, matches, prefix, tagPosting, topK);
+            }
+        }
+        return new Hits(topK.sortedIds(offset, limit), total);
+    }
+
+    /**
+     * 按与检索相同的规则计算查询与原文的匹配得分，用于回查原文过滤过期的倒排记录
+     * 只校验是否满足放宽后的阈值，不区分是否完全命中
+     *
+     * @return 得分，未达到阈值返回0
+     */
+    public static int score(String query, double minMatchRatio, String... fields) {
+        String text = normalize(query);
+        if (text.length() > MAX_QUERY_LENGTH) {
+            text = text.substring(0, MAX_QUERY_LENGTH);
+        }
+        Terms queryTerms = terms(text);
+        if (queryTerms == null) {
+            return 0;
+        }
+        long[] docTerms = new long[0];
+        for (String field : fields) {
+            Terms fieldTerms = terms(normalize(field));
+            if (fieldTerms == null) {
+                continue;
+            }
+            int from = docTerms.length;
+            docTerms = Arrays.copyOf(docTerms, from + fieldTerms.grams().length + 2);
+            docTerms[from] = fieldTerms.prefix1();
+            docTerms[from + 1] = fieldTerms.prefix2();
+            System.arraycopy(fieldTerms.grams(), 0, docTerms, from + 2, fieldTerms.grams().length);
+        }
+        Arrays.sort(docTerms);
+        long prefixTerm = queryTerms.prefix2() != 0 ? queryTerms.prefix2() : queryTerms.prefix1();
+        boolean prefixMatched = Arrays.binarySearch(docTerms, prefixTerm) >= 0;
+        if (queryTerms.prefixOnly()) {
+            return prefixMatched ? 1 : 0;
+        }
+        int matched = 0;
+        for (long gram : queryTerms.grams()) {
+            if (Arrays.binarySearch(docTerms, gram) >= 0) {
+                matched++;
+            }
+        }
+        if (matched < requiredMatches(queryTerms.grams().length, minMatchRatio)) {
+            return 0;
+        }
+        return 2 * matched + (prefixMatched ? 1 : 0);
+    }
+
+    /**
+     * 已索引的文档数
+     */
+    public long documentCount() {
+        Posting all = postings.get(ALL_TERM);
+        return all != null ? all.size : 0;
+    }
+
+    public int termCount() {
+        return postings.size();
+    }
+
+    public long postingCount() {
+        return postingCount;
+    }
+
+    /**
+     * 估算占用的堆内存（字节），包含数组预留的空间
+     */
+    public long memoryBytes() {
+        return memoryBytes;
+    }
+
+    /**
+     * 单字查询：首字符倒排表中的文档得分均为1，按ID顺序取前K个
+     */
+    private int scan(Posting prefix, Posting tagPosting, TopK topK) {
+        int total = 0;
+        int tagPosition = 0;
+        for (int i = 0; i < prefix.size; i++) {
+            long id = prefix.ids[i];
+            if (tagPosting != null) {
+                tagPosition = advance(tagPosting, tagPosition, id);
+                if (tagPosition >= tagPosting.size || tagPosting.ids[tagPosition] != id) {
+                    continue;
+                }
+            }
+            total++;
+            topK.offer(1, id);
+        }
+        return total;
+    }
+
+    /**
+     * 统计每个文档命中的n-gram数量
+     * 倒排表已按长度升序排列；要求至少命中required个时，由抽屉原理，文档必定出现在最短的 (n - required + 1) 个表中，
+     * 因此只归并这些较短的表生成候选，再到较长的表中跳跃查找，避免遍历高频n-gram（如手机号数字组合）的长倒排表
+     */
+    private int merge(Posting[] lists, int required, Posting prefix, Posting tagPosting, TopK topK) {
+        int candidateLists = lists.length - required + 1;
+        int[] positions = new int[lists.length];
+        int prefixPosition = 0;
+        int tagPosition = 0;
+        int total = 0;
+        while (true) {
+            long id = Long.MAX_VALUE;
+            for (int i = 0; i < candidateLists; i++) {
+                if (positions[i] < lists[i].size && lists[i].ids[positions[i]] < id) {
+                    id = lists[i].ids[positions[i]];
+                }
+            }
+            if (id == Long.MAX_VALUE) {
+                return total;
+            }
+            int matched = 0;
+            for (int i = 0; i < candidateLists; i++) {
+                if (positions[i] < lists[i].size && lists[i].ids[positions[i]] == id) {
+                    matched++;
+                    positions[i]++;
+                }
+            }
+            // 候选ID递增，各表的查找位置只需向前推进
+            for (int i = candidateLists; i < lists.length && matched + lists.length - i >= required; i++) {
+                positions[i] = advance(lists[i], positions[i], id);
+                if (positions[i] < lists[i].size && lists[i].ids[positions[i]] == id) {
+                    matched++;
+                }
+            }
+            if (matched < required) {
+                continue;
+            }
+            if (tagPosting != null) {
+                tagPosition = advance(tagPosting, tagPosition, id);
+                if (tagPosition >= tagPosting.size || tagPosting.ids[tagPosition] != id) {
+                    continue;
+                }
+            }
+            int score = 2 * matched;
+            if (prefix != null) {
+                prefixPosition = advance(prefix, prefixPosition, id);
+                if (prefixPosition < prefix.size && prefix.ids[prefixPosition] == id) {
+                    score++;
+                }
+            }
+            total++;
+            topK.offer(score, id);
+        }
+    }
+
+    /**
+     * 从from开始查找第一个不小于id的位置（先倍增步长再二分）
+     */
+    private static int advance(Posting posting, int from, long id) {
+        long[] ids = posting.ids;
+        int size = posting.size;
+        if (from >= size || ids[from] >= id) {
+            return from;
+        }
+        int step = 1;
+        int low = from;
+        int high = from + 1;
+        while (high < size && ids[high] < id) {
+            low = high;
+            step <<= 1;
+            high = from + step;
+        }
+        int index = Arrays.binarySearch(ids, low + 1, Math.min(high, size - 1) + 1, id);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private static int requiredMatches(int grams, double minMatchRatio) {
+        return Math.max(1, (int) Math.ceil(grams * minMatchRatio));
+    }
+
+    private void addTerm(long term, long id) {
+        Posting posting = postings.get(term);
+        if (posting == null) {
+            posting = new Posting();
+            postings.put(term, posting);
+            memoryBytes += TERM_OVERHEAD_BYTES + 8L * posting.ids.length;
+        }
+        int before = posting.ids.length;
+        if (posting.add(id)) {
+            postingCount++;
+            memoryBytes += 8L * (posting.ids.length - before);
+        }
+    }
+
+    /**
+     * 切分文本：连续ASCII字符取三元组（长度恰好为2的ASCII片段取二元组），其余相邻字符取二元组
+     *
+     * @return 词项，空文本返回null
+     */
+    private static Terms terms(String text) {
+        int length = text.length();
+        if (length == 0) {
+            return null;
+        }
+        long prefix1 = KIND_PREFIX1 | text.charAt(0);
+        long prefix2 = length >= 2 ? KIND_PREFIX2 | ((long) text.charAt(0) << 16) | text.charAt(1) : 0;
+        long[] grams = new long[Math.max(length - 1, 0)];
+        int count = 0;
+        for (int i = 0; i + 1 < length; i++) {
+            char a = text.charAt(i);
+            char b = text.charAt(i + 1);
+            if (a < 0x80 && b < 0x80) {
+                if (i + 2 < length && text.charAt(i + 2) < 0x80) {
+                    grams[count++] = KIND_TRIGRAM | ((long) a << 14) | ((long) b << 7) | text.charAt(i + 2);
+                } else if (i == 0 || text.charAt(i - 1) >= 0x80) {
+                    grams[count++] = KIND_BIGRAM | ((long) a << 16) | b;
+                }
+            } else {
+                grams[count++] = KIND_BIGRAM | ((long) a << 16) | b;
+            }
+        }
+        grams = Arrays.copyOf(grams, count);
+        Arrays.sort(grams);
+        int unique = 0;
+        for (int i = 0; i < grams.length; i++) {
+            if (i == 0 || grams[i] != grams[i - 1]) {
+                grams[unique++] = grams[i];
+            }
+        }
+        boolean ascii = true;
+        for (int i = 0; i < length && ascii; i++) {
+            ascii = text.charAt(i) < 0x80;
+        }
+        // 单个字符、两个ASCII字符无法可靠地按片段匹配，只按开头匹配
+        boolean prefixOnly = length == 1 || (length == 2 && ascii);
+        return new Terms(prefix1, prefix2, Arrays.copyOf(grams, unique), prefixOnly);
+    }
+
+    /**
+     * 归一化：转小写，只保留字母和数字（包括中文），去掉空白和标点
+     */
+    static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder(text.length());
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 文本切分结果
+     *
+     * @param prefix1    首字符词项
+     * @param prefix2    前两个字符词项，文本只有一个字符时为0
+     * @param grams      去重后的n-gram词项
+     * @param prefixOnly 是否只能按开头匹配
+     */
+    private record Terms(long prefix1, long prefix2, long[] grams, boolean prefixOnly) {
+    }
+
+    /**
+     * 检索结果
+     *
+     * @param ids   当前页的文档ID（按得分排序）
+     * @param total 满足条件的文档总数
+     */
+    public record Hits(long[] ids, int total) {
+
+        static final Hits EMPTY = new Hits(new long[0], 0);
+    }
+
+    /**
+     * 倒排表：按ID升序排列的long数组
+     */
+    private static final class Posting {
+
+        private long[] ids = new long[2];
+        private int size;
+
+        /**
+         * @return 是否新增（ID已存在时返回false）
+         */
+        boolean add(long id) {
+            // 全量构建和新增用户时ID递增，直接追加
+            if (size == 0 || ids[size - 1] < id) {
+                ensureCapacity();
+                ids[size++] = id;
+                return true;
+            }
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return false;
+            }
+            int insertAt = -index - 1;
+            ensureCapacity();
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+            return true;
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length + (ids.length >> 1) + 1);
+            }
+        }
+    }
+
+    /**
+     * 保留得分最高的K个结果的小顶堆；得分和ID编码为一个long，得分高、ID小的排在前面
+     */
+    private static final class TopK {
+
+        private static final long ID_MASK = (1L << 40) - 1;
+
+        private final long[] heap;
+        private int size;
+
+        TopK(int capacity) {
+            this.heap = new long[capacity];
+        }
+
+        void offer(int score, long id) {
+            long key = ((long) score << 40) | (ID_MASK - (id & ID_MASK));
+            if (size < heap.length) {
+                heap[size] = key;
+                siftUp(size++);
+            } else if (heap.length > 0 && key > heap[0]) {
+                heap[0] = key;
+                siftDown(0);
+            }
+        }
+
+        long[] sortedIds(int offset, int limit) {
+            long[] keys = Arrays.copyOf(heap, size);
+            Arrays.sort(keys);
+            int from = Math.min(offset, size);
+            int to = Math.min(offset + limit, size);
+            long[] ids = new long[to - from];
+            for (int i = from; i < to; i++) {
+                // 升序排序后从尾部取，即按得分从高到低
+                ids[i - from] = ID_MASK - (keys[size - 1 - i] & ID_MASK);
+            }
+            return ids;
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (heap[parent] <= heap[index]) {
+                    return;
+                }
+                swap(parent, index);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int left = 2 * index + 1;
+                if (left >= size) {
+                    return;
+                }
+                int smallest = left + 1 < size && heap[left + 1] < heap[left] ? left + 1 : left;
+                if (heap[index] <= heap[smallest]) {
+                    return;
+                }
+                swap(index, smallest);
+                index = smallest;
+            }
+        }
+
+        private void swap(int i, int j) {
+            long tmp = heap[i];
+            heap[i] = heap[j];
+            heap[j] = tmp;
+        }
+    }
+}
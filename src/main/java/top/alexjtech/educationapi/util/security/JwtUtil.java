@@ -1,44 +1,151 @@
 package top.alexjtech.educationapi.util.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import top.alexjtech.educationapi.entity.CustomUserDetails;
 
-import java.security.Key;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /**
  * JWT工具类
  * 用于生成和验证JWT令牌
+ * 签名密钥和解析器在启动时构建一次；验证结果按令牌摘要缓存，重复请求无需再次校验签名
  */
 @Component
 public class JwtUtil {
 
+    /**
+     * 令牌声明：用户ID
+     */
+    public static final String CLAIM_USER_ID = "uid";
+
+    /**
+     * 令牌声明：用户类型
+     */
+    public static final String CLAIM_USER_TYPE = "utype";
+
+    /**
+     * 令牌声明：角色列表
+     */
+    public static final String CLAIM_ROLES = "roles";
+
+    /**
+     * 令牌声明：令牌格式版本
+     */
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+
+    /**
+     * 当前令牌格式版本，携带用户ID、用户类型和角色，可无状态构建用户身份
+     */
+    public static final int TOKEN_VERSION = 1;
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("当前JVM不支持SHA-256", e);
+        }
+    });
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    // 验证结果缓存最大条目数，0表示关闭缓存
+    @Value("${jwt.verify-cache.max-size:10000}")
+    private long verifyCacheMaxSize;
+
+    // 验证结果缓存最长保留时间（毫秒），实际保留时间不超过令牌剩余有效期
+    @Value("${jwt.verify-cache.max-ttl:600000}")
+    private long verifyCacheMaxTtl;
+
+    private SecretKey signingKey;
+
+    private JwtParser jwtParser;
+
+    private Cache<String, VerifiedToken> verifiedTokenCache;
+
+    /**
+     * 初始化签名密钥、解析器和验证结果缓存
+     */
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        if (verifyCacheMaxSize > 0) {
+            this.verifiedTokenCache = Caffeine.newBuilder()
+                    .maximumSize(verifyCacheMaxSize)
+                    .expireAfter(new VerifiedTokenExpiry(TimeUnit.MILLISECONDS.toNanos(verifyCacheMaxTtl)))
+                    .build();
+        }
+    }
+
+    /**
+     * 验证令牌并一次性解析全部声明
+     * 命中缓存时不再解析和校验签名；签名无效或令牌过期时抛出JwtException
+     *
+     * @param token JWT令牌
+     * @return 已验证的令牌
+     */
+    public VerifiedToken verify(String token) {
+        if (verifiedTokenCache == null) {
+            return parse(token);
+        }
+
+        String cacheKey = digest(token);
+        VerifiedToken cached = verifiedTokenCache.getIfPresent(cacheKey);
+        if (cached != null) {
+            if (!cached.isExpired(System.currentTimeMillis())) {
+                return cached;
+            }
+            verifiedTokenCache.invalidate(cacheKey);
+        }
+
+        VerifiedToken verified = parse(token);
+        verifiedTokenCache.put(cacheKey, verified);
+        return verified;
+    }
+
     /**
      * 从令牌中获取用户名
      */
     public String getUsernameFromToken(String token) {
-        return getClaimFromToken(token, Claims::getSubject);
+        return verify(token).getSubject();
     }
 
     /**
      * 从令牌中获取过期时间
      */
     public Date getExpirationDateFromToken(String token) {
-        return getClaimFromToken(token, Claims::getExpiration);
+        return new Date(verify(token).getExpiration());
     }
 
     /**
@@ -53,50 +160,118 @@ public class JwtUtil {
      * 从令牌中获取所有声明
      */
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return jwtParser.parseSignedClaims(token).getPayload();
     }
 
     /**
-     * 获取签名密钥
+     * 解析并校验令牌，构建不可变的已验证令牌对象
      */
-    private Key getSigningKey() {
-        byte[] keyBytes = secret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    private VerifiedToken parse(String token) {
+        final Claims claims = getAllClaimsFromToken(token);
+
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        List<?> roleClaims = claims.get(CLAIM_ROLES, List.class);
+        List<String> roles = new ArrayList<>();
+        if (roleClaims != null) {
+            for (Object role : roleClaims) {
+                roles.add(String.valueOf(role));
+            }
+        }
+        Date issuedAt = claims.getIssuedAt();
+
+        return new VerifiedToken(
+                claims.getId(),
+                claims.getSubject(),
+                userId != null ? userId.longValue() : null,
+                claims.get(CLAIM_USER_TYPE, Integer.class),
+                roles,
+                claims.get(CLAIM_TOKEN_VERSION, Integer.class),
+                issuedAt != null ? issuedAt.getTime() : 0L,
+                claims.getExpiration().getTime()
+        );
     }
 
     /**
-     * 检查令牌是否已过期
+     * 计算令牌摘要，作为验证结果缓存的键
      */
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+    private static String digest(String token) {
+        byte[] hash = SHA256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
     }
 
     /**
      * 生成令牌
+     * 对于CustomUserDetails，额外写入用户ID、用户类型、角色和令牌版本，供无状态认证使用
      */
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof CustomUserDetails customUserDetails) {
+            claims.put(CLAIM_USER_ID, customUserDetails.getUserId());
+            claims.put(CLAIM_USER_TYPE, customUserDetails.getUserType());
+            claims.put(CLAIM_ROLES, customUserDetails.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .toList());
+            claims.put(CLAIM_TOKEN_VERSION, TOKEN_VERSION);
+        }
         return doGenerateToken(claims, userDetails.getUsername());
     }
 
+    /**
+     * 直接从已验证的令牌声明构建用户详情，不访问数据库
+     * 令牌签名或有效期校验失败时抛出异常；旧版本令牌（不含用户ID等声明）返回null，由调用方回退到数据库校验
+     *
+     * @param token JWT令牌
+     * @return 用户详情，旧版本令牌返回null
+     */
+    public CustomUserDetails getUserDetailsFromToken(String token) {
+        return getUserDetails(verify(token));
+    }
+
+    /**
+     * 从已验证的令牌构建用户详情，旧版本令牌返回null
+     */
+    public CustomUserDetails getUserDetails(VerifiedToken verifiedToken) {
+        if (!verifiedToken.isStateless()) {
+            return null;
+        }
+
+        List<SimpleGrantedAuthority> authorities = new ArrayList<>(verifiedToken.getRoles().size());
+        for (String role : verifiedToken.getRoles()) {
+            authorities.add(new SimpleGrantedAuthority(role));
+        }
+
+        // 无状态身份不携带密码
+        return new CustomUserDetails(
+                verifiedToken.getSubject(),
+                "",
+                verifiedToken.getUserId(),
+                verifiedToken.getUserType(),
+                authorities
+        );
+    }
+
+    /**
+     * 令牌有效期（毫秒）
+     */
+    public long getExpirationMillis() {
+        return expiration;
+    }
+
     /**
      * 生成令牌的核心方法
      */
     private String doGenerateToken(Map<String, Object> claims, String subject) {
         final Date createdDate = new Date();
-        final Date expirationDate = new Date(createdDate.getTime() + expiration * 1000);
+        // jwt.expiration 的单位为毫秒
+        final Date expirationDate = new Date(createdDate.getTime() + expiration);
 
         return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(subject)
-                .setIssuedAt(createdDate)
-                .setExpiration(expirationDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .claims(claims)
+                .id(UUID.randomUUID().toString())
+                .subject(subject)
+                .issuedAt(createdDate)
+                .expiration(expirationDate)
+                .signWith(signingKey, Jwts.SIG.HS256)
                 .compact();
     }
 
@@ -104,7 +279,41 @@ public class JwtUtil {
      * 验证令牌
      */
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = getUsernameFromToken(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        try {
+            return validateToken(verify(token), userDetails);
+        } catch (ExpiredJwtException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 验证已解析的令牌是否属于指定用户且未过期
+     */
+    public boolean validateToken(VerifiedToken verifiedToken, UserDetails userDetails) {
+        return verifiedToken.getSubject().equals(userDetails.getUsername())
+                && !verifiedToken.isExpired(System.currentTimeMillis());
+    }
+
+    /**
+     * 验证结果缓存的过期策略：不超过令牌剩余有效期，也不超过配置的最长保留时间
+     */
+    private record VerifiedTokenExpiry(long maxTtlNanos) implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            long remainingMillis = value.getExpiration() - System.currentTimeMillis();
+            long remainingNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0L));
+            return Math.min(remainingNanos, maxTtlNanos);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,81 @@
+package top.alexjtech.educationapi.util.security;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 已验证的JWT令牌
+ * 令牌签名和有效期校验通过后一次性解析出的不可变声明集合，可在缓存中安全复用
+ */
+@Getter
+public final class VerifiedToken {
+
+    /**
+     * 令牌唯一标识（jti，旧版本令牌为null）
+     */
+    private final String tokenId;
+
+    /**
+     * 主题（用户名或微信OpenID）
+     */
+    private final String subject;
+
+    /**
+     * 用户ID（旧版本令牌为null）
+     */
+    private final Long userId;
+
+    /**
+     * 用户类型
+     */
+    private final Integer userType;
+
+    /**
+     * 角色列表（不可修改）
+     */
+    private final List<String> roles;
+
+    /**
+     * 令牌格式版本（旧版本令牌为null）
+     */
+    private final Integer version;
+
+    /**
+     * 签发时间（毫秒时间戳）
+     */
+    private final long issuedAt;
+
+    /**
+     * 过期时间（毫秒时间戳）
+     */
+    private final long expiration;
+
+    public VerifiedToken(String tokenId, String subject, Long userId, Integer userType, List<String> roles, Integer version,
+                         long issuedAt, long expiration) {
+        this.tokenId = tokenId;
+        this.subject = subject;
+        this.userId = userId;
+        this.userType = userType;
+        this.roles = roles != null ? List.copyOf(roles) : List.of();
+        this.version = version;
+        this.issuedAt = issuedAt;
+        this.expiration = expiration;
+    }
+
+    /**
+     * 是否已过期
+     *
+     * @param now 当前毫秒时间戳
+     */
+    public boolean isExpired(long now) {
+        return expiration <= now;
+    }
+
+    /**
+     * 是否携带无状态认证所需的完整声明
+     */
+    public boolean isStateless() {
+        return version != null && version == JwtUtil.TOKEN_VERSION && userId != null;
+    }
+}
@@ -0,0 +1,30 @@
+package top.alexjtech.educationapi.vo;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 游标分页结果VO
+ * 按主键定位下一页（WHERE id > 游标），翻页深度不影响查询耗时
+ */
+@Data
+@Schema(description = "游标分页结果")
+public class KeysetPageVO<T> {
+
+    @Schema(description = "当前页数据")
+    private List<T> records;
+
+    @Schema(description = "每页条数")
+    private int size;
+
+    @Schema(description = "是否还有下一页")
+    private boolean hasMore;
+
+    @Schema(description = "下一页游标，没有下一页时为空")
+    private Long nextCursor;
+
+    @Schema(description = "满足条件的总数（定期刷新的缓存值，可能与实时数据略有出入；该条件首次查询、尚未统计完成时为null）")
+    private Long total;
+}
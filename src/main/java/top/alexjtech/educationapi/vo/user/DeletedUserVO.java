@@ -0,0 +1,67 @@
+package top.alexjtech.educationapi.vo.user;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 已删除用户VO（审计查询，包含已归档和尚在保留期内的用户）
+ */
+@Data
+@Schema(description = "已删除用户")
+public class DeletedUserVO {
+
+    @Schema(description = "用户ID")
+    private Long id;
+
+    @Schema(description = "用户名")
+    private String username;
+
+    @Schema(description = "邮箱")
+    private String email;
+
+    @Schema(description = "手机号")
+    private String phone;
+
+    @Schema(description = "用户类型")
+    private Integer userType;
+
+    @Schema(description = "用户类型描述")
+    private String userTypeDesc;
+
+    @Schema(description = "真实姓名")
+    private String realName;
+
+    @Schema(description = "昵称")
+    private String nickname;
+
+    @Schema(description = "删除前的状态")
+    private Integer status;
+
+    @Schema(description = "最后登录时间")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime lastLoginTime;
+
+    @Schema(description = "最后登录IP")
+    private String lastLoginIp;
+
+    @Schema(description = "微信OpenID")
+    private String wechatOpenId;
+
+    @Schema(description = "备注")
+    private String remark;
+
+    @Schema(description = "创建时间")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createTime;
+
+    @Schema(description = "删除时间，为空表示删除时未记录（不会被归档）")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime deletedTime;
+
+    @Schema(description = "归档时间，为空表示尚未归档（仍在用户表中）")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime archivedTime;
+}
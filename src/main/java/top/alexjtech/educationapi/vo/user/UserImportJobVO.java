@@ -0,0 +1,42 @@
+package top.alexjtech.educationapi.vo.user;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户批量导入任务VO
+ */
+@Data
+@Schema(description = "用户批量导入任务")
+public class UserImportJobVO {
+
+    public static final String RUNNING = "RUNNING";
+    public static final String SUCCEEDED = "SUCCEEDED";
+    public static final String FAILED = "FAILED";
+
+    @Schema(description = "任务ID")
+    private String jobId;
+
+    @Schema(description = "任务状态（RUNNING：进行中，SUCCEEDED：已完成，FAILED：失败）")
+    private String status;
+
+    @Schema(description = "已读取的数据行数")
+    private int processedRows;
+
+    @Schema(description = "导入结果，任务完成后返回")
+    private UserImportResultVO result;
+
+    @Schema(description = "失败原因，任务失败时返回")
+    private String message;
+
+    @Schema(description = "提交时间")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime submitTime;
+
+    @Schema(description = "结束时间")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime finishTime;
+}
@@ -0,0 +1,51 @@
+package top.alexjtech.educationapi.vo.user;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 用户批量导入结果VO
+ */
+@Data
+@Schema(description = "用户批量导入结果")
+public class UserImportResultVO {
+
+    @Schema(description = "数据行总数（不含表头）")
+    private int total;
+
+    @Schema(description = "导入成功行数")
+    private int succeeded;
+
+    @Schema(description = "导入失败行数")
+    private int failed;
+
+    @Schema(description = "失败明细（最多返回前若干条）")
+    private List<RowError> errors = new ArrayList<>();
+
+    @Schema(description = "耗时（毫秒）")
+    private long elapsedMillis;
+
+    /**
+     * 单行导入失败信息
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "导入失败行")
+    public static class RowError {
+
+        @Schema(description = "行号（与表格中的行号一致，表头为第1行）")
+        private int row;
+
+        @Schema(description = "用户名")
+        private String username;
+
+        @Schema(description = "失败原因")
+        private String message;
+    }
+}
@@ -0,0 +1,30 @@
+package top.alexjtech.educationapi.vo.user;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import top.alexjtech.educationapi.vo.UserInfoVO;
+
+import java.util.List;
+
+/**
+ * 用户搜索结果VO
+ */
+@Data
+@Schema(description = "用户搜索结果")
+public class UserSearchResultVO {
+
+    @Schema(description = "当前页用户（按匹配程度排序）")
+    private List<UserInfoVO> records;
+
+    @Schema(description = "匹配的用户总数（包含少量待重建索引时清除的过期匹配）")
+    private int total;
+
+    @Schema(description = "页码（从1开始）")
+    private int page;
+
+    @Schema(description = "每页条数")
+    private int size;
+
+    @Schema(description = "检索耗时（毫秒）")
+    private double tookMillis;
+}
@@ -0,0 +1,42 @@
+-- 用户表基础结构
+-- 新环境直接建表；已有库（按 spring.flyway.baseline-on-migrate 以版本0建立基线后）跳过建表，只补齐缺少的列
+-- 所有语句可重复执行
+
+CREATE TABLE IF NOT EXISTS `sys_user` (
+    `id`                 bigint(20)   NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+    `username`           varchar(64)  NOT NULL COMMENT '用户名',
+    `password`           varchar(100) DEFAULT NULL COMMENT '密码（BCrypt哈希）',
+    `email`              varchar(128) DEFAULT NULL COMMENT '邮箱',
+    `phone`              varchar(20)  DEFAULT NULL COMMENT '手机号',
+    `user_type`          int(11)      DEFAULT NULL COMMENT '用户类型（1：学生，2：老师，3：管理员）',
+    `real_name`          varchar(64)  DEFAULT NULL COMMENT '真实姓名',
+    `nickname`           varchar(64)  DEFAULT NULL COMMENT '昵称',
+    `avatar_url`         varchar(512) DEFAULT NULL COMMENT '头像',
+    `gender`             int(11)      DEFAULT 0 COMMENT '性别（0：未知，1：男，2：女）',
+    `birthday`           date         DEFAULT NULL COMMENT '生日',
+    `status`             int(11)      NOT NULL DEFAULT 0 COMMENT '用户状态（0：正常，1：禁用）',
+    `last_login_time`    datetime     DEFAULT NULL COMMENT '最后登录时间',
+    `last_login_ip`      varchar(64)  DEFAULT NULL COMMENT '最后登录IP',
+    `wechat_open_id`     varchar(128) DEFAULT NULL COMMENT '微信OpenID',
+    `wechat_union_id`    varchar(128) DEFAULT NULL COMMENT '微信UnionID',
+    `wechat_session_key` varchar(128) DEFAULT NULL COMMENT '微信会话密钥',
+    `remark`             varchar(500) DEFAULT NULL COMMENT '备注信息',
+    `version`            int(11)      NOT NULL DEFAULT 0 COMMENT '乐观锁版本号',
+    `deleted`            tinyint(1)   NOT NULL DEFAULT 0 COMMENT '逻辑删除标志（0：未删除，1：已删除）',
+    `create_time`        datetime     DEFAULT NULL COMMENT '创建时间',
+    `update_time`        datetime     DEFAULT NULL COMMENT '更新时间',
+    PRIMARY KEY (`id`)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COMMENT = '用户表';
+
+-- 用户类型含义调整（原 update_user_type_20241223.sql）：1：网页端，2：微信小程序 -> 1：学生，2：老师，值不变
+ALTER TABLE `sys_user`
+    MODIFY COLUMN `user_type` int(11) DEFAULT NULL COMMENT '用户类型（1：学生，2：老师，3：管理员）';
+
+-- 乐观锁版本号（原 add_user_version_20261017.sql）
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+               WHERE table_schema = DATABASE() AND table_name = 'sys_user' AND column_name = 'version') = 0,
+              'ALTER TABLE `sys_user` ADD COLUMN `version` int(11) NOT NULL DEFAULT 0 COMMENT ''乐观锁版本号''',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
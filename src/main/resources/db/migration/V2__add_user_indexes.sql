@@ -0,0 +1,48 @@
+-- 用户表索引：UserMapper.xml 中每个按条件查询的语句都需要命中索引（启动时由 IndexCoverageChecker 检查）
+-- 原 add_login_identifier_indexes_20261017.sql 和 update_user_type_20241223.sql 中的索引；已存在同名索引时跳过
+-- 唯一索引创建前重复数据必须为空（包括已逻辑删除的记录），否则迁移失败、应用不会启动，检查语句：
+-- SELECT username, COUNT(*) FROM sys_user GROUP BY username HAVING COUNT(*) > 1;
+-- SELECT email, COUNT(*) FROM sys_user WHERE email IS NOT NULL GROUP BY email HAVING COUNT(*) > 1;
+-- SELECT phone, COUNT(*) FROM sys_user WHERE phone IS NOT NULL GROUP BY phone HAVING COUNT(*) > 1;
+
+-- 空字符串会违反唯一约束，统一改为NULL（唯一索引允许多个NULL）
+UPDATE `sys_user` SET `email` = NULL WHERE `email` = '';
+UPDATE `sys_user` SET `phone` = NULL WHERE `phone` = '';
+
+-- 登录标识唯一索引：登录、注册查重按 username / email / phone 单列精确查询
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'sys_user' AND index_name = 'uk_username') = 0,
+              'ALTER TABLE `sys_user` ADD UNIQUE INDEX `uk_username` (`username`)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'sys_user' AND index_name = 'uk_email') = 0,
+              'ALTER TABLE `sys_user` ADD UNIQUE INDEX `uk_email` (`email`)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'sys_user' AND index_name = 'uk_phone') = 0,
+              'ALTER TABLE `sys_user` ADD UNIQUE INDEX `uk_phone` (`phone`)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 微信登录按OpenID查询；历史数据可能存在重复OpenID，使用普通索引
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'sys_user' AND index_name = 'idx_wechat_open_id') = 0,
+              'ALTER TABLE `sys_user` ADD INDEX `idx_wechat_open_id` (`wechat_open_id`)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 用户目录按用户类型筛选（二级索引隐含主键，即 (user_type, id) 有序，游标分页无需排序）
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'sys_user' AND index_name = 'idx_user_type') = 0,
+              'ALTER TABLE `sys_user` ADD INDEX `idx_user_type` (`user_type`)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
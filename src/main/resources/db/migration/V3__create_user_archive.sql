@@ -0,0 +1,53 @@
+-- 已删除用户归档（原 add_user_archive_20261017.sql）
+-- 逻辑删除超过保留期的用户由定时任务（UserArchiveJob）分批移入 sys_user_archive，
+-- sys_user 及其索引只保留有效用户和保留期内的已删除用户；归档用户通过管理端审计接口查询
+-- 注意：归档后原用户名、邮箱、手机号不再受 sys_user 唯一索引约束，可被新用户注册
+
+-- 归档表：不保存密码和微信会话密钥；同一标识可能属于多个先后被删除的用户，只建普通索引
+CREATE TABLE IF NOT EXISTS `sys_user_archive` (
+    `id`              bigint(20)   NOT NULL COMMENT '原用户ID',
+    `username`        varchar(255) DEFAULT NULL COMMENT '用户名',
+    `email`           varchar(255) DEFAULT NULL COMMENT '邮箱',
+    `phone`           varchar(32)  DEFAULT NULL COMMENT '手机号',
+    `user_type`       int(11)      DEFAULT NULL COMMENT '用户类型（1：学生，2：老师，3：管理员）',
+    `real_name`       varchar(255) DEFAULT NULL COMMENT '真实姓名',
+    `nickname`        varchar(255) DEFAULT NULL COMMENT '昵称',
+    `avatar_url`      varchar(512) DEFAULT NULL COMMENT '头像',
+    `gender`          int(11)      DEFAULT NULL COMMENT '性别（0：未知，1：男，2：女）',
+    `birthday`        date         DEFAULT NULL COMMENT '生日',
+    `status`          int(11)      DEFAULT NULL COMMENT '删除前的用户状态（0：正常，1：禁用）',
+    `last_login_time` datetime     DEFAULT NULL COMMENT '最后登录时间',
+    `last_login_ip`   varchar(64)  DEFAULT NULL COMMENT '最后登录IP',
+    `wechat_open_id`  varchar(128) DEFAULT NULL COMMENT '微信OpenID',
+    `wechat_union_id` varchar(128) DEFAULT NULL COMMENT '微信UnionID',
+    `remark`          text COMMENT '备注信息',
+    `create_time`     datetime     DEFAULT NULL COMMENT '创建时间',
+    `update_time`     datetime     DEFAULT NULL COMMENT '最后修改时间',
+    `deleted_time`    datetime     DEFAULT NULL COMMENT '删除时间',
+    `archived_time`   datetime     NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '归档时间',
+    PRIMARY KEY (`id`),
+    KEY `idx_username` (`username`),
+    KEY `idx_email` (`email`),
+    KEY `idx_phone` (`phone`)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COMMENT = '已删除用户归档表';
+
+-- 用户删除时间：归档保留期按它计算。update_time 不可靠（MyBatis-Plus 逻辑删除不执行更新填充，删除后的其他更新也会改写它）
+-- 由 UserMapper.logicDeleteById 写入；其他途径删除、没有删除时间的用户由归档任务在每次执行开始时补写
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+               WHERE table_schema = DATABASE() AND table_name = 'sys_user' AND column_name = 'deleted_time') = 0,
+              'ALTER TABLE `sys_user` ADD COLUMN `deleted_time` datetime DEFAULT NULL COMMENT ''删除时间'' AFTER `deleted`',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- 已删除用户的真实删除时间无从得知，从迁移时刻开始计算保留期，不会提前归档
+UPDATE `sys_user` SET `deleted_time` = NOW() WHERE `deleted` = 1 AND `deleted_time` IS NULL;
+
+-- 归档任务按 deleted = 1 AND deleted_time < ? 选取待归档用户，按删除时间顺序读取索引，不扫描有效用户
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'sys_user' AND index_name = 'idx_deleted_time') = 0,
+              'ALTER TABLE `sys_user` ADD INDEX `idx_deleted_time` (`deleted`, `deleted_time`)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,93 @@
+package top.alexjtech.educationapi.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+import top.alexjtech.educationapi.entity.CustomUserDetails;
+import top.alexjtech.educationapi.util.security.JwtUtil;
+import top.alexjtech.educationapi.util.security.VerifiedToken;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT验证性能对比
+ * legacyFilterPath 复现改造前过滤器的调用方式：每次调用重新派生密钥、构建解析器，同一请求解析三次
+ * 运行方式：在IDE中直接执行main方法
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "education-api-jwt-secret-key-for-authentication-and-authorization";
+
+    private JwtUtil cachedJwtUtil;
+    private JwtUtil uncachedJwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachedJwtUtil = createJwtUtil(10000);
+        uncachedJwtUtil = createJwtUtil(0);
+        token = cachedJwtUtil.generateToken(new CustomUserDetails("student01", "", 42L, 1,
+                List.of(new SimpleGrantedAuthority("ROLE_STUDENT"))));
+    }
+
+    @Benchmark
+    public boolean legacyFilterPath() {
+        // 过滤器中取用户名，validateToken中再取用户名和过期时间
+        String username = legacyClaims(token).getSubject();
+        boolean sameUser = legacyClaims(token).getSubject().equals(username);
+        Date expiration = legacyClaims(token).getExpiration();
+        return sameUser && !expiration.before(new Date());
+    }
+
+    @Benchmark
+    public VerifiedToken singlePassVerify() {
+        return uncachedJwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public VerifiedToken cachedVerify() {
+        return cachedJwtUtil.verify(token);
+    }
+
+    private static Claims legacyClaims(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        return Jwts.parser()
+                .verifyWith(key)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    private static JwtUtil createJwtUtil(long verifyCacheMaxSize) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86400000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifyCacheMaxSize", verifyCacheMaxSize);
+        ReflectionTestUtils.setField(jwtUtil, "verifyCacheMaxTtl", 600000L);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        return jwtUtil;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,80 @@
+package top.alexjtech.educationapi.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import top.alexjtech.educationapi.util.search.NGramIndex;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户n-gram索引检索延迟
+ * 按真实分布生成用户（拼音用户名、中文姓名、11位手机号），查询依次为姓名、用户名前缀、手机号后四位、
+ * 用户名中段和交换相邻字符的错字；SampleTime模式输出p50/p99等分位数
+ * 运行方式：在IDE中直接执行main方法，默认20万用户，可通过 -p users=1000000 测量百万规模
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class NGramIndexBenchmark {
+
+    private static final String[] SURNAMES = {"张", "王", "李", "赵", "刘", "陈", "杨", "黄", "周", "吴"};
+    private static final String NAME_CHARS = "伟芳娜敏静丽强磊军洋勇艳杰娟涛明超秀霞平刚桂英华玉兰";
+    private static final String[] SYLLABLES = {"zhang", "wang", "li", "zhao", "liu", "chen", "yang", "huang",
+            "zhou", "wu", "xiao", "ming", "hua", "jun", "fang", "na", "min", "jing"};
+
+    @Param({"200000"})
+    private int users;
+
+    private NGramIndex index;
+    private String[] queries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new NGramIndex();
+        queries = new String[2000];
+        int step = users / queries.length;
+        for (int id = 1; id <= users; id++) {
+            String username = SYLLABLES[random.nextInt(SYLLABLES.length)] + SYLLABLES[random.nextInt(SYLLABLES.length)]
+                    + random.nextInt(1000);
+            String realName = SURNAMES[random.nextInt(SURNAMES.length)]
+                    + NAME_CHARS.charAt(random.nextInt(NAME_CHARS.length()))
+                    + (random.nextBoolean() ? String.valueOf(NAME_CHARS.charAt(random.nextInt(NAME_CHARS.length()))) : "");
+            String phone = "1" + (3 + random.nextInt(7)) + String.format("%09d", random.nextInt(1_000_000_000));
+            index.add(id, 1 + random.nextInt(2), username, realName, null, phone);
+            if (id % step == 0 && id / step <= queries.length) {
+                int q = id / step - 1;
+                queries[q] = switch (q % 5) {
+                    case 0 -> realName;
+                    case 1 -> username.substring(0, Math.min(6, username.length()));
+                    case 2 -> phone.substring(7);
+                    case 3 -> username.substring(1);
+                    // 错字：交换相邻两个字符
+                    default -> username.charAt(1) + username.substring(0, 1) + username.substring(2);
+                };
+            }
+        }
+    }
+
+    @Benchmark
+    public NGramIndex.Hits search() {
+        String query = queries[next];
+        next = (next + 1) % queries.length;
+        return index.search(query, null, 0.3, 0, 20);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(NGramIndexBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,154 @@
+package top.alexjtech.educationapi.benchmark;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.MybatisSqlSessionFactoryBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import top.alexjtech.educationapi.config.mybatis.MapperCacheInterceptor;
+import top.alexjtech.educationapi.config.mybatis.RedisMapperCache;
+import top.alexjtech.educationapi.entity.User;
+import top.alexjtech.educationapi.mapper.UserMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserMapper二级缓存性能对比
+ * uncached 使用关闭二级缓存的配置直接查询MySQL，cached 经Redis二级缓存（预热后均为命中）
+ * 每次调用使用独立会话并提交，与非事务环境下SqlSessionTemplate的调用方式一致
+ * 运行方式：启动本地MySQL（库中至少有一个带邮箱的用户）和Redis后，在IDE中直接执行main方法；
+ * 连接参数可用 -Dbench.jdbc.url / bench.jdbc.username / bench.jdbc.password / bench.redis.host / bench.redis.port 覆盖
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserMapperCacheBenchmark {
+
+    private DruidDataSource dataSource;
+    private LettuceConnectionFactory redisConnectionFactory;
+    private SqlSessionFactory uncachedFactory;
+    private SqlSessionFactory cachedFactory;
+    private Long userId;
+    private String email;
+
+    @Setup
+    public void setUp() throws SQLException, IOException {
+        dataSource = new DruidDataSource();
+        dataSource.setUrl(System.getProperty("bench.jdbc.url",
+                "jdbc:mysql://localhost:3306/education_api?useUnicode=true&characterEncoding=utf8&serverTimezone=GMT%2B8&useSSL=false&allowPublicKeyRetrieval=true"));
+        dataSource.setUsername(System.getProperty("bench.jdbc.username", "root"));
+        dataSource.setPassword(System.getProperty("bench.jdbc.password", "12345678"));
+        dataSource.init();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                     "SELECT id, email FROM sys_user WHERE email IS NOT NULL AND deleted = 0 LIMIT 1")) {
+            if (!resultSet.next()) {
+                throw new IllegalStateException("sys_user 中没有带邮箱的用户");
+            }
+            userId = resultSet.getLong(1);
+            email = resultSet.getString(2);
+        }
+
+        redisConnectionFactory = new LettuceConnectionFactory(System.getProperty("bench.redis.host", "localhost"),
+                Integer.getInteger("bench.redis.port", 6379));
+        redisConnectionFactory.afterPropertiesSet();
+        redisConnectionFactory.start();
+        RedisTemplate<String, byte[]> bytesRedisTemplate = new RedisTemplate<>();
+        bytesRedisTemplate.setConnectionFactory(redisConnectionFactory);
+        bytesRedisTemplate.setKeySerializer(RedisSerializer.string());
+        bytesRedisTemplate.setValueSerializer(RedisSerializer.byteArray());
+        bytesRedisTemplate.afterPropertiesSet();
+        RedisMapperCache cache = new RedisMapperCache(UserMapper.class.getName(), bytesRedisTemplate,
+                Duration.ofMinutes(10), new SimpleMeterRegistry());
+        cache.clear();
+
+        uncachedFactory = sqlSessionFactory(cache, false);
+        cachedFactory = sqlSessionFactory(cache, true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        redisConnectionFactory.destroy();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public User selectByIdUncached() {
+        return selectById(uncachedFactory);
+    }
+
+    @Benchmark
+    public User selectByIdCached() {
+        return selectById(cachedFactory);
+    }
+
+    @Benchmark
+    public User selectByEmailUncached() {
+        return selectByEmail(uncachedFactory);
+    }
+
+    @Benchmark
+    public User selectByEmailCached() {
+        return selectByEmail(cachedFactory);
+    }
+
+    private User selectById(SqlSessionFactory factory) {
+        try (SqlSession session = factory.openSession(true)) {
+            User user = session.getMapper(UserMapper.class).selectById(userId);
+            session.commit();
+            return user;
+        }
+    }
+
+    private User selectByEmail(SqlSessionFactory factory) {
+        try (SqlSession session = factory.openSession(true)) {
+            User user = session.getMapper(UserMapper.class).selectByEmail(email);
+            session.commit();
+            return user;
+        }
+    }
+
+    private SqlSessionFactory sqlSessionFactory(RedisMapperCache cache, boolean cacheEnabled) throws IOException {
+        MybatisConfiguration configuration = new MybatisConfiguration();
+        configuration.setMapUnderscoreToCamelCase(true);
+        configuration.setCacheEnabled(cacheEnabled);
+        configuration.setEnvironment(new Environment("benchmark", new JdbcTransactionFactory(), dataSource));
+        configuration.addCache(cache);
+        configuration.addInterceptor(new MapperCacheInterceptor(cache, List.of("selectById", "selectByEmail")));
+        try (InputStream in = UserMapperCacheBenchmark.class.getResourceAsStream("/mapper/UserMapper.xml")) {
+            new XMLMapperBuilder(in, configuration, "mapper/UserMapper.xml", configuration.getSqlFragments()).parse();
+        }
+        return new MybatisSqlSessionFactoryBuilder().build(configuration);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(UserMapperCacheBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,24 @@
+package top.alexjtech.educationapi.common;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LoginIdentifierTypeTest {
+
+    @Test
+    void classifiesPhoneEmailAndUsername() {
+        assertEquals(LoginIdentifierType.PHONE, LoginIdentifierType.classify("13812345678"));
+        assertEquals(LoginIdentifierType.EMAIL, LoginIdentifierType.classify("alice@example.com"));
+        assertEquals(LoginIdentifierType.USERNAME, LoginIdentifierType.classify("alice"));
+    }
+
+    @Test
+    void treatsNearMissesAsUsername() {
+        assertEquals(LoginIdentifierType.USERNAME, LoginIdentifierType.classify("12812345678"));
+        assertEquals(LoginIdentifierType.USERNAME, LoginIdentifierType.classify("138123456789"));
+        assertEquals(LoginIdentifierType.USERNAME, LoginIdentifierType.classify("@alice"));
+        assertEquals(LoginIdentifierType.USERNAME, LoginIdentifierType.classify("alice@"));
+        assertEquals(LoginIdentifierType.USERNAME, LoginIdentifierType.classify(null));
+    }
+}
@@ -0,0 +1,75 @@
+package top.alexjtech.educationapi.config.datasource;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import com.alibaba.druid.pool.GetConnectionTimeoutException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DruidPoolMetricsFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DruidDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        meterRegistry = new SimpleMeterRegistry();
+        DruidPoolMetricsFilter filter = new DruidPoolMetricsFilter(meterRegistry);
+        ReflectionTestUtils.setField(filter, "timeoutLogInterval", Duration.ofSeconds(10));
+
+        dataSource = new DruidDataSource();
+        dataSource.setName("primary");
+        dataSource.setUrl("jdbc:h2:mem:pool" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setInitialSize(1);
+        dataSource.setMaxActive(1);
+        dataSource.setMaxWait(100);
+        dataSource.setValidationQuery("SELECT 1");
+        dataSource.setPoolPreparedStatements(true);
+        dataSource.setProxyFilters(List.of(filter));
+        dataSource.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void recordsPoolStateAndBorrowTime() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            assertEquals(1.0, meterRegistry.get("druid.pool.active").tag("pool", "primary").gauge().value());
+            assertEquals(1.0, meterRegistry.get("druid.pool.usage").tag("pool", "primary").gauge().value());
+            for (int i = 0; i < 2; i++) {
+                try (PreparedStatement statement = connection.prepareStatement("SELECT 1")) {
+                    statement.executeQuery().close();
+                }
+            }
+        }
+        assertEquals(0.0, meterRegistry.get("druid.pool.active").tag("pool", "primary").gauge().value());
+        assertEquals(1, meterRegistry.get("druid.pool.borrow").tag("pool", "primary").tag("outcome", "success").timer().count());
+        assertEquals(1.0, meterRegistry.get("druid.pool.pscache.hits").tag("pool", "primary").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("druid.pool.pscache.misses").tag("pool", "primary").functionCounter().count());
+    }
+
+    @Test
+    void recordsBorrowTimeoutWhenPoolExhausted() throws SQLException {
+        try (Connection ignored = dataSource.getConnection()) {
+            assertThrows(GetConnectionTimeoutException.class, dataSource::getConnection);
+        }
+        assertEquals(1, meterRegistry.get("druid.pool.borrow").tag("outcome", "timeout").timer().count());
+        assertTrue(meterRegistry.get("druid.pool.borrow").tag("outcome", "timeout").timer()
+                .totalTime(TimeUnit.MILLISECONDS) >= 100);
+        assertTrue(meterRegistry.get("druid.pool.borrow.waits").tag("pool", "primary").functionCounter().count() >= 1);
+    }
+}
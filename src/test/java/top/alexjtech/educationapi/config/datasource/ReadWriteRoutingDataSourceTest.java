@@ -0,0 +1,137 @@
+package top.alexjtech.educationapi.config.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 使用两个H2内存库分别代替主库和只读副本，按查询结果判断连接被路由到哪个库
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private JdbcTemplate replicaAdmin;
+    private FlakyDataSource replica;
+    private SimpleMeterRegistry meterRegistry;
+    private ReadWriteRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource primary = h2("primary");
+        replica = new FlakyDataSource(h2("replica"));
+        replicaAdmin = new JdbcTemplate(replica);
+        replicaAdmin.execute("CREATE TABLE replica_lag (seconds BIGINT)");
+        replicaAdmin.update("INSERT INTO replica_lag VALUES (0)");
+
+        meterRegistry = new SimpleMeterRegistry();
+        routing = new ReadWriteRoutingDataSource(primary, Map.of("replica-0", replica), Duration.ofSeconds(5),
+                "SELECT seconds FROM replica_lag", meterRegistry);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadWriteRoutingContext.clear();
+    }
+
+    @Test
+    void routesReadOnlyTransactionsToHealthyReplica() {
+        // 首次检查前副本状态未知，只读事务也使用主库
+        assertEquals("primary", readOnlyQuery());
+
+        routing.checkReplicas();
+        assertEquals("replica", readOnlyQuery());
+        assertEquals(1.0, meterRegistry.get("datasource.replica.healthy").gauge().value());
+        // 非事务语句和读写事务使用主库
+        assertEquals("primary", jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+        assertEquals("primary", readWrite.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class)));
+    }
+
+    @Test
+    void pinsPrimaryAfterWriteWithinRequest() {
+        routing.checkReplicas();
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("UPDATE node SET name = 'primary'"));
+        assertEquals("primary", readOnlyQuery());
+
+        // 请求结束后恢复读副本
+        ReadWriteRoutingContext.clear();
+        assertEquals("replica", readOnlyQuery());
+        assertEquals(1.0, meterRegistry.get("datasource.route").tag("reason", "pinned").counter().count());
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenReplicaLagsOrFails() {
+        routing.checkReplicas();
+        assertEquals("replica", readOnlyQuery());
+
+        replicaAdmin.update("UPDATE replica_lag SET seconds = 30");
+        routing.checkReplicas();
+        assertEquals("primary", readOnlyQuery());
+        assertEquals(30.0, meterRegistry.get("datasource.replica.lag").gauge().value());
+
+        replicaAdmin.update("UPDATE replica_lag SET seconds = 1");
+        routing.checkReplicas();
+        assertEquals("replica", readOnlyQuery());
+
+        // 获取副本连接失败时本次回退主库并暂停使用副本，直到检查再次通过
+        replica.failing = true;
+        assertEquals("primary", readOnlyQuery());
+        assertEquals(0.0, meterRegistry.get("datasource.replica.healthy").gauge().value());
+        replica.failing = false;
+        assertEquals("primary", readOnlyQuery());
+        routing.checkReplicas();
+        assertEquals("replica", readOnlyQuery());
+        assertEquals(3.0, meterRegistry.get("datasource.route").tag("reason", "fallback").counter().count());
+    }
+
+    private String readOnlyQuery() {
+        return readOnly.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private static JdbcDataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbc.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    private static final class FlakyDataSource extends DelegatingDataSource {
+
+        private volatile boolean failing;
+
+        private FlakyDataSource(JdbcDataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (failing) {
+                throw new SQLException("Connection refused");
+            }
+            return super.getConnection();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package top.alexjtech.educationapi.config.mybatis;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.cache.impl.PerpetualCache;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import top.alexjtech.educationapi.mapper.UserMapper;
+
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class IndexCoverageCheckerTest {
+
+    private Connection connection;
+    private MybatisConfiguration configuration;
+    private IndexCoverageChecker checker;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:index_check;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        connection = dataSource.getConnection();
+        // 与 db/migration 中的表结构和索引一致
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE sys_user (id bigint AUTO_INCREMENT PRIMARY KEY, username varchar(64),"
+                    + " password varchar(100), email varchar(128), phone varchar(20), user_type int, real_name varchar(64),"
+                    + " nickname varchar(64), avatar_url varchar(512), gender int, birthday date, status int,"
+                    + " last_login_time datetime, last_login_ip varchar(64), wechat_open_id varchar(128),"
+                    + " wechat_union_id varchar(128), wechat_session_key varchar(128), remark varchar(500),"
+                    + " version int, deleted tinyint, deleted_time datetime, create_time datetime, update_time datetime)");
+            statement.execute("CREATE UNIQUE INDEX uk_username ON sys_user (username)");
+            statement.execute("CREATE UNIQUE INDEX uk_email ON sys_user (email)");
+            statement.execute("CREATE UNIQUE INDEX uk_phone ON sys_user (phone)");
+            statement.execute("CREATE INDEX idx_wechat_open_id ON sys_user (wechat_open_id)");
+            statement.execute("CREATE INDEX idx_user_type ON sys_user (user_type)");
+            statement.execute("CREATE INDEX idx_deleted_time ON sys_user (deleted, deleted_time)");
+            statement.execute("CREATE TABLE sys_user_archive (id bigint PRIMARY KEY, username varchar(255),"
+                    + " email varchar(255), phone varchar(32), user_type int, real_name varchar(255), nickname varchar(255),"
+                    + " avatar_url varchar(512), gender int, birthday date, status int, last_login_time datetime,"
+                    + " last_login_ip varchar(64), wechat_open_id varchar(128), wechat_union_id varchar(128), remark text,"
+                    + " create_time datetime, update_time datetime, deleted_time datetime, archived_time datetime)");
+            statement.execute("CREATE INDEX idx_archive_username ON sys_user_archive (username)");
+            statement.execute("CREATE INDEX idx_archive_email ON sys_user_archive (email)");
+            statement.execute("CREATE INDEX idx_archive_phone ON sys_user_archive (phone)");
+        }
+
+        configuration = new MybatisConfiguration();
+        // UserMapper.xml 引用的二级缓存
+        configuration.addCache(new PerpetualCache(UserMapper.class.getName()));
+        for (String resource : List.of("mapper/UserMapper.xml", "mapper/UserArchiveMapper.xml")) {
+            try (InputStream in = getClass().getClassLoader().getResourceAsStream(resource)) {
+                new XMLMapperBuilder(in, configuration, resource, configuration.getSqlFragments()).parse();
+            }
+        }
+
+        checker = new IndexCoverageChecker(null, mock(javax.sql.DataSource.class));
+        ReflectionTestUtils.setField(checker, "lowSelectivityColumns", Set.of("deleted", "status"));
+        ReflectionTestUtils.setField(checker, "ignoredStatements", Set.of("selectIdentifiers", "selectSearchFields"));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Test
+    void migrationIndexesCoverAllMappedStatements() throws Exception {
+        assertEquals(List.of(), checker.findUnindexedStatements(configuration, connection));
+    }
+
+    @Test
+    void reportsStatementsWhoseIndexIsMissing() throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP INDEX uk_email");
+            statement.execute("DROP INDEX idx_deleted_time");
+        }
+
+        List<String> problems = checker.findUnindexedStatements(configuration, connection);
+
+        assertTrue(problems.stream().anyMatch(p -> p.contains("UserMapper.selectByEmail ")), problems.toString());
+        assertTrue(problems.stream().anyMatch(p -> p.contains("UserMapper.selectAuthByEmail ")), problems.toString());
+        // 按三个标识之一查询的UNION中email分支不再命中索引
+        assertTrue(problems.stream().anyMatch(p -> p.contains("UserMapper.selectExistingIdentifiers ")), problems.toString());
+        // 只有 deleted = 1 可用时不算命中索引
+        assertTrue(problems.stream().anyMatch(p -> p.contains("UserArchiveMapper.lockExpiredIds ")), problems.toString());
+        assertFalse(problems.stream().anyMatch(p -> p.contains("UserMapper.selectByPhone ")), problems.toString());
+    }
+}
@@ -0,0 +1,142 @@
+package top.alexjtech.educationapi.config.mybatis;
+
+import org.apache.ibatis.binding.MapperMethod;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import top.alexjtech.educationapi.dto.user.LastLoginDTO;
+import top.alexjtech.educationapi.entity.User;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class MapperCacheInterceptorTest {
+
+    private static final String NAMESPACE = "top.alexjtech.educationapi.mapper.UserMapper";
+    private static final Method QUERY;
+    private static final Method UPDATE;
+
+    static {
+        try {
+            QUERY = Executor.class.getMethod("query", MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class);
+            UPDATE = Executor.class.getMethod("update", MappedStatement.class, Object.class);
+        } catch (NoSuchMethodException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Configuration configuration = new Configuration();
+    private RedisMapperCache cache;
+    private Executor executor;
+    private MapperCacheInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        cache = mock(RedisMapperCache.class);
+        when(cache.getId()).thenReturn(NAMESPACE);
+        executor = mock(Executor.class);
+        interceptor = new MapperCacheInterceptor(cache, List.of("selectByEmail"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        if (TransactionSynchronizationManager.hasResource(cache)) {
+            TransactionSynchronizationManager.unbindResource(cache);
+        }
+    }
+
+    @Test
+    void bypassesCacheForStatementsNotEnabled() throws Throwable {
+        Object[] enabled = queryArgs(statement("selectByEmail", SqlCommandType.SELECT));
+        interceptor.intercept(new Invocation(executor, QUERY, enabled));
+        assertTrue(((MappedStatement) enabled[0]).isUseCache());
+
+        Object[] disabled = queryArgs(statement("selectByWechatOpenId", SqlCommandType.SELECT));
+        interceptor.intercept(new Invocation(executor, QUERY, disabled));
+        assertFalse(((MappedStatement) disabled[0]).isUseCache());
+        assertSame(cache, ((MappedStatement) disabled[0]).getCache());
+    }
+
+    @Test
+    void invalidatesUpdatedUserInsteadOfFlushingNamespace() throws Throwable {
+        MapperMethod.ParamMap<Object> params = new MapperMethod.ParamMap<>();
+        params.put("id", 42L);
+        params.put("loginIp", "127.0.0.1");
+        Object[] args = {statement("updateLastLoginInfo", SqlCommandType.UPDATE), params};
+        interceptor.intercept(new Invocation(executor, UPDATE, args));
+
+        assertFalse(((MappedStatement) args[0]).isFlushCacheRequired());
+        verify(cache).invalidate(Set.of(42L));
+
+        // 未做精确失效的写语句保持清空命名空间
+        Object[] other = {statement("updateStatus", SqlCommandType.UPDATE), params};
+        interceptor.intercept(new Invocation(executor, UPDATE, other));
+        assertTrue(((MappedStatement) other[0]).isFlushCacheRequired());
+    }
+
+    @Test
+    void defersInvalidationUntilCommitAndSkipsCacheInsideTransaction() throws Throwable {
+        TransactionSynchronizationManager.initSynchronization();
+        User user = new User();
+        user.setId(7L);
+        MapperMethod.ParamMap<Object> params = new MapperMethod.ParamMap<>();
+        params.put("et", user);
+        interceptor.intercept(new Invocation(executor, UPDATE, new Object[]{statement("updateById", SqlCommandType.UPDATE), params}));
+        verify(cache, never()).invalidate(any());
+
+        // 同一事务内的查询读数据库，能看到本事务的写入
+        Object[] query = queryArgs(statement("selectByEmail", SqlCommandType.SELECT));
+        interceptor.intercept(new Invocation(executor, QUERY, query));
+        assertFalse(((MappedStatement) query[0]).isUseCache());
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        verify(cache).invalidate(Set.of(7L));
+        assertFalse(TransactionSynchronizationManager.hasResource(cache));
+    }
+
+    @Test
+    void extractsUserIdsFromBatchLoginRecords() {
+        MapperMethod.ParamMap<Object> params = new MapperMethod.ParamMap<>();
+        params.put("records", List.of(login(1L), login(2L), login(1L)));
+        assertEquals(Set.of(1L, 2L), MapperCacheInterceptor.userIds(params));
+    }
+
+    private static LastLoginDTO login(Long userId) {
+        LastLoginDTO login = new LastLoginDTO();
+        login.setUserId(userId);
+        return login;
+    }
+
+    private static Object[] queryArgs(MappedStatement ms) {
+        return new Object[]{ms, null, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER};
+    }
+
+    private MappedStatement statement(String name, SqlCommandType type) {
+        return new MappedStatement.Builder(configuration, NAMESPACE + "." + name, new StaticSqlSource(configuration, "SELECT 1"), type)
+                .cache(cache)
+                .useCache(type == SqlCommandType.SELECT)
+                .flushCacheRequired(type != SqlCommandType.SELECT)
+                .build();
+    }
+}
@@ -0,0 +1,112 @@
+package top.alexjtech.educationapi.config.mybatis;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StatementMetricsInterceptorTest {
+
+    private static final Method QUERY;
+    private static final Method UPDATE;
+
+    static {
+        try {
+            QUERY = Executor.class.getMethod("query", MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class);
+            UPDATE = Executor.class.getMethod("update", MappedStatement.class, Object.class);
+        } catch (NoSuchMethodException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Configuration configuration = new Configuration();
+    private SimpleMeterRegistry meterRegistry;
+    private Executor executor;
+    private StatementMetricsInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = mock(Executor.class);
+        interceptor = new StatementMetricsInterceptor(meterRegistry);
+        ReflectionTestUtils.setField(interceptor, "slowThreshold", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(interceptor, "slowLogInterval", Duration.ofMinutes(1));
+    }
+
+    @Test
+    void recordsLatencyAndRowsPerStatement() throws Throwable {
+        MappedStatement select = statement("top.alexjtech.educationapi.mapper.UserMapper.selectByUsername", SqlCommandType.SELECT);
+        when(executor.query(any(), any(), any(), any())).thenReturn(List.of("a", "b", "c"));
+        MappedStatement update = statement("top.alexjtech.educationapi.mapper.UserMapper.updateById", SqlCommandType.UPDATE);
+        when(executor.update(any(), any())).thenReturn(1);
+
+        interceptor.intercept(query(select));
+        interceptor.intercept(query(select));
+        interceptor.intercept(new Invocation(executor, UPDATE, new Object[]{update, null}));
+
+        Timer timer = meterRegistry.get("mybatis.statement")
+                .tag("statement", "UserMapper.selectByUsername").tag("type", "select").tag("outcome", "success").timer();
+        assertEquals(2, timer.count());
+        assertEquals(6.0, meterRegistry.get("mybatis.statement.rows")
+                .tag("statement", "UserMapper.selectByUsername").summary().totalAmount());
+        assertEquals(1.0, meterRegistry.get("mybatis.statement.rows")
+                .tag("statement", "UserMapper.updateById").tag("type", "update").summary().totalAmount());
+        assertEquals(0.0, meterRegistry.get("mybatis.statement.slow")
+                .tag("statement", "UserMapper.selectByUsername").counter().count());
+    }
+
+    @Test
+    void countsFailuresAndSlowStatements() throws Throwable {
+        MappedStatement select = statement("top.alexjtech.educationapi.mapper.UserMapper.selectPage", SqlCommandType.SELECT);
+        when(executor.query(any(), any(), any(), any())).thenThrow(new SQLException("Deadlock found"));
+
+        // 直接调用Invocation时异常未经插件代理解包
+        assertThrows(InvocationTargetException.class, () -> interceptor.intercept(query(select)));
+        assertEquals(1, meterRegistry.get("mybatis.statement")
+                .tag("statement", "UserMapper.selectPage").tag("outcome", "error").timer().count());
+
+        // 阈值为0时每次都是慢查询，间隔内只记录一次日志，计数不受影响
+        ReflectionTestUtils.setField(interceptor, "slowThreshold", Duration.ZERO);
+        doReturn(List.of()).when(executor).query(any(), any(), any(), any());
+        interceptor.intercept(query(select));
+        interceptor.intercept(query(select));
+        interceptor.intercept(query(select));
+        assertEquals(3.0, meterRegistry.get("mybatis.statement.slow")
+                .tag("statement", "UserMapper.selectPage").counter().count());
+    }
+
+    @Test
+    void shortensStatementName() {
+        assertEquals("UserMapper.selectById", StatementMetricsInterceptor.statementName("a.b.UserMapper.selectById"));
+        assertEquals("selectById", StatementMetricsInterceptor.statementName("selectById"));
+    }
+
+    private Invocation query(MappedStatement ms) {
+        return new Invocation(executor, QUERY, new Object[]{ms, null, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER});
+    }
+
+    private MappedStatement statement(String id, SqlCommandType type) {
+        return new MappedStatement.Builder(configuration, id, new StaticSqlSource(configuration, "SELECT 1"), type).build();
+    }
+}
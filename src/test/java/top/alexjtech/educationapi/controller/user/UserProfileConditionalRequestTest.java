@@ -0,0 +1,82 @@
+package top.alexjtech.educationapi.controller.user;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import top.alexjtech.educationapi.entity.CustomUserDetails;
+import top.alexjtech.educationapi.entity.User;
+import top.alexjtech.educationapi.service.user.UserService;
+import top.alexjtech.educationapi.service.user.UserValidator;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class UserProfileConditionalRequestTest {
+
+    private UserService userService;
+    private MockMvc mockMvc;
+    private UsernamePasswordAuthenticationToken authentication;
+
+    @BeforeEach
+    void setUp() {
+        userService = mock(UserService.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new UserController(userService, null, null)).build();
+        CustomUserDetails principal = new CustomUserDetails("student01", "", 42L, 1,
+                List.of(new SimpleGrantedAuthority("ROLE_STUDENT")));
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+
+        User user = new User();
+        user.setId(42L);
+        user.setUsername("student01");
+        user.setUpdateTime(LocalDateTime.of(2026, 10, 1, 8, 0));
+        user.setVersion(3);
+        when(userService.getUserById(42L)).thenReturn(user);
+        when(userService.getUserValidator(42L)).thenReturn(UserValidator.of(user));
+    }
+
+    @Test
+    void returnsEtagThenNotModifiedWithoutLoadingUser() throws Exception {
+        MvcResult first = mockMvc.perform(get("/user/profile").principal(authentication))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn();
+        String etag = first.getResponse().getHeader("ETag");
+        verify(userService, times(1)).getUserById(42L);
+
+        mockMvc.perform(get("/user/profile").principal(authentication).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+        verify(userService, times(1)).getUserById(42L);
+    }
+
+    @Test
+    void staleEtagReturnsFullProfile() throws Exception {
+        mockMvc.perform(get("/user/profile").principal(authentication).header("If-None-Match", "\"v1-2a-0\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.username").value("student01"));
+    }
+
+    @Test
+    void sameSecondUpdateChangesEtag() throws Exception {
+        User user = userService.getUserById(42L);
+        String etag = UserValidator.of(user).getEtag();
+
+        // 同一秒内再次修改资料：update_time不变，version递增
+        user.setVersion(4);
+        when(userService.getUserValidator(42L)).thenReturn(UserValidator.of(user));
+
+        mockMvc.perform(get("/user/profile").principal(authentication).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.username").value("student01"));
+    }
+}
@@ -0,0 +1,103 @@
+package top.alexjtech.educationapi.service.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import top.alexjtech.educationapi.exception.BusinessException;
+import top.alexjtech.educationapi.mapper.UserMapper;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PasswordHashServiceTest {
+
+    private UserMapper userMapper;
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashService hashService;
+
+    @BeforeEach
+    void setUp() {
+        userMapper = mock(UserMapper.class);
+        meterRegistry = new SimpleMeterRegistry();
+        hashService = new PasswordHashService(userMapper, meterRegistry);
+        ReflectionTestUtils.setField(hashService, "poolSize", 1);
+        ReflectionTestUtils.setField(hashService, "queueCapacity", 1);
+        ReflectionTestUtils.setField(hashService, "hashTimeout", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(hashService, "fixedStrength", 5);
+        ReflectionTestUtils.invokeMethod(hashService, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(hashService, "shutdown");
+    }
+
+    @Test
+    void parsesCostAndOnlyRehashesUpward() {
+        assertEquals(10, PasswordHashService.parseStrength("$2a$10$abcdefghijklmnopqrstuu"));
+        assertEquals(4, PasswordHashService.parseStrength(new BCryptPasswordEncoder(4).encode("secret")));
+        assertEquals(-1, PasswordHashService.parseStrength("plain-text"));
+        assertEquals(-1, PasswordHashService.parseStrength("$2a$"));
+        assertEquals(-1, PasswordHashService.parseStrength("$2a$xx$abcdefg"));
+        assertEquals(-1, PasswordHashService.parseStrength(null));
+
+        assertTrue(hashService.needsRehash("$2a$04$abcdefghijklmnopqrstuu"));
+        assertFalse(hashService.needsRehash("$2a$05$abcdefghijklmnopqrstuu"));
+        // 其他节点标定出更高的cost时不降级
+        assertFalse(hashService.needsRehash("$2a$06$abcdefghijklmnopqrstuu"));
+        assertFalse(hashService.needsRehash("plain-text"));
+    }
+
+    @Test
+    void rejectsWith503WhenQueueIsFull() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(userMapper.updatePasswordHash(eq(1L), anyString(), anyString())).thenAnswer(i -> {
+            running.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return 1;
+        });
+        String old = new BCryptPasswordEncoder(4).encode("secret");
+
+        // 唯一的线程被占用，再提交一个任务占满队列
+        hashService.rehashAsync(1L, "secret", old);
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        hashService.rehashAsync(2L, "secret", old);
+
+        BusinessException e = assertThrows(BusinessException.class, () -> hashService.matches("secret", old));
+        assertEquals(503, e.getCode());
+        assertEquals(1, meterRegistry.counter("password.hash.rejected").count());
+        release.countDown();
+    }
+
+    @Test
+    void rehashReplacesHashOnlyIfUnchanged() throws Exception {
+        String old = new BCryptPasswordEncoder(4).encode("secret");
+        CountDownLatch updated = new CountDownLatch(2);
+        when(userMapper.updatePasswordHash(anyLong(), anyString(), anyString())).thenAnswer(i -> {
+            updated.countDown();
+            // 用户2的密码在此期间已被修改，条件更新不生效
+            return i.getArgument(0, Long.class) == 1L ? 1 : 0;
+        });
+
+        hashService.rehashAsync(1L, "secret", old);
+        hashService.rehashAsync(2L, "secret", old);
+        assertTrue(updated.await(5, TimeUnit.SECONDS));
+
+        ArgumentCaptor<String> newHash = ArgumentCaptor.forClass(String.class);
+        verify(userMapper, timeout(5000)).updatePasswordHash(eq(1L), eq(old), newHash.capture());
+        assertEquals(5, PasswordHashService.parseStrength(newHash.getValue()));
+        assertTrue(hashService.matches("secret", newHash.getValue()));
+        // 只有条件更新成功的用户计入
+        assertEquals(1, meterRegistry.counter("password.hash.rehashed").count());
+    }
+}
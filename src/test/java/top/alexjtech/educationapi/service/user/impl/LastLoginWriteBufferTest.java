@@ -0,0 +1,132 @@
+package top.alexjtech.educationapi.service.user.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import top.alexjtech.educationapi.dto.user.LastLoginDTO;
+import top.alexjtech.educationapi.mapper.UserMapper;
+import top.alexjtech.educationapi.service.user.UserCacheService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LastLoginWriteBufferTest {
+
+    private UserMapper userMapper;
+    private UserCacheService userCacheService;
+    private LastLoginWriteBuffer buffer;
+    // 每次批量UPDATE的记录（复制，不受调用方后续修改影响）
+    private final List<List<LastLoginDTO>> batches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        userMapper = mock(UserMapper.class);
+        userCacheService = mock(UserCacheService.class);
+        when(userMapper.batchUpdateLastLoginInfo(anyList())).thenAnswer(i -> {
+            List<LastLoginDTO> records = i.getArgument(0);
+            batches.add(List.copyOf(records));
+            return records.size();
+        });
+        buffer = new LastLoginWriteBuffer(userMapper, userCacheService, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(buffer, "flushThreshold", 100);
+        ReflectionTestUtils.setField(buffer, "batchSize", 100);
+        ReflectionTestUtils.invokeMethod(buffer, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(buffer, "shutdown");
+    }
+
+    @Test
+    void coalescesLoginsPerUserAndInvalidatesCache() {
+        buffer.record(1L, "10.0.0.1");
+        buffer.record(2L, null);
+        buffer.record(1L, "10.0.0.2");
+
+        buffer.flush();
+
+        assertEquals(1, batches.size());
+        Map<Long, LastLoginDTO> written = byUser(batches.get(0));
+        assertEquals(Set.of(1L, 2L), written.keySet());
+        assertEquals("10.0.0.2", written.get(1L).getLoginIp());
+        verify(userCacheService).invalidateAll(argThat(ids -> Set.copyOf(ids).equals(Set.of(1L, 2L))));
+
+        // 已写出的记录不再重复写入
+        buffer.flush();
+        assertEquals(1, batches.size());
+    }
+
+    @Test
+    void splitsFlushIntoBatchesOfConfiguredSize() {
+        ReflectionTestUtils.setField(buffer, "batchSize", 2);
+        for (long id = 1; id <= 5; id++) {
+            buffer.record(id, null);
+        }
+
+        buffer.flush();
+
+        assertEquals(List.of(2, 2, 1), batches.stream().map(List::size).toList());
+        Set<Long> written = batches.stream().flatMap(List::stream).map(LastLoginDTO::getUserId).collect(Collectors.toSet());
+        assertEquals(Set.of(1L, 2L, 3L, 4L, 5L), written);
+        verify(userCacheService, times(3)).invalidateAll(anyCollection());
+    }
+
+    @Test
+    void flushesInBackgroundWhenThresholdIsReached() {
+        ReflectionTestUtils.setField(buffer, "flushThreshold", 3);
+        buffer.record(1L, null);
+        buffer.record(2L, null);
+        verify(userMapper, after(200).never()).batchUpdateLastLoginInfo(anyList());
+
+        buffer.record(3L, null);
+
+        verify(userMapper, timeout(5000)).batchUpdateLastLoginInfo(anyList());
+        verify(userCacheService, timeout(5000)).invalidateAll(anyCollection());
+    }
+
+    @Test
+    void requeuesFailedBatchWithoutOverwritingNewerLogins() {
+        reset(userMapper);
+        when(userMapper.batchUpdateLastLoginInfo(anyList()))
+                .thenAnswer(i -> {
+                    // 写入期间用户1再次登录
+                    buffer.record(1L, "10.0.0.9");
+                    throw new IllegalStateException("database unavailable");
+                })
+                .thenAnswer(i -> {
+                    List<LastLoginDTO> records = i.getArgument(0);
+                    batches.add(List.copyOf(records));
+                    return records.size();
+                });
+        buffer.record(1L, "10.0.0.1");
+        buffer.record(2L, "10.0.0.2");
+
+        buffer.flush();
+        verify(userCacheService, never()).invalidateAll(anyCollection());
+
+        buffer.flush();
+
+        assertEquals(1, batches.size());
+        Map<Long, LastLoginDTO> written = byUser(batches.get(0));
+        assertEquals("10.0.0.9", written.get(1L).getLoginIp());
+        assertEquals("10.0.0.2", written.get(2L).getLoginIp());
+        verify(userCacheService).invalidateAll(argThat((Collection<Long> ids) -> new HashSet<>(ids).equals(Set.of(1L, 2L))));
+    }
+
+    private static Map<Long, LastLoginDTO> byUser(List<LastLoginDTO> records) {
+        return records.stream().collect(Collectors.toMap(LastLoginDTO::getUserId, Function.identity()));
+    }
+}
@@ -0,0 +1,104 @@
+package top.alexjtech.educationapi.service.user.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import top.alexjtech.educationapi.mapper.UserArchiveMapper;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UserArchiveJobTest {
+
+    private UserArchiveMapper userArchiveMapper;
+    private StringRedisTemplate stringRedisTemplate;
+    private ValueOperations<String, String> valueOperations;
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+    private UserArchiveJob job;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        userArchiveMapper = mock(UserArchiveMapper.class);
+        stringRedisTemplate = mock(StringRedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(i -> new SimpleTransactionStatus());
+        meterRegistry = new SimpleMeterRegistry();
+
+        job = new UserArchiveJob(userArchiveMapper, stringRedisTemplate, transactionManager, meterRegistry);
+        ReflectionTestUtils.setField(job, "retention", Duration.ofDays(90));
+        ReflectionTestUtils.setField(job, "batchSize", 2);
+        ReflectionTestUtils.setField(job, "batchPause", Duration.ZERO);
+        ReflectionTestUtils.setField(job, "pauseRatio", 0.0);
+        ReflectionTestUtils.setField(job, "maxRunTime", Duration.ofMinutes(1));
+        ReflectionTestUtils.invokeMethod(job, "init");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void archivesInBatchesUntilShortBatchAndReleasesLock() {
+        when(valueOperations.setIfAbsent(eq(UserArchiveJob.LOCK_KEY), anyString(), any(Duration.class))).thenReturn(true);
+        when(userArchiveMapper.lockExpiredIds(any(), eq(2))).thenReturn(List.of(1L, 2L), List.of(3L));
+        when(userArchiveMapper.copyToArchive(anyList())).thenAnswer(i -> ((List<?>) i.getArgument(0)).size());
+        when(userArchiveMapper.deleteArchived(anyList())).thenAnswer(i -> ((List<?>) i.getArgument(0)).size());
+
+        job.archive();
+
+        verify(userArchiveMapper).copyToArchive(List.of(1L, 2L));
+        verify(userArchiveMapper).deleteArchived(List.of(3L));
+        // 第二批不足一批，不再查询
+        verify(userArchiveMapper, times(2)).lockExpiredIds(any(), anyInt());
+        verify(transactionManager, times(2)).commit(any());
+        assertEquals(3, meterRegistry.counter("user.archive.archived").count());
+        verify(stringRedisTemplate).execute(any(RedisScript.class), eq(List.of(UserArchiveJob.LOCK_KEY)), anyString());
+    }
+
+    @Test
+    void stampsMissingDeletedTimeInBatchesBeforeArchiving() {
+        when(userArchiveMapper.stampMissingDeletedTime(2)).thenReturn(2, 1);
+        when(userArchiveMapper.lockExpiredIds(any(), anyInt())).thenReturn(List.of());
+
+        assertEquals(0, job.archiveExpired());
+
+        InOrder order = inOrder(userArchiveMapper);
+        order.verify(userArchiveMapper, times(2)).stampMissingDeletedTime(2);
+        order.verify(userArchiveMapper).lockExpiredIds(any(), eq(2));
+    }
+
+    @Test
+    void skipsWhenAnotherNodeHoldsLock() {
+        when(valueOperations.setIfAbsent(eq(UserArchiveJob.LOCK_KEY), anyString(), any(Duration.class))).thenReturn(false);
+
+        job.archive();
+
+        verifyNoInteractions(userArchiveMapper);
+    }
+
+    @Test
+    void rollsBackAndStopsWhenRowCountsDiffer() {
+        when(userArchiveMapper.lockExpiredIds(any(), anyInt())).thenReturn(List.of(1L, 2L));
+        when(userArchiveMapper.copyToArchive(anyList())).thenReturn(2);
+        when(userArchiveMapper.deleteArchived(anyList())).thenReturn(1);
+
+        assertEquals(0, job.archiveExpired());
+
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        verify(userArchiveMapper, times(1)).lockExpiredIds(any(), anyInt());
+        assertEquals(1, meterRegistry.counter("user.archive.failures").count());
+    }
+}
@@ -0,0 +1,112 @@
+package top.alexjtech.educationapi.service.user.impl;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import top.alexjtech.educationapi.entity.User;
+import top.alexjtech.educationapi.mapper.UserMapper;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UserCacheServiceImplTest {
+
+    private UserMapper userMapper;
+    private RedisTemplate<String, byte[]> redisTemplate;
+    private ValueOperations<String, byte[]> valueOperations;
+    private SimpleMeterRegistry meterRegistry;
+    private UserCacheServiceImpl cacheService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        userMapper = mock(UserMapper.class);
+        redisTemplate = mock(RedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        meterRegistry = new SimpleMeterRegistry();
+        cacheService = new UserCacheServiceImpl(userMapper, redisTemplate, mock(StringRedisTemplate.class),
+                meterRegistry, mock(UserIdentifierFilter.class));
+        ReflectionTestUtils.setField(cacheService, "enabled", true);
+        ReflectionTestUtils.setField(cacheService, "nearMaxSize", 100L);
+        ReflectionTestUtils.setField(cacheService, "nearTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(cacheService, "redisTtl", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(cacheService, "invalidationFence", Duration.ofSeconds(5));
+        ReflectionTestUtils.invokeMethod(cacheService, "init");
+    }
+
+    @Test
+    void batchReadsNearCacheThenOneMgetThenOneInQuery() {
+        when(valueOperations.setIfAbsent(anyString(), any(byte[].class), any(Duration.class))).thenReturn(true);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.of(true));
+        // 用户1已在近端缓存
+        when(userMapper.selectProfileById(1L)).thenReturn(user(1L, "alice"));
+        assertEquals("alice", cacheService.getById(1L).getUsername());
+
+        // 用户2在Redis中，用户3只在数据库中，用户4不存在
+        byte[] cached = ReflectionTestUtils.invokeMethod(UserCacheServiceImpl.class, "encode", user(2L, "bob"));
+        when(valueOperations.multiGet(List.of("user:cache:id:2", "user:cache:id:3", "user:cache:id:4")))
+                .thenReturn(Arrays.asList(cached, null, null));
+        when(userMapper.selectProfileByIds(List.of(3L, 4L))).thenReturn(List.of(user(3L, "carol")));
+
+        Map<Long, User> users = cacheService.getByIds(Arrays.asList(1L, 2L, 3L, 2L, 4L, null));
+
+        assertEquals(3, users.size());
+        assertEquals("alice", users.get(1L).getUsername());
+        assertEquals("bob", users.get(2L).getUsername());
+        assertEquals("carol", users.get(3L).getUsername());
+        verify(valueOperations, times(1)).multiGet(anyList());
+        verify(userMapper, times(1)).selectProfileByIds(anyCollection());
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+
+        DistributionSummary hitRatio = meterRegistry.get("user.cache.batch.hit.ratio").summary();
+        assertEquals(50.0, hitRatio.mean(), 0.001);
+        assertEquals(4.0, meterRegistry.get("user.cache.batch.size").summary().mean(), 0.001);
+
+        // 再次读取全部命中近端缓存，不再访问Redis和数据库
+        assertEquals(3, cacheService.getByIds(List.of(1L, 2L, 3L)).size());
+        verify(valueOperations, times(1)).multiGet(anyList());
+        verify(userMapper, times(1)).selectProfileByIds(anyCollection());
+    }
+
+    @Test
+    void doesNotCacheRowReadBeforeConcurrentInvalidation() {
+        // 回库期间用户被修改并失效：Redis中已写入失效标记，回填的SET NX失败
+        when(userMapper.selectProfileById(1L)).thenAnswer(i -> {
+            cacheService.invalidate(1L);
+            return user(1L, "old");
+        });
+        when(valueOperations.setIfAbsent(eq("user:cache:id:1"), any(byte[].class), any(Duration.class))).thenReturn(false);
+
+        assertEquals("old", cacheService.getById(1L).getUsername());
+        verify(valueOperations).set("user:cache:id:1", new byte[0], Duration.ofSeconds(5));
+        verify(valueOperations, never()).set(eq("user:cache:id:1"), argThat(bytes -> bytes.length > 0), any(Duration.class));
+
+        // 旧数据没有写入近端缓存，下次读取回库拿到新数据
+        when(userMapper.selectProfileById(1L)).thenReturn(user(1L, "new"));
+        when(valueOperations.setIfAbsent(eq("user:cache:id:1"), any(byte[].class), any(Duration.class))).thenReturn(true);
+        assertEquals("new", cacheService.getById(1L).getUsername());
+        assertEquals("new", cacheService.getById(1L).getUsername());
+        verify(userMapper, times(2)).selectProfileById(1L);
+    }
+
+    private static User user(Long id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setPassword("hash");
+        return user;
+    }
+}
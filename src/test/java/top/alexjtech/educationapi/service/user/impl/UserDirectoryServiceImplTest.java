@@ -0,0 +1,104 @@
+package top.alexjtech.educationapi.service.user.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import top.alexjtech.educationapi.dto.user.UserDirectoryQueryDTO;
+import top.alexjtech.educationapi.mapper.UserMapper;
+import top.alexjtech.educationapi.vo.KeysetPageVO;
+import top.alexjtech.educationapi.vo.UserInfoVO;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UserDirectoryServiceImplTest {
+
+    private UserMapper userMapper;
+    private UserDirectoryServiceImpl directoryService;
+
+    @BeforeEach
+    void setUp() {
+        userMapper = mock(UserMapper.class);
+        directoryService = new UserDirectoryServiceImpl(userMapper, new SimpleMeterRegistry(),
+                mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(directoryService, "defaultPageSize", 2);
+        ReflectionTestUtils.setField(directoryService, "maxPageSize", 100);
+        ReflectionTestUtils.setField(directoryService, "countRefresh", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(directoryService, "countTtl", Duration.ofHours(1));
+        ReflectionTestUtils.setField(directoryService, "countCacheMaxSize", 100);
+        ReflectionTestUtils.invokeMethod(directoryService, "init");
+    }
+
+    @Test
+    void pagesByIdCursorAndCountsOncePerFilterInBackground() throws Exception {
+        when(userMapper.selectDirectoryPage(eq(1), isNull(), isNull(), isNull(), isNull(), eq(3)))
+                .thenReturn(users(1L, 2L, 3L));
+        when(userMapper.selectDirectoryPage(eq(1), isNull(), isNull(), isNull(), eq(2L), eq(3)))
+                .thenReturn(users(3L));
+        CountDownLatch release = new CountDownLatch(1);
+        when(userMapper.countDirectory(eq(1), isNull(), isNull(), isNull())).thenAnswer(i -> {
+            release.await(5, TimeUnit.SECONDS);
+            return 3L;
+        });
+
+        UserDirectoryQueryDTO query = new UserDirectoryQueryDTO();
+        query.setUserType(1);
+        KeysetPageVO<UserInfoVO> first = directoryService.listUsers(query);
+
+        assertEquals(List.of(1L, 2L), first.getRecords().stream().map(UserInfoVO::getId).toList());
+        assertTrue(first.isHasMore());
+        assertEquals(2L, first.getNextCursor());
+        // 新条件的总数在后台统计，首页不等待
+        assertNull(first.getTotal());
+        assertEquals("学生", first.getRecords().get(0).getUserTypeDesc());
+
+        query.setAfterId(first.getNextCursor());
+        KeysetPageVO<UserInfoVO> second = directoryService.listUsers(query);
+        // 统计进行中的请求共享同一次统计
+        assertNull(second.getTotal());
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (second.getTotal() == null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            second = directoryService.listUsers(query);
+        }
+
+        assertEquals(List.of(3L), second.getRecords().stream().map(UserInfoVO::getId).toList());
+        assertFalse(second.isHasMore());
+        assertNull(second.getNextCursor());
+        assertEquals(3L, second.getTotal());
+        verify(userMapper, times(1)).countDirectory(any(), any(), any(), any());
+    }
+
+    @Test
+    void capsPageSize() {
+        when(userMapper.selectDirectoryPage(any(), any(), any(), any(), any(), anyInt())).thenReturn(new ArrayList<>());
+        UserDirectoryQueryDTO query = new UserDirectoryQueryDTO();
+        query.setSize(500);
+
+        KeysetPageVO<UserInfoVO> page = directoryService.listUsers(query);
+
+        assertEquals(100, page.getSize());
+        verify(userMapper).selectDirectoryPage(isNull(), isNull(), isNull(), isNull(), isNull(), eq(101));
+    }
+
+    private static List<UserInfoVO> users(Long... ids) {
+        List<UserInfoVO> users = new ArrayList<>();
+        for (Long id : ids) {
+            UserInfoVO user = new UserInfoVO();
+            user.setId(id);
+            user.setUserType(1);
+            users.add(user);
+        }
+        return users;
+    }
+}
@@ -0,0 +1,169 @@
+package top.alexjtech.educationapi.service.user.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import top.alexjtech.educationapi.common.ExportFormat;
+import top.alexjtech.educationapi.dto.user.UserDirectoryQueryDTO;
+import top.alexjtech.educationapi.mapper.UserMapper;
+import top.alexjtech.educationapi.vo.UserInfoVO;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class UserExportServiceImplTest {
+
+    private static final int MILLION = 1_000_000;
+
+    private UserMapper userMapper;
+    private UserExportServiceImpl exportService;
+
+    @BeforeEach
+    void setUp() {
+        userMapper = mock(UserMapper.class);
+        exportService = new UserExportServiceImpl(userMapper, Jackson2ObjectMapperBuilder.json().build(),
+                new SimpleMeterRegistry(), mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(exportService, "maxConcurrentExports", 1);
+        ReflectionTestUtils.invokeMethod(exportService, "init");
+    }
+
+    @Test
+    void streamsMillionRowsWithoutBufferingResult() throws Exception {
+        CountingOutputStream out = new CountingOutputStream();
+        // 每读出一行都检查之前的行已经写出（写缓冲区之外没有累积），证明边读边写
+        SyntheticCursor cursor = new SyntheticCursor(MILLION, index -> {
+            if (index > 0 && index % 100_000 == 0) {
+                assertTrue(out.bytes > index * 40L, "第" + index + "行之前的数据应已写出");
+            }
+        });
+        when(userMapper.selectExportCursor(any(), any(), any(), any())).thenReturn(cursor);
+
+        long rows = exportService.exportUsers(new UserDirectoryQueryDTO(), ExportFormat.CSV, out);
+
+        assertEquals(MILLION, rows);
+        assertEquals(MILLION + 1, out.lines);
+        assertTrue(cursor.closed);
+    }
+
+    @Test
+    void writesNdjsonLinesAndEscapesCsv() throws Exception {
+        when(userMapper.selectExportCursor(any(), any(), any(), any()))
+                .thenAnswer(i -> new SyntheticCursor(2, index -> { }));
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+
+        assertEquals(2, exportService.exportUsers(new UserDirectoryQueryDTO(), ExportFormat.NDJSON, ndjson));
+
+        String[] lines = ndjson.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1,"));
+        assertTrue(lines[1].contains("\"userTypeDesc\":\"学生\""));
+        assertTrue(lines[1].contains("\"createTime\":\"2026-10-17 08:00:00\""));
+        assertFalse(lines[1].contains("password"));
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        exportService.exportUsers(new UserDirectoryQueryDTO(), ExportFormat.CSV, csv);
+        String[] csvLines = csv.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals("1,user1,\"张,三\",'=1+1,,,学生,,0,,2026-10-17 08:00:00", csvLines[1]);
+    }
+
+    /**
+     * 按需生成用户的游标，模拟逐行读取的数据库结果集
+     */
+    private static class SyntheticCursor implements Cursor<UserInfoVO> {
+
+        private final int size;
+        private final IntConsumer onFetch;
+        private int index = -1;
+        private boolean closed;
+
+        SyntheticCursor(int size, IntConsumer onFetch) {
+            this.size = size;
+            this.onFetch = onFetch;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return !closed;
+        }
+
+        @Override
+        public boolean isConsumed() {
+            return index >= size - 1;
+        }
+
+        @Override
+        public int getCurrentIndex() {
+            return index;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        @Override
+        public Iterator<UserInfoVO> iterator() {
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return index + 1 < size;
+                }
+
+                @Override
+                public UserInfoVO next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    index++;
+                    onFetch.accept(index);
+                    UserInfoVO user = new UserInfoVO();
+                    user.setId(index + 1L);
+                    user.setUsername("user" + (index + 1));
+                    user.setRealName("张,三");
+                    user.setNickname("=1+1");
+                    user.setUserType(1);
+                    user.setStatus(0);
+                    user.setCreateTime(LocalDateTime.of(2026, 10, 17, 8, 0));
+                    return user;
+                }
+            };
+        }
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+
+        private long bytes;
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package top.alexjtech.educationapi.service.user.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import top.alexjtech.educationapi.entity.User;
+import top.alexjtech.educationapi.exception.BusinessException;
+import top.alexjtech.educationapi.mapper.UserMapper;
+import top.alexjtech.educationapi.service.security.PasswordHashService;
+import top.alexjtech.educationapi.service.user.UserService;
+import top.alexjtech.educationapi.vo.user.UserImportJobVO;
+import top.alexjtech.educationapi.vo.user.UserImportResultVO;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UserImportServiceImplTest {
+
+    private UserMapper userMapper;
+    private JdbcTemplate jdbcTemplate;
+    private UserIdentifierFilter userIdentifierFilter;
+    private UserImportServiceImpl importService;
+    // 已提交的行；事务中写入的行在提交后才计入，回滚时丢弃
+    private final List<User> inserted = new ArrayList<>();
+    private final List<User> uncommitted = new ArrayList<>();
+    private boolean inTransaction;
+    private final Map<String, String> redis = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        userMapper = mock(UserMapper.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        userIdentifierFilter = mock(UserIdentifierFilter.class);
+        UserService userService = mock(UserService.class);
+        when(userService.isValidEmail(anyString())).thenAnswer(i -> ((String) i.getArgument(0)).contains("@"));
+        when(userService.isValidPhone(anyString())).thenAnswer(i -> ((String) i.getArgument(0)).matches("^1[3-9]\\d{9}$"));
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), ArgumentMatchers.<ParameterizedPreparedStatementSetter<User>>any()))
+                .thenAnswer(i -> {
+                    write(i.getArgument(1));
+                    return new int[0][0];
+                });
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(i -> {
+            inTransaction = true;
+            return new SimpleTransactionStatus();
+        });
+        doAnswer(i -> {
+            inserted.addAll(uncommitted);
+            uncommitted.clear();
+            inTransaction = false;
+            return null;
+        }).when(transactionManager).commit(any());
+        doAnswer(i -> {
+            uncommitted.clear();
+            inTransaction = false;
+            return null;
+        }).when(transactionManager).rollback(any());
+
+        StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> valueOperations = mock();
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        doAnswer(i -> redis.put(i.getArgument(0), i.getArgument(1)))
+                .when(valueOperations).set(anyString(), anyString(), any(Duration.class));
+        when(valueOperations.get(anyString())).thenAnswer(i -> redis.get(i.getArgument(0)));
+
+        PasswordHashService passwordHashService = mock(PasswordHashService.class);
+        when(passwordHashService.getStrength()).thenReturn(4);
+        importService = new UserImportServiceImpl(userMapper, userService, userIdentifierFilter,
+                mock(UserSearchIndex.class), jdbcTemplate, passwordHashService, transactionManager, stringRedisTemplate);
+        ReflectionTestUtils.setField(importService, "batchSize", 1000);
+        ReflectionTestUtils.setField(importService, "hashThreads", 2);
+        ReflectionTestUtils.setField(importService, "maxErrors", 100);
+        ReflectionTestUtils.setField(importService, "maxConcurrentImports", 1);
+        ReflectionTestUtils.setField(importService, "jobRetention", Duration.ofHours(1));
+        ReflectionTestUtils.invokeMethod(importService, "init");
+    }
+
+    private void write(List<User> users) {
+        (inTransaction ? uncommitted : inserted).addAll(users);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(importService, "shutdown");
+    }
+
+    @Test
+    void importsValidRowsAndReportsRowErrors() {
+        User existing = new User();
+        existing.setUsername("Taken");
+        when(userMapper.selectExistingIdentifiers(any(), any(), any())).thenReturn(List.of(existing));
+
+        String csv = "﻿用户名,密码,姓名,邮箱,手机号,用户类型\n"
+                + "s001,secret01,张三,s001@school.edu,13800000001,学生\n"
+                + "s002,,李四,,,\n"
+                + ",secret03,王五,,,\n"
+                + "s004,secret04,赵六,not-an-email,,\n"
+                + "s001,secret05,重复,,,\n"
+                + "taken,secret06,已存在,,,\n"
+                + "t007,secret07,老师,,,2\n"
+                + "s008,secret08,管理员,,,3\n";
+
+        UserImportResultVO result = importService.importUsers(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), "roster.csv", 1, "init123");
+
+        assertEquals(8, result.getTotal());
+        assertEquals(3, result.getSucceeded());
+        assertEquals(5, result.getFailed());
+        assertEquals(List.of(4, 5, 6, 7, 9), result.getErrors().stream().map(UserImportResultVO.RowError::getRow).toList());
+
+        assertEquals(List.of("s001", "s002", "t007"), inserted.stream().map(User::getUsername).toList());
+        assertEquals(List.of(1, 1, 2), inserted.stream().map(User::getUserType).toList());
+        assertTrue(inserted.get(0).getPassword().startsWith("$2a$04$"));
+        assertNull(inserted.get(1).getEmail());
+        verify(userIdentifierFilter).addAll(anyList());
+    }
+
+    @Test
+    void streamsLargeRosterInBatches() {
+        when(userMapper.selectExistingIdentifiers(any(), any(), any())).thenReturn(List.of());
+        StringBuilder csv = new StringBuilder("用户名,手机号\n");
+        for (int i = 0; i < 5_000; i++) {
+            csv.append("student").append(i).append(',').append(13_000_000_000L + i).append('\n');
+        }
+
+        UserImportResultVO result = importService.importUsers(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), "roster.csv", 1, "init123");
+
+        assertEquals(5_000, result.getSucceeded());
+        assertEquals(0, result.getFailed());
+        // 使用初始密码的行各自加盐，哈希互不相同
+        assertNotEquals(inserted.get(0).getPassword(), inserted.get(1).getPassword());
+        verify(jdbcTemplate, times(5)).batchUpdate(anyString(), anyCollection(), eq(1000),
+                ArgumentMatchers.<ParameterizedPreparedStatementSetter<User>>any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rollsBackPartlyAppliedBatchBeforeRetryingRowByRow() {
+        when(userMapper.selectExistingIdentifiers(any(), any(), any())).thenReturn(List.of());
+        // 驱动逐行发送：冲突行之前的行已执行，随后整批失败
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), ArgumentMatchers.<ParameterizedPreparedStatementSetter<User>>any()))
+                .thenAnswer(i -> {
+                    write(((List<User>) i.getArgument(1)).subList(0, 2));
+                    throw new DuplicateKeyException("Duplicate entry 's003' for key 'sys_user.uk_username'");
+                });
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenAnswer(i -> {
+            String username = i.getArgument(1);
+            if ("s003".equals(username) || inserted.stream().anyMatch(user -> user.getUsername().equals(username))) {
+                throw new DuplicateKeyException("Duplicate entry '" + username + "' for key 'sys_user.uk_username'");
+            }
+            User user = new User();
+            user.setUsername(username);
+            inserted.add(user);
+            return 1;
+        });
+
+        String csv = "用户名,密码\ns001,secret01\ns002,secret02\ns003,secret03\ns004,secret04\n";
+        UserImportResultVO result = importService.importUsers(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), "roster.csv", 1, null);
+
+        // 回滚后逐行重试，只有真正冲突的行失败
+        assertEquals(3, result.getSucceeded());
+        assertEquals(List.of(4), result.getErrors().stream().map(UserImportResultVO.RowError::getRow).toList());
+        assertEquals(List.of("s001", "s002", "s004"), inserted.stream().map(User::getUsername).toList());
+        ArgumentCaptor<List<User>> added = ArgumentCaptor.forClass(List.class);
+        verify(userIdentifierFilter).addAll(added.capture());
+        assertEquals(List.of("s001", "s002", "s004"), added.getValue().stream().map(User::getUsername).toList());
+    }
+
+    @Test
+    void runsSubmittedImportInBackgroundAndReportsResult() throws Exception {
+        when(userMapper.selectExistingIdentifiers(any(), any(), any())).thenReturn(List.of());
+        String csv = "用户名,密码\ns001,secret01\ns002,\n";
+
+        UserImportJobVO submitted = importService.submitImport(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), "roster.csv", 1, null);
+        assertEquals(UserImportJobVO.RUNNING, submitted.getStatus());
+
+        UserImportJobVO job = importService.getImportJob(submitted.getJobId());
+        for (int i = 0; i < 200 && UserImportJobVO.RUNNING.equals(job.getStatus()); i++) {
+            Thread.sleep(50);
+            job = importService.getImportJob(submitted.getJobId());
+        }
+        assertEquals(UserImportJobVO.SUCCEEDED, job.getStatus());
+        assertEquals(2, job.getProcessedRows());
+        assertEquals(1, job.getResult().getSucceeded());
+        assertEquals(List.of(3), job.getResult().getErrors().stream().map(UserImportResultVO.RowError::getRow).toList());
+        assertNotNull(job.getFinishTime());
+
+        BusinessException missing = assertThrows(BusinessException.class, () -> importService.getImportJob("unknown"));
+        assertEquals(1002, missing.getCode());
+    }
+
+    @Test
+    void rejectsRosterWithoutUsernameColumn() {
+        String csv = "姓名,邮箱\n张三,a@b.com\n";
+        BusinessException e = assertThrows(BusinessException.class, () -> importService.importUsers(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), "roster.csv", 1, null));
+        assertEquals(400, e.getCode());
+    }
+}
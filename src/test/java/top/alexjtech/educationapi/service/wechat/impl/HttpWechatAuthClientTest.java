@@ -0,0 +1,141 @@
+package top.alexjtech.educationapi.service.wechat.impl;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import top.alexjtech.educationapi.exception.BusinessException;
+import top.alexjtech.educationapi.service.wechat.WechatSession;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 使用本地桩服务器模拟微信 jscode2session 接口
+ */
+class HttpWechatAuthClientTest {
+
+    private HttpServer server;
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger flakyHits = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private HttpWechatAuthClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/sns/jscode2session", exchange -> {
+            hits.incrementAndGet();
+            String query = exchange.getRequestURI().getQuery();
+            String body;
+            if (query.contains("js_code=slow")) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                body = "{\"openid\":\"openid-slow\",\"session_key\":\"key-slow\"}";
+            } else if (query.contains("js_code=bad")) {
+                body = "{\"errcode\":40029,\"errmsg\":\"invalid code\"}";
+            } else if (query.contains("js_code=flaky")) {
+                // 第一次返回系统错误，之后正常
+                body = flakyHits.incrementAndGet() == 1
+                        ? "{\"errcode\":-1,\"errmsg\":\"system error\"}"
+                        : "{\"openid\":\"openid-flaky\",\"session_key\":\"key-flaky\"}";
+            } else if (query.contains("js_code=busy")) {
+                body = "{\"errcode\":-1,\"errmsg\":\"system error\"}";
+            } else {
+                body = "{\"openid\":\"openid-1\",\"unionid\":\"union-1\",\"session_key\":\"key-1\"}";
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            exchange.getResponseBody().write(bytes);
+            exchange.close();
+        });
+        server.start();
+
+        client = new HttpWechatAuthClient(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(client, "appId", "wx-app");
+        ReflectionTestUtils.setField(client, "appSecret", "secret");
+        ReflectionTestUtils.setField(client, "apiBaseUrl", "http://127.0.0.1:" + server.getAddress().getPort());
+        ReflectionTestUtils.setField(client, "connectTimeout", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(client, "requestTimeout", Duration.ofSeconds(3));
+        ReflectionTestUtils.setField(client, "ioThreads", 2);
+        ReflectionTestUtils.setField(client, "sessionCacheTtl", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(client, "sessionCacheMaxSize", 100L);
+        client.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void returnsSessionAndCachesItForTheCode() {
+        WechatSession session = client.code2Session("good");
+
+        assertEquals("openid-1", session.getOpenId());
+        assertEquals("union-1", session.getUnionId());
+        assertEquals("key-1", session.getSessionKey());
+
+        // 小程序重复提交同一code时不再访问微信
+        assertSame(session, client.code2Session("good"));
+        assertEquals(1, hits.get());
+    }
+
+    @Test
+    void coalescesConcurrentRequestsForTheSameCode() throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<WechatSession>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(callers.submit(() -> client.code2Session("slow")));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<WechatSession> result : results) {
+                assertEquals("openid-slow", result.get(5, TimeUnit.SECONDS).getOpenId());
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+        assertEquals(1, hits.get());
+    }
+
+    @Test
+    void invalidCodeReturnsNullAndWechatErrorsAreUnavailable() {
+        assertNull(client.code2Session("bad"));
+
+        BusinessException e = assertThrows(BusinessException.class, () -> client.code2Session("busy"));
+        assertEquals(503, e.getCode());
+
+        // 失败结果不缓存
+        assertThrows(BusinessException.class, () -> client.code2Session("busy"));
+        assertEquals(3, hits.get());
+    }
+
+    @Test
+    void retryAfterFailureSendsNewRequest() {
+        assertThrows(BusinessException.class, () -> client.code2Session("flaky"));
+
+        // 失败的请求返回前已从进行中列表移除，立即重试会重新请求微信
+        assertEquals("openid-flaky", client.code2Session("flaky").getOpenId());
+        assertEquals(2, flakyHits.get());
+    }
+}
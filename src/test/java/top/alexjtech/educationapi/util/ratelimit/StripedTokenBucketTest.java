@@ -0,0 +1,99 @@
+package top.alexjtech.educationapi.util.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedTokenBucketTest {
+
+    // 每秒补充极少，测试期间可视为不补充
+    private static final double NO_REFILL = 0.001;
+
+    @Test
+    void allowsBurstUpToCapacityThenRejects() {
+        StripedTokenBucket buckets = new StripedTokenBucket(1024, 5, NO_REFILL);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(buckets.tryAcquire("10.0.0.1"), "第 " + (i + 1) + " 次应放行");
+        }
+        assertFalse(buckets.tryAcquire("10.0.0.1"));
+        assertFalse(buckets.tryAcquire("10.0.0.1"));
+        // 其他键使用独立的桶
+        assertTrue(buckets.tryAcquire("10.0.0.2"));
+    }
+
+    @Test
+    void refillsOverTimeWithoutExceedingCapacity() throws Exception {
+        // 每50ms补充一个令牌
+        StripedTokenBucket buckets = new StripedTokenBucket(1024, 2, 20.0);
+        assertTrue(buckets.tryAcquire("student01"));
+        assertTrue(buckets.tryAcquire("student01"));
+
+        // 空闲期间可补充6个令牌，但最多只保留容量内的2个
+        Thread.sleep(300);
+
+        assertTrue(buckets.tryAcquire("student01"));
+        assertTrue(buckets.tryAcquire("student01"));
+        assertFalse(buckets.tryAcquire("student01"));
+    }
+
+    @Test
+    void concurrentAcquiresNeverExceedCapacity() throws Exception {
+        StripedTokenBucket buckets = new StripedTokenBucket(1024, 1000, NO_REFILL);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    int acquired = 0;
+                    for (int i = 0; i < 500; i++) {
+                        if (buckets.tryAcquire("shared")) {
+                            acquired++;
+                        }
+                    }
+                    return acquired;
+                }));
+            }
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> result : results) {
+                total += result.get(10, TimeUnit.SECONDS);
+            }
+            assertEquals(1000, total);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectsCapacityOutsidePackedRange() {
+        // 剩余令牌占低20位（千分之一令牌为单位），最大容量为1048
+        assertDoesNotThrow(() -> new StripedTokenBucket(16, 1048, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new StripedTokenBucket(16, 1049, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new StripedTokenBucket(16, 0, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new StripedTokenBucket(16, 10, 0));
+    }
+
+    @Test
+    void fullCapacityBucketDoesNotOverflowIntoTimestamp() throws Exception {
+        StripedTokenBucket buckets = new StripedTokenBucket(16, 1048, 1000.0);
+        assertTrue(buckets.tryAcquire("k"));
+        // 补充后剩余令牌达到容量上限，不能溢出到时间位
+        Thread.sleep(20);
+        int acquired = 0;
+        while (buckets.tryAcquire("k") && acquired < 2000) {
+            acquired++;
+        }
+        assertTrue(acquired >= 1048 && acquired < 2000, "acquired=" + acquired);
+    }
+}
@@ -0,0 +1,53 @@
+package top.alexjtech.educationapi.util.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NGramIndexTest {
+
+    @Test
+    void ranksExactAndPrefixMatchesAndToleratesTypos() {
+        NGramIndex index = new NGramIndex();
+        index.add(1, 1, "zhangsan", "张三", "小张", "13800001234");
+        index.add(2, 1, "zhangsanfeng", "张三丰", null, "13900005678");
+        index.add(3, 2, "lisi", "李四", "四哥", "13700001234");
+        index.add(4, 1, "wangwu", "王五", null, null);
+
+        assertArrayEquals(new long[]{1, 2}, index.search("张三", null, 0.5, 0, 10).ids());
+        assertArrayEquals(new long[]{2}, index.search("张三丰", null, 0.5, 0, 10).ids());
+        // 手机号片段
+        assertArrayEquals(new long[]{1, 3}, index.search("1234", null, 0.5, 0, 10).ids());
+        assertArrayEquals(new long[]{3}, index.search("1234", 2, 0.5, 0, 10).ids());
+        // 单字只按开头匹配
+        assertArrayEquals(new long[]{3}, index.search("李", null, 0.5, 0, 10).ids());
+        // 两个ASCII字符只按开头匹配
+        assertArrayEquals(new long[]{3}, index.search("li", null, 0.3, 0, 10).ids());
+        // 错字：zhnagsan 与 zhangsan 的6个三元组中有2个相同，没有完全命中时按比例放宽
+        assertEquals(1, index.search("zhnagsan", null, 0.3, 0, 10).ids()[0]);
+        assertEquals(0, index.search("zhnagsan", null, 0.5, 0, 10).total());
+        // 分页
+        NGramIndex.Hits second = index.search("张三", null, 0.5, 1, 1);
+        assertArrayEquals(new long[]{2}, second.ids());
+        assertEquals(2, second.total());
+
+        // 修改后新增词项，旧词项由调用方回查原文过滤
+        index.add(4, null, "王小五");
+        assertArrayEquals(new long[]{4}, index.search("小五", null, 0.5, 0, 10).ids());
+        assertTrue(NGramIndex.score("小五", 0.5, "wangwu", "王小五") > 0);
+        assertEquals(0, NGramIndex.score("张三", 0.5, "wangwu", "王五"));
+        assertEquals(4, index.documentCount());
+    }
+
+    @Test
+    void keepsPostingsSortedWhenIdsArriveOutOfOrder() {
+        NGramIndex index = new NGramIndex();
+        index.add(30, null, "abc");
+        index.add(10, null, "abc");
+        index.add(20, null, "abc");
+        index.add(10, null, "abc");
+
+        assertArrayEquals(new long[]{10, 20, 30}, index.search("abc", null, 0.5, 0, 10).ids());
+        assertEquals(3, index.documentCount());
+    }
+}
@@ -0,0 +1,93 @@
+package top.alexjtech.educationapi.util.security;
+
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+import top.alexjtech.educationapi.entity.CustomUserDetails;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    static final String SECRET = "education-api-jwt-secret-key-for-authentication-and-authorization";
+
+    private JwtUtil jwtUtil;
+
+    static JwtUtil createJwtUtil(long verifyCacheMaxSize) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86400000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifyCacheMaxSize", verifyCacheMaxSize);
+        ReflectionTestUtils.setField(jwtUtil, "verifyCacheMaxTtl", 600000L);
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    static CustomUserDetails student() {
+        return new CustomUserDetails("student01", "", 42L, 1,
+                List.of(new SimpleGrantedAuthority("ROLE_STUDENT")));
+    }
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = createJwtUtil(100);
+    }
+
+    @Test
+    void verifyReturnsAllClaimsFromSingleParse() {
+        String token = jwtUtil.generateToken(student());
+
+        VerifiedToken verified = jwtUtil.verify(token);
+
+        assertEquals("student01", verified.getSubject());
+        assertEquals(42L, verified.getUserId());
+        assertEquals(1, verified.getUserType());
+        assertEquals(List.of("ROLE_STUDENT"), verified.getRoles());
+        assertTrue(verified.isStateless());
+        assertFalse(verified.isExpired(System.currentTimeMillis()));
+    }
+
+    @Test
+    void repeatedVerificationIsServedFromCache() {
+        String token = jwtUtil.generateToken(student());
+
+        assertSame(jwtUtil.verify(token), jwtUtil.verify(token));
+    }
+
+    @Test
+    void tamperedTokenIsRejectedEvenAfterOriginalWasCached() {
+        String token = jwtUtil.generateToken(student());
+        jwtUtil.verify(token);
+
+        String[] parts = token.split("\\.");
+        String tampered = parts[0] + "." + parts[1] + "x." + parts[2];
+
+        assertThrows(JwtException.class, () -> jwtUtil.verify(tampered));
+    }
+
+    @Test
+    void userDetailsAreBuiltFromClaims() {
+        String token = jwtUtil.generateToken(student());
+
+        CustomUserDetails userDetails = jwtUtil.getUserDetailsFromToken(token);
+
+        assertNotNull(userDetails);
+        assertEquals(42L, userDetails.getUserId());
+        assertEquals(1, userDetails.getUserType());
+        assertTrue(jwtUtil.validateToken(token, userDetails));
+        assertTrue(userDetails.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_STUDENT")));
+    }
+
+    @Test
+    void verificationWorksWithCacheDisabled() {
+        JwtUtil uncached = createJwtUtil(0);
+        String token = uncached.generateToken(student());
+
+        assertEquals("student01", uncached.getUsernameFromToken(token));
+        assertNotSame(uncached.verify(token), uncached.verify(token));
+    }
+}